@@ -0,0 +1,150 @@
+package com.detectivedex.benchmarks;
+
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.Relation;
+import com.detectivedex.entity.SeverityLevel;
+import com.detectivedex.entity.TimelineEvent;
+import com.detectivedex.persistence.PersistenceManager;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Graphe synthétique chargé dans la base H2 en mémoire avant chaque essai.
+ *
+ * La taille est paramétrable (-p nodes=...,relationsPerNode=...,eventsPerNode=...). Le générateur
+ * est initialisé avec une graine fixe pour que deux exécutions comparent le même graphe.
+ */
+@State(Scope.Benchmark)
+public class GraphState {
+
+    private static final int FLUSH_SIZE = 50;
+    private static final int COMMIT_SIZE = 1000;
+    private static final long SEED = 42L;
+
+    @Param({"1000", "10000"})
+    public int nodes;
+
+    @Param({"3"})
+    public int relationsPerNode;
+
+    @Param({"2"})
+    public int eventsPerNode;
+
+    /** Ids des nœuds créés, dans l'ordre de création. */
+    public List<Long> nodeIds;
+
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        clear();
+        random = new Random(SEED);
+        nodeIds = seedNodes();
+        seedRelationsAndEvents();
+    }
+
+    /**
+     * Id d'un nœud existant tiré au hasard, pour les requêtes ciblées.
+     */
+    public Long randomNodeId() {
+        return nodeIds.get(random.nextInt(nodeIds.size()));
+    }
+
+    private static void clear() {
+        EntityManager em = PersistenceManager.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM GraphChangeEntry").executeUpdate();
+            em.createQuery("DELETE FROM TimelineEvent").executeUpdate();
+            em.createQuery("DELETE FROM Relation").executeUpdate();
+            em.createQuery("DELETE FROM EvidenceNode").executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    private List<Long> seedNodes() {
+        NodeType[] types = NodeType.values();
+        SeverityLevel[] severities = SeverityLevel.values();
+        String[] statuses = {"OPEN", "IN_PROGRESS", "RESOLVED"};
+        List<Long> ids = new ArrayList<>(nodes);
+        List<EvidenceNode> batch = new ArrayList<>(COMMIT_SIZE);
+        for (int i = 0; i < nodes; i++) {
+            EvidenceNode node = new EvidenceNode("Node " + i,
+                    types[random.nextInt(types.length)], severities[random.nextInt(severities.length)]);
+            node.setDescription("Synthetic evidence #" + i + " <seeded> & \"escaped\"");
+            node.setStatus(statuses[random.nextInt(statuses.length)]);
+            node.setPositionX(random.nextDouble() * 2000);
+            node.setPositionY(random.nextDouble() * 2000);
+            batch.add(node);
+            if (batch.size() == COMMIT_SIZE || i == nodes - 1) {
+                persist(batch);
+                batch.forEach(persisted -> ids.add(persisted.getId()));
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    private void seedRelationsAndEvents() {
+        String[] relationTypes = {"EXPLOITS", "LEADS_TO", "TARGETS", "RELATED_TO"};
+        String[] confidences = {"HIGH", "MEDIUM", "LOW"};
+        String[] eventTypes = {"DETECTION", "ANALYSIS", "MITIGATION"};
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Object> batch = new ArrayList<>(COMMIT_SIZE);
+        EntityManager em = PersistenceManager.getEntityManager();
+        try {
+            for (int i = 0; i < nodeIds.size(); i++) {
+                EvidenceNode source = em.getReference(EvidenceNode.class, nodeIds.get(i));
+                for (int r = 0; r < relationsPerNode; r++) {
+                    EvidenceNode target = em.getReference(EvidenceNode.class, randomNodeId());
+                    Relation relation = new Relation(source, target, relationTypes[random.nextInt(relationTypes.length)]);
+                    relation.setConfidence(confidences[random.nextInt(confidences.length)]);
+                    batch.add(relation);
+                }
+                for (int e = 0; e < eventsPerNode; e++) {
+                    batch.add(new TimelineEvent(source, "Event " + i + "." + e,
+                            start.plusMinutes(random.nextInt(30 * 24 * 60)), eventTypes[random.nextInt(eventTypes.length)]));
+                }
+                if (batch.size() >= COMMIT_SIZE || i == nodeIds.size() - 1) {
+                    persist(em, batch);
+                    batch.clear();
+                }
+            }
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void persist(List<?> entities) {
+        EntityManager em = PersistenceManager.getEntityManager();
+        try {
+            persist(em, entities);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void persist(EntityManager em, List<?> entities) {
+        em.getTransaction().begin();
+        for (int i = 0; i < entities.size(); i++) {
+            em.persist(entities.get(i));
+            if ((i + 1) % FLUSH_SIZE == 0) {
+                em.flush();
+            }
+        }
+        em.getTransaction().commit();
+        em.clear();
+    }
+}
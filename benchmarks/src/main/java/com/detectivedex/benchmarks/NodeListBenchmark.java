@@ -0,0 +1,59 @@
+package com.detectivedex.benchmarks;
+
+import com.detectivedex.rest.EvidenceNodeResource;
+import jakarta.ws.rs.core.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /nodes : première page, page projetée et parcours complet par curseur.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dhibernate.show_sql=false",
+        "-Dlogback.configurationFile=logback-benchmarks.xml"})
+public class NodeListBenchmark {
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    @Param({"100", "1000"})
+    public int limit;
+
+    private final EvidenceNodeResource resource = new EvidenceNodeResource();
+
+    @Benchmark
+    public long firstPage(GraphState graph) throws IOException {
+        return ResponseSink.write(resource.getAllNodes(limit, null, null));
+    }
+
+    @Benchmark
+    public long projectedPage(GraphState graph) throws IOException {
+        return ResponseSink.write(resource.getAllNodes(limit, null, "name,nodeType,severity,positionX,positionY"));
+    }
+
+    @Benchmark
+    public long allPages(GraphState graph) throws IOException {
+        long bytes = 0;
+        String cursor = null;
+        do {
+            Response page = resource.getAllNodes(limit, cursor, null);
+            cursor = page.getHeaderString(NEXT_CURSOR_HEADER);
+            bytes += ResponseSink.write(page);
+        } while (cursor != null);
+        return bytes;
+    }
+}
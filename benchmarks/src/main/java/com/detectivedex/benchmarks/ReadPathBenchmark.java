@@ -0,0 +1,77 @@
+package com.detectivedex.benchmarks;
+
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.persistence.PersistenceManager;
+import com.detectivedex.persistence.StatelessRead;
+import com.detectivedex.persistence.UnitOfWork;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Lecture de tous les nœuds comme le fait un rapport, selon trois chemins : contexte de persistance
+ * classique (liste complète, copie de l'état de chaque entité), session en lecture seule parcourue par
+ * lots, et StatelessRead. Comparer gc.alloc.rate.norm ; sur un grand graphe, le premier chemin garde
+ * en plus tout le résultat en mémoire jusqu'à la fin.
+ *
+ * Exemple : java -jar target/benchmarks.jar ReadPath -p nodes=500000 -p relationsPerNode=0 -p eventsPerNode=0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Dhibernate.show_sql=false",
+        "-Dlogback.configurationFile=logback-benchmarks.xml"})
+public class ReadPathBenchmark {
+
+    private static final String NODES = "SELECT n FROM EvidenceNode n ORDER BY n.severity DESC, n.createdAt DESC";
+
+    @Benchmark
+    public void managed(GraphState graph, Blackhole blackhole) {
+        EntityManager em = PersistenceManager.getEntityManager();
+        try {
+            for (EvidenceNode node : em.createQuery(NODES, EvidenceNode.class).getResultList()) {
+                blackhole.consume(node.getName());
+            }
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public void readOnlyScroll(GraphState graph, Blackhole blackhole) {
+        try (UnitOfWork work = UnitOfWork.read();
+             Stream<EvidenceNode> nodes = work.entityManager().createQuery(NODES, EvidenceNode.class)
+                     .setHint(HibernateHints.HINT_READ_ONLY, true)
+                     .setHint(HibernateHints.HINT_FETCH_SIZE, StatelessRead.FETCH_SIZE)
+                     .getResultStream()) {
+            for (Iterator<EvidenceNode> it = nodes.iterator(); it.hasNext(); ) {
+                blackhole.consume(it.next().getName());
+            }
+        }
+    }
+
+    @Benchmark
+    public void stateless(GraphState graph, Blackhole blackhole) {
+        try (StatelessRead reads = StatelessRead.open();
+             Stream<EvidenceNode> nodes = reads.stream(NODES, EvidenceNode.class)) {
+            for (Iterator<EvidenceNode> it = nodes.iterator(); it.hasNext(); ) {
+                blackhole.consume(it.next().getName());
+            }
+        }
+    }
+}
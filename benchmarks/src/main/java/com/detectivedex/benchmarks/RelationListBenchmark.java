@@ -0,0 +1,49 @@
+package com.detectivedex.benchmarks;
+
+import com.detectivedex.rest.RelationResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /relations (résumés et expand=nodes) et GET /relations/from/{id}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dhibernate.show_sql=false",
+        "-Dlogback.configurationFile=logback-benchmarks.xml"})
+public class RelationListBenchmark {
+
+    @Param({"100", "1000"})
+    public int limit;
+
+    private final RelationResource resource = new RelationResource();
+
+    @Benchmark
+    public long summaryPage(GraphState graph) throws IOException {
+        return ResponseSink.write(resource.getAllRelations(limit, null, null, null));
+    }
+
+    @Benchmark
+    public long expandedPage(GraphState graph) throws IOException {
+        return ResponseSink.write(resource.getAllRelations(limit, null, null, "nodes"));
+    }
+
+    @Benchmark
+    public long relationsFromNode(GraphState graph) throws IOException {
+        return ResponseSink.write(resource.getRelationsFromNode(graph.randomNodeId(), null));
+    }
+}
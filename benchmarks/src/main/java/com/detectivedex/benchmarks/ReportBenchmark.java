@@ -0,0 +1,50 @@
+package com.detectivedex.benchmarks;
+
+import com.detectivedex.rest.ReportResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération des rapports : export JSON, export HTML et statistiques.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dhibernate.show_sql=false",
+        "-Dlogback.configurationFile=logback-benchmarks.xml"})
+public class ReportBenchmark {
+
+    private final ReportResource resource = new ReportResource();
+
+    @Benchmark
+    public long exportJson(GraphState graph) throws IOException {
+        return ResponseSink.write(resource.exportJsonReport());
+    }
+
+    @Benchmark
+    public long exportHtml(GraphState graph) throws IOException {
+        return ResponseSink.write(resource.exportHtmlReport(false, false));
+    }
+
+    @Benchmark
+    public long exportHtmlWithRelationsAndTimelines(GraphState graph) throws IOException {
+        return ResponseSink.write(resource.exportHtmlReport(true, true));
+    }
+
+    @Benchmark
+    public long statistics(GraphState graph) throws IOException {
+        return ResponseSink.write(resource.getStatistics());
+    }
+}
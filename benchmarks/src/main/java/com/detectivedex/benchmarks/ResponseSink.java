@@ -0,0 +1,55 @@
+package com.detectivedex.benchmarks;
+
+import com.detectivedex.rest.JacksonConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sérialise l'entité d'une Response comme le ferait Jersey, dans un flux qui ne fait que compter
+ * les octets : les benchmarks mesurent ainsi requêtes, mapping et écriture JSON, sans réseau.
+ */
+final class ResponseSink {
+
+    private static final ObjectMapper MAPPER = new JacksonConfig().getContext(Object.class);
+
+    private ResponseSink() {
+    }
+
+    /**
+     * Écrit l'entité et renvoie le nombre d'octets produits.
+     */
+    static long write(Response response) throws IOException {
+        if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+            throw new IllegalStateException("Unexpected status " + response.getStatus() + ": " + response.getEntity());
+        }
+        CountingOutputStream out = new CountingOutputStream();
+        Object entity = response.getEntity();
+        if (entity instanceof StreamingOutput streaming) {
+            streaming.write(out);
+        } else if (entity instanceof String text) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        } else {
+            MAPPER.writeValue(out, entity);
+        }
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.detectivedex.benchmarks;
+
+import com.detectivedex.rest.SearchResource;
+import com.detectivedex.search.SearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche plein texte : terme rare (un indicateur, une seule occurrence) et terme présent dans
+ * tous les nœuds, avec relecture des résultats et extraits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dhibernate.show_sql=false",
+        "-Dlogback.configurationFile=logback-benchmarks.xml"})
+public class SearchBenchmark {
+
+    private final SearchResource resource = new SearchResource();
+
+    @Setup(Level.Trial)
+    public void index(GraphState graph) {
+        // Le graphe est rechargé par suppressions en masse, hors journal des modifications
+        SearchIndex.invalidate();
+    }
+
+    @Benchmark
+    public long rareIndicator(GraphState graph) throws IOException {
+        int node = ThreadLocalRandom.current().nextInt(graph.nodes);
+        return ResponseSink.write(resource.search("event " + node + ".0", null, null));
+    }
+
+    @Benchmark
+    public long commonTerm(GraphState graph) throws IOException {
+        return ResponseSink.write(resource.search("synthetic evidence", null, null));
+    }
+}
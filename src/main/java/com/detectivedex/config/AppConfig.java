@@ -0,0 +1,36 @@
+package com.detectivedex.config;
+
+import java.util.Locale;
+
+/**
+ * Configuration de l'application : une clé "detectivedex.x.y" est lue dans les propriétés système
+ * (-Ddetectivedex.x.y=...), puis dans la variable d'environnement DETECTIVEDEX_X_Y.
+ */
+public final class AppConfig {
+
+    private AppConfig() {
+    }
+
+    /**
+     * Valeur de la clé, ou null si elle n'est définie ni en propriété système ni dans l'environnement.
+     */
+    public static String get(String key) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(environmentName(key));
+        }
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    public static String get(String key, String defaultValue) {
+        String value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * detectivedex.db.pool-size -> DETECTIVEDEX_DB_POOL_SIZE
+     */
+    static String environmentName(String key) {
+        return key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+    }
+}
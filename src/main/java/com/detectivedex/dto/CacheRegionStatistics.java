@@ -0,0 +1,16 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+
+/**
+ * Statistiques d'une région du cache de second niveau depuis le démarrage : lectures trouvées
+ * (hits) ou non (misses), écritures, et entrées évincées faute de place ou expirées.
+ */
+public record CacheRegionStatistics(
+        String region,
+        long hits,
+        long misses,
+        long puts,
+        long evictions,
+        double hitRatio) implements Serializable {
+}
@@ -0,0 +1,12 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Entités créées ou modifiées (état courant) et identifiants supprimés pour un type d'entité.
+ */
+public record EntityDelta<T>(
+        List<T> upserted,
+        List<Long> deleted) implements Serializable {
+}
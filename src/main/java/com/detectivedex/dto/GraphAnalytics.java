@@ -0,0 +1,24 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Analyses du graphe pour le triage : classements par centralité, composantes connexes et rayon
+ * d'impact des nœuds IOC et VULNERABILITY (nombre de nœuds atteignables en aval).
+ * betweennessSampled indique une betweenness estimée sur un échantillon de sources.
+ */
+public record GraphAnalytics(
+        long version,
+        int nodes,
+        int edges,
+        int components,
+        int largestComponent,
+        boolean betweennessSampled,
+        boolean blastRadiusTruncated,
+        long computeMillis,
+        List<NodeScore> degree,
+        List<NodeScore> pageRank,
+        List<NodeScore> betweenness,
+        List<NodeScore> blastRadius) implements Serializable {
+}
@@ -0,0 +1,20 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+
+/**
+ * Modifications du graphe entre deux versions.
+ * Si reset est vrai, le delta n'est pas disponible et le client doit recharger /graph.
+ */
+public record GraphDelta(
+        long since,
+        long version,
+        boolean reset,
+        EntityDelta<GraphNode> nodes,
+        EntityDelta<GraphEdge> relations,
+        EntityDelta<TimelineEventSummary> events) implements Serializable {
+
+    public static GraphDelta reset(long since, long version) {
+        return new GraphDelta(since, version, true, null, null, null);
+    }
+}
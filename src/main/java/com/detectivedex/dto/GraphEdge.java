@@ -0,0 +1,19 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+
+/**
+ * Arête du graphe réduite aux identifiants de ses extrémités.
+ */
+public record GraphEdge(
+        Long id,
+        Long source,
+        Long target,
+        String relationType) implements Serializable {
+
+    /**
+     * Expression de sélection JPQL (alias "r") construisant cette arête.
+     */
+    public static final String SELECT_EXPRESSION = "new com.detectivedex.dto.GraphEdge("
+            + "r.id, r.sourceNode.id, r.targetNode.id, r.relationType)";
+}
@@ -0,0 +1,20 @@
+package com.detectivedex.dto;
+
+import com.detectivedex.graph.Traversal;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Voisinage d'un nœud : nœuds atteints avec leur distance (en sauts) au centre, et arêtes parcourues.
+ * outcome vaut LIMIT_REACHED ou TIMED_OUT si le parcours a été interrompu (résultat partiel).
+ */
+public record GraphNeighbourhood(
+        Long center,
+        int depth,
+        Traversal.Outcome outcome,
+        List<GraphNode> nodes,
+        Map<Long, Integer> distances,
+        List<GraphEdge> edges) implements Serializable {
+}
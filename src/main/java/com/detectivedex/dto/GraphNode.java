@@ -0,0 +1,26 @@
+package com.detectivedex.dto;
+
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.SeverityLevel;
+
+import java.io.Serializable;
+
+/**
+ * Projection d'un nœud pour l'affichage du graphe (sans description ni dates).
+ */
+public record GraphNode(
+        Long id,
+        String name,
+        NodeType nodeType,
+        SeverityLevel severity,
+        String status,
+        Double positionX,
+        Double positionY,
+        String color) implements Serializable {
+
+    /**
+     * Expression de sélection JPQL (alias "n") construisant cette projection.
+     */
+    public static final String SELECT_EXPRESSION = "new com.detectivedex.dto.GraphNode("
+            + "n.id, n.name, n.nodeType, n.severity, n.status, n.positionX, n.positionY, n.color)";
+}
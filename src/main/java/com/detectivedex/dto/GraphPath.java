@@ -0,0 +1,20 @@
+package com.detectivedex.dto;
+
+import com.detectivedex.graph.Traversal;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Chemin entre deux nœuds : nœuds et arêtes dans l'ordre du parcours.
+ * outcome vaut FOUND, NOT_FOUND, TIMED_OUT ou LIMIT_REACHED ; les listes sont vides hors FOUND.
+ */
+public record GraphPath(
+        Long from,
+        Long to,
+        Traversal.Outcome outcome,
+        int hops,
+        double cost,
+        List<GraphNode> nodes,
+        List<GraphEdge> edges) implements Serializable {
+}
@@ -0,0 +1,13 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Instantané complet du graphe lu dans une seule transaction.
+ */
+public record GraphSnapshot(
+        long version,
+        List<GraphNode> nodes,
+        List<GraphEdge> edges) implements Serializable {
+}
@@ -0,0 +1,27 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Résultat d'un import en masse : volumes importés, erreurs par enregistrement et débit.
+ * ids associe chaque référence temporaire ("ref") fournie par le client à l'id attribué.
+ */
+public record ImportReport(
+        int received,
+        int importedNodes,
+        int importedRelations,
+        int importedEvents,
+        int failed,
+        List<RecordError> errors,
+        Map<String, Long> ids,
+        long durationMs,
+        long recordsPerSecond) implements Serializable {
+
+    /**
+     * Erreur sur un enregistrement (index dans le flux, à partir de 0).
+     */
+    public record RecordError(int index, String ref, String error) implements Serializable {
+    }
+}
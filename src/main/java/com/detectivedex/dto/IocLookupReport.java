@@ -0,0 +1,10 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Réponse de POST /ioc/lookup : un résultat par indicateur demandé, dans l'ordre de la requête.
+ */
+public record IocLookupReport(int requested, int found, long tookMicros, List<IocLookupResult> results) implements Serializable {
+}
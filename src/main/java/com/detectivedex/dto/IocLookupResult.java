@@ -0,0 +1,19 @@
+package com.detectivedex.dto;
+
+import com.detectivedex.ioc.IndicatorType;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Résultat de recherche d'un indicateur : sa forme normalisée et les nœuds IOC et événements qui le
+ * mentionnent. type et normalized sont nuls si l'indicateur n'est pas reconnu.
+ */
+public record IocLookupResult(
+        String indicator,
+        IndicatorType type,
+        String normalized,
+        boolean found,
+        List<Long> nodeIds,
+        List<Long> eventIds) implements Serializable {
+}
@@ -0,0 +1,9 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+
+/**
+ * Position d'un nœud sur le canevas, pour les mises à jour groupées.
+ */
+public record NodePosition(Long id, Double positionX, Double positionY) implements Serializable {
+}
@@ -0,0 +1,9 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+
+/**
+ * Score d'un nœud dans un classement (degré, PageRank, betweenness, rayon d'impact).
+ */
+public record NodeScore(Long id, double score) implements Serializable {
+}
@@ -0,0 +1,10 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Résultat d'une mise à jour groupée des positions : nombre de nœuds mis à jour et ids inconnus.
+ */
+public record PositionUpdateReport(int updated, List<Long> notFound) implements Serializable {
+}
@@ -0,0 +1,25 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Représentation légère d'une relation pour les listes et le graphe :
+ * les nœuds ne sont référencés que par leur identifiant.
+ * Construite directement par une requête JPQL "SELECT new ...".
+ */
+public record RelationSummary(
+        Long id,
+        Long sourceNodeId,
+        Long targetNodeId,
+        String relationType,
+        Boolean confirmed,
+        String confidence,
+        LocalDateTime createdAt) implements Serializable {
+
+    /**
+     * Expression de sélection JPQL (alias "r") construisant ce résumé.
+     */
+    public static final String SELECT_EXPRESSION = "new com.detectivedex.dto.RelationSummary("
+            + "r.id, r.sourceNode.id, r.targetNode.id, r.relationType, r.confirmed, r.confidence, r.createdAt)";
+}
@@ -0,0 +1,19 @@
+package com.detectivedex.dto;
+
+import com.detectivedex.graph.ChangeKind;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Résultat de recherche : l'entité trouvée, son score et un extrait par champ où figure un terme.
+ * nodeId est le nœud à ouvrir dans le graphe (le nœud lui-même, celui de l'événement, ou la source de la relation).
+ */
+public record SearchHit(
+        ChangeKind kind,
+        Long id,
+        double score,
+        String title,
+        Long nodeId,
+        Map<String, String> highlights) implements Serializable {
+}
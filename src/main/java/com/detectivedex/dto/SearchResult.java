@@ -0,0 +1,11 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Réponse de GET /search : nombre total de documents trouvés, durée de la recherche dans l'index
+ * et meilleurs résultats par score décroissant.
+ */
+public record SearchResult(String query, int total, long tookMicros, List<SearchHit> hits) implements Serializable {
+}
@@ -0,0 +1,19 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Phase d'une trace, dans les champs d'un span OpenTelemetry (identifiants hexadécimaux, instants
+ * en nanosecondes depuis l'epoch). parentSpanId est null pour la racine d'une trace sans appelant.
+ */
+public record SpanView(
+        String traceId,
+        String spanId,
+        String parentSpanId,
+        String name,
+        long startTimeUnixNano,
+        long endTimeUnixNano,
+        long durationMicros,
+        Map<String, Object> attributes) implements Serializable {
+}
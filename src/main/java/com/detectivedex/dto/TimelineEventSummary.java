@@ -0,0 +1,21 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Représentation légère d'un événement de timeline (sans description ni preuve).
+ */
+public record TimelineEventSummary(
+        Long id,
+        Long evidenceNodeId,
+        String title,
+        LocalDateTime eventDate,
+        String eventType) implements Serializable {
+
+    /**
+     * Expression de sélection JPQL (alias "e") construisant ce résumé.
+     */
+    public static final String SELECT_EXPRESSION = "new com.detectivedex.dto.TimelineEventSummary("
+            + "e.id, e.evidenceNode.id, e.title, e.eventDate, e.eventType)";
+}
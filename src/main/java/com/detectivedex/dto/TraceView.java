@@ -0,0 +1,18 @@
+package com.detectivedex.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Trace d'une requête : phase racine ("GET /reports/export/html"), méthode de ressource, durée,
+ * et toutes ses phases, la racine en premier. droppedSpans compte les phases non gardées.
+ */
+public record TraceView(
+        String traceId,
+        String name,
+        String operation,
+        long startTimeUnixNano,
+        long durationMicros,
+        int droppedSpans,
+        List<SpanView> spans) implements Serializable {
+}
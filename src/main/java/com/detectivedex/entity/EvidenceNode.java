@@ -2,19 +2,25 @@ package com.detectivedex.entity;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entité représentant un nœud du graphe (preuve, incident, artefact)
  */
 @Entity
 @Table(name = "evidence_nodes")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "evidence_nodes")
 public class EvidenceNode implements Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evidence_node_seq")
+    @SequenceGenerator(name = "evidence_node_seq", sequenceName = "evidence_nodes_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -31,6 +37,11 @@ public class EvidenceNode implements Serializable {
     @Column(nullable = false)
     private SeverityLevel severity; // CRITICAL, HIGH, MEDIUM, LOW, INFO
 
+    // Calculée par propagation le long des relations (SeverityPropagation), jamais persistée
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private SeverityLevel effectiveSeverity;
+
     @Column(nullable = false, columnDefinition = "DOUBLE DEFAULT 0.0")
     private Double positionX = 0.0;
 
@@ -117,6 +128,14 @@ public class EvidenceNode implements Serializable {
         this.severity = severity;
     }
 
+    public SeverityLevel getEffectiveSeverity() {
+        return effectiveSeverity;
+    }
+
+    public void setEffectiveSeverity(SeverityLevel effectiveSeverity) {
+        this.effectiveSeverity = effectiveSeverity;
+    }
+
     public Double getPositionX() {
         return positionX;
     }
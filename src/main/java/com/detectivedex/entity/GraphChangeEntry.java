@@ -0,0 +1,86 @@
+package com.detectivedex.entity;
+
+import com.detectivedex.graph.ChangeKind;
+import com.detectivedex.graph.ChangeOperation;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entrée persistée du journal des modifications du graphe.
+ * La version est attribuée par GraphChangeLog et strictement croissante.
+ */
+@Entity
+@Table(name = "graph_changes")
+public class GraphChangeEntry implements Serializable {
+    @Id
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ChangeKind entityKind;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ChangeOperation operation;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    // Constructeurs
+    public GraphChangeEntry() {
+        this.changedAt = LocalDateTime.now();
+    }
+
+    public GraphChangeEntry(Long version, ChangeKind entityKind, Long entityId, ChangeOperation operation) {
+        this();
+        this.version = version;
+        this.entityKind = entityKind;
+        this.entityId = entityId;
+        this.operation = operation;
+    }
+
+    // Getters et Setters
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public ChangeKind getEntityKind() {
+        return entityKind;
+    }
+
+    public void setEntityKind(ChangeKind entityKind) {
+        this.entityKind = entityKind;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(ChangeOperation operation) {
+        this.operation = operation;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
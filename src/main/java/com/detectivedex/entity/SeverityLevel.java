@@ -31,4 +31,16 @@ public enum SeverityLevel {
     public String getDefaultColor() {
         return defaultColor;
     }
+
+    /**
+     * Niveau de score donné, ou null si aucun ne correspond
+     */
+    public static SeverityLevel fromScore(int score) {
+        for (SeverityLevel level : values()) {
+            if (level.score == score) {
+                return level;
+            }
+        }
+        return null;
+    }
 }
@@ -8,7 +8,7 @@ import java.io.IOException;
 /**
  * Filtre CORS pour permettre les requêtes du frontend
  */
-@WebFilter(urlPatterns = "/*")
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
 public class CorsFilter implements Filter {
 
     @Override
@@ -21,8 +21,9 @@ public class CorsFilter implements Filter {
         HttpServletResponse httpResponse = (HttpServletResponse) response;
         
         httpResponse.setHeader("Access-Control-Allow-Origin", "*");
-        httpResponse.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
-        httpResponse.setHeader("Access-Control-Allow-Headers", "Content-Type, Authorization");
+        httpResponse.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, PATCH, DELETE, OPTIONS");
+        httpResponse.setHeader("Access-Control-Allow-Headers", "Content-Type, Authorization, If-None-Match");
+        httpResponse.setHeader("Access-Control-Expose-Headers", "X-Next-Cursor, ETag");
         httpResponse.setHeader("Access-Control-Max-Age", "3600");
         
         chain.doFilter(request, response);
@@ -0,0 +1,233 @@
+package com.detectivedex.graph;
+
+/**
+ * Instantané immuable de la structure du graphe, au format CSR (compressed sparse row).
+ *
+ * Les nœuds et les arêtes sont numérotés de façon dense (index) ; les ids d'origine restent
+ * accessibles par nodeId(index) et edgeId(index). Les arêtes sortantes du nœud n sont
+ * outEdgeAt(p) pour p dans [outStart(n), outEnd(n)[, de même pour les arêtes entrantes :
+ * un parcours de voisinage est en O(degré) et n'alloue rien.
+ *
+ * Coût mémoire : une cinquantaine d'octets par arête (id, extrémités, type, drapeaux et les deux
+ * tableaux d'adjacence avec leurs voisins), au lieu d'une entité Relation hydratée avec ses deux nœuds.
+ */
+public final class AdjacencySnapshot {
+
+    public static final int CONFIDENCE_UNKNOWN = 0;
+    public static final int CONFIDENCE_LOW = 1;
+    public static final int CONFIDENCE_MEDIUM = 2;
+    public static final int CONFIDENCE_HIGH = 3;
+
+    // Drapeaux d'arête : bit 0 = confirmée, bits 1-2 = niveau de confiance
+    private static final int CONFIRMED_FLAG = 1;
+    private static final int CONFIDENCE_SHIFT = 1;
+
+    private final long version;
+    private final long[] nodeIds;
+    private final LongIntHashMap nodeIndex;
+    private final long[] edgeIds;
+    private final int[] edgeSource;
+    private final int[] edgeTarget;
+    private final short[] edgeType;
+    private final byte[] edgeFlags;
+    private final String[] typeNames;
+    private final int[] outOffsets;
+    private final int[] outEdges;
+    private final int[] outNeighbours;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+    private final int[] inNeighbours;
+
+    AdjacencySnapshot(long version, long[] nodeIds, LongIntHashMap nodeIndex,
+                      long[] edgeIds, int[] edgeSource, int[] edgeTarget,
+                      short[] edgeType, byte[] edgeFlags, String[] typeNames) {
+        this.version = version;
+        this.nodeIds = nodeIds;
+        this.nodeIndex = nodeIndex;
+        this.edgeIds = edgeIds;
+        this.edgeSource = edgeSource;
+        this.edgeTarget = edgeTarget;
+        this.edgeType = edgeType;
+        this.edgeFlags = edgeFlags;
+        this.typeNames = typeNames;
+        this.outOffsets = new int[nodeIds.length + 1];
+        this.outEdges = new int[edgeIds.length];
+        this.outNeighbours = new int[edgeIds.length];
+        this.inOffsets = new int[nodeIds.length + 1];
+        this.inEdges = new int[edgeIds.length];
+        this.inNeighbours = new int[edgeIds.length];
+        fill(edgeSource, outOffsets, outEdges);
+        fill(edgeTarget, inOffsets, inEdges);
+        // Voisins recopiés à côté des arêtes : les parcours évitent une indirection par arête
+        for (int p = 0; p < outEdges.length; p++) {
+            outNeighbours[p] = edgeTarget[outEdges[p]];
+            inNeighbours[p] = edgeSource[inEdges[p]];
+        }
+    }
+
+    /**
+     * Tri par dénombrement des arêtes selon l'extrémité donnée : O(nœuds + arêtes).
+     */
+    private static void fill(int[] endpoint, int[] offsets, int[] edges) {
+        for (int node : endpoint) {
+            offsets[node + 1]++;
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        int[] cursor = new int[offsets.length - 1];
+        System.arraycopy(offsets, 0, cursor, 0, cursor.length);
+        for (int edge = 0; edge < endpoint.length; edge++) {
+            edges[cursor[endpoint[edge]]++] = edge;
+        }
+    }
+
+    /**
+     * Version la plus élevée du journal des modifications prise en compte dans cet instantané.
+     */
+    public long version() {
+        return version;
+    }
+
+    public int nodeCount() {
+        return nodeIds.length;
+    }
+
+    public int edgeCount() {
+        return edgeIds.length;
+    }
+
+    /**
+     * Index dense du nœud d'id nodeId, ou -1 s'il n'existe pas.
+     */
+    public int nodeIndex(long nodeId) {
+        return nodeIndex.get(nodeId);
+    }
+
+    public long nodeId(int node) {
+        return nodeIds[node];
+    }
+
+    public long edgeId(int edge) {
+        return edgeIds[edge];
+    }
+
+    public int edgeSource(int edge) {
+        return edgeSource[edge];
+    }
+
+    public int edgeTarget(int edge) {
+        return edgeTarget[edge];
+    }
+
+    public String relationType(int edge) {
+        return typeNames[edgeType[edge]];
+    }
+
+    /**
+     * Code du type de relation, stable pour un instantané donné (comparaison sans String).
+     */
+    public int relationTypeCode(int edge) {
+        return edgeType[edge];
+    }
+
+    /**
+     * Code du type de relation de nom relationType, ou -1 s'il n'apparaît sur aucune arête.
+     */
+    public int relationTypeCode(String relationType) {
+        for (int code = 0; code < typeNames.length; code++) {
+            if (typeNames[code].equals(relationType)) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Nombre de types de relation connus ; les codes vont de 0 à relationTypeCount() - 1.
+     */
+    public int relationTypeCount() {
+        return typeNames.length;
+    }
+
+    public String relationTypeName(int code) {
+        return typeNames[code];
+    }
+
+    public boolean confirmed(int edge) {
+        return (edgeFlags[edge] & CONFIRMED_FLAG) != 0;
+    }
+
+    /**
+     * Niveau de confiance de l'arête, de CONFIDENCE_UNKNOWN à CONFIDENCE_HIGH.
+     */
+    public int confidence(int edge) {
+        return edgeFlags[edge] >>> CONFIDENCE_SHIFT;
+    }
+
+    public int outStart(int node) {
+        return outOffsets[node];
+    }
+
+    public int outEnd(int node) {
+        return outOffsets[node + 1];
+    }
+
+    public int outEdgeAt(int position) {
+        return outEdges[position];
+    }
+
+    /**
+     * Cible de l'arête outEdgeAt(position).
+     */
+    public int outNeighbourAt(int position) {
+        return outNeighbours[position];
+    }
+
+    public int outDegree(int node) {
+        return outOffsets[node + 1] - outOffsets[node];
+    }
+
+    public int inStart(int node) {
+        return inOffsets[node];
+    }
+
+    public int inEnd(int node) {
+        return inOffsets[node + 1];
+    }
+
+    public int inEdgeAt(int position) {
+        return inEdges[position];
+    }
+
+    /**
+     * Source de l'arête inEdgeAt(position).
+     */
+    public int inNeighbourAt(int position) {
+        return inNeighbours[position];
+    }
+
+    public int inDegree(int node) {
+        return inOffsets[node + 1] - inOffsets[node];
+    }
+
+    /**
+     * Estimation de la mémoire occupée par les tableaux de l'instantané, en octets.
+     */
+    public long estimatedBytes() {
+        long nodes = (long) nodeIds.length * Long.BYTES + 2L * (nodeIds.length + 1) * Integer.BYTES
+                + nodeIndex.estimatedBytes();
+        long edges = (long) edgeIds.length * (Long.BYTES + 6 * Integer.BYTES + Short.BYTES + Byte.BYTES);
+        return nodes + edges;
+    }
+
+    static byte flags(Boolean confirmed, String confidence) {
+        int level = switch (confidence == null ? "" : confidence.toUpperCase()) {
+            case "LOW" -> CONFIDENCE_LOW;
+            case "MEDIUM" -> CONFIDENCE_MEDIUM;
+            case "HIGH" -> CONFIDENCE_HIGH;
+            default -> CONFIDENCE_UNKNOWN;
+        };
+        return (byte) ((Boolean.TRUE.equals(confirmed) ? CONFIRMED_FLAG : 0) | level << CONFIDENCE_SHIFT);
+    }
+}
@@ -0,0 +1,414 @@
+package com.detectivedex.graph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Analyses globales du graphe sur un AdjacencySnapshot : degré, PageRank, composantes connexes,
+ * centralité d'intermédiarité (betweenness) sur la plus grande composante et rayon d'impact
+ * (nœuds atteignables en aval) des nœuds sources.
+ *
+ * Les calculs coûteux sont parallélisés par flux parallèles sur le pool fork/join commun.
+ * Le résultat est conservé tant que l'instantané du graphe ne change pas.
+ */
+public final class Analytics {
+
+    static final double DAMPING = 0.85;
+    static final int MAX_PAGE_RANK_ITERATIONS = 50;
+    static final double PAGE_RANK_TOLERANCE = 1e-6;
+    // Au-delà, la betweenness est estimée à partir d'un échantillon de sources (Brandes échantillonné)
+    static final int BETWEENNESS_SAMPLES = 64;
+    // Nombre maximal de sources pour lesquelles le rayon d'impact est calculé
+    static final int MAX_BLAST_SOURCES = 500;
+
+    private static final long SAMPLE_SEED = 0x5EEDL;
+
+    private static Result cached;
+
+    private Analytics() {
+    }
+
+    /**
+     * Résultat complet, indexé par index dense de nœud de l'instantané.
+     * blastRadius[i] est le nombre de nœuds atteignables en aval de blastSources[i].
+     */
+    public record Result(AdjacencySnapshot snapshot,
+                         int[] degree,
+                         double[] pageRank,
+                         double[] betweenness,
+                         boolean betweennessSampled,
+                         int[] component,
+                         int componentCount,
+                         int largestComponentSize,
+                         int[] blastSources,
+                         int[] blastRadius,
+                         boolean blastRadiusTruncated,
+                         long computeMillis) {
+    }
+
+    /**
+     * Résultat pour l'instantané donné, recalculé seulement si l'instantané a changé.
+     * blastSourceIds n'est appelé qu'en cas de recalcul.
+     */
+    public static synchronized Result of(AdjacencySnapshot graph, Supplier<long[]> blastSourceIds) {
+        if (cached != null && cached.snapshot() == graph) {
+            return cached;
+        }
+        cached = compute(graph, blastSourceIds.get());
+        return cached;
+    }
+
+    static Result compute(AdjacencySnapshot graph, long[] blastSourceIds) {
+        long start = System.nanoTime();
+        int n = graph.nodeCount();
+
+        int[] degree = new int[n];
+        for (int node = 0; node < n; node++) {
+            degree[node] = graph.outDegree(node) + graph.inDegree(node);
+        }
+
+        int[] component = new int[n];
+        int[] sizes = components(graph, component);
+        int largest = 0;
+        for (int c = 1; c < sizes.length; c++) {
+            if (sizes[c] > sizes[largest]) {
+                largest = c;
+            }
+        }
+
+        double[] pageRank = pageRank(graph);
+
+        int[] members = members(component, largest);
+        boolean sampled = members.length > BETWEENNESS_SAMPLES;
+        double[] betweenness = betweenness(graph, members, sampled);
+
+        int[] sources = blastSources(graph, blastSourceIds);
+        boolean truncated = sources.length > MAX_BLAST_SOURCES;
+        if (truncated) {
+            sources = Arrays.copyOf(sources, MAX_BLAST_SOURCES);
+        }
+        int[] radius = blastRadius(graph, sources);
+
+        return new Result(graph, degree, pageRank, betweenness, sampled, component, sizes.length,
+                sizes.length == 0 ? 0 : sizes[largest], sources, radius, truncated,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Composantes faiblement connexes par union-find ; renvoie la taille de chaque composante
+     * et remplit component avec le numéro de composante de chaque nœud.
+     */
+    static int[] components(AdjacencySnapshot graph, int[] component) {
+        int n = graph.nodeCount();
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            int a = find(parent, graph.edgeSource(edge));
+            int b = find(parent, graph.edgeTarget(edge));
+            if (a != b) {
+                parent[Math.max(a, b)] = Math.min(a, b);
+            }
+        }
+        int[] labels = new int[n];
+        Arrays.fill(labels, -1);
+        int count = 0;
+        int[] sizes = new int[Math.max(1, n)];
+        for (int node = 0; node < n; node++) {
+            int root = find(parent, node);
+            if (labels[root] < 0) {
+                labels[root] = count++;
+            }
+            component[node] = labels[root];
+            sizes[component[node]]++;
+        }
+        return Arrays.copyOf(sizes, count);
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    /**
+     * PageRank par itérations « pull » sur les arêtes entrantes, chaque nœud étant mis à jour
+     * en parallèle. La masse des nœuds sans arête sortante est redistribuée uniformément.
+     */
+    static double[] pageRank(AdjacencySnapshot graph) {
+        int n = graph.nodeCount();
+        if (n == 0) {
+            return new double[0];
+        }
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] share = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int iteration = 0; iteration < MAX_PAGE_RANK_ITERATIONS; iteration++) {
+            double dangling = 0;
+            for (int node = 0; node < n; node++) {
+                int out = graph.outDegree(node);
+                if (out == 0) {
+                    dangling += rank[node];
+                    share[node] = 0;
+                } else {
+                    share[node] = rank[node] / out;
+                }
+            }
+            double base = (1 - DAMPING) / n + DAMPING * dangling / n;
+            double[] current = next;
+            IntStream.range(0, n).parallel().forEach(node -> {
+                double sum = 0;
+                for (int p = graph.inStart(node); p < graph.inEnd(node); p++) {
+                    sum += share[graph.inNeighbourAt(p)];
+                }
+                current[node] = base + DAMPING * sum;
+            });
+            double delta = 0;
+            for (int node = 0; node < n; node++) {
+                delta += Math.abs(next[node] - rank[node]);
+            }
+            double[] swap = rank;
+            rank = next;
+            next = swap;
+            if (delta < PAGE_RANK_TOLERANCE) {
+                break;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Betweenness (algorithme de Brandes, graphe non orienté) restreinte aux nœuds de members.
+     * Si sampled, seules BETWEENNESS_SAMPLES sources tirées avec une graine fixe sont parcourues et
+     * le résultat est extrapolé. Les sources sont réparties entre threads, chacun avec ses tampons.
+     */
+    static double[] betweenness(AdjacencySnapshot graph, int[] members, boolean sampled) {
+        int n = graph.nodeCount();
+        int[] sources = members;
+        if (sampled) {
+            sources = members.clone();
+            SplittableRandom random = new SplittableRandom(SAMPLE_SEED);
+            for (int i = 0; i < BETWEENNESS_SAMPLES; i++) {
+                int j = i + random.nextInt(sources.length - i);
+                int swap = sources[i];
+                sources[i] = sources[j];
+                sources[j] = swap;
+            }
+            sources = Arrays.copyOf(sources, BETWEENNESS_SAMPLES);
+        }
+        int[] selected = sources;
+        double[] centrality = IntStream.range(0, selected.length).parallel().collect(
+                () -> new BrandesState(n),
+                (state, i) -> state.accumulate(graph, selected[i]),
+                BrandesState::merge).centrality;
+        double scale = (sampled ? (double) members.length / selected.length : 1.0) / 2.0;
+        for (int node = 0; node < n; node++) {
+            centrality[node] *= scale;
+        }
+        return centrality;
+    }
+
+    /**
+     * Tampons d'un thread pour Brandes ; les centralités partielles sont additionnées à la fusion.
+     */
+    private static final class BrandesState {
+        final double[] centrality;
+        final int[] distance;
+        final double[] paths;
+        final double[] dependency;
+        final int[] order;
+
+        BrandesState(int n) {
+            centrality = new double[n];
+            distance = new int[n];
+            paths = new double[n];
+            dependency = new double[n];
+            order = new int[n];
+            Arrays.fill(distance, -1);
+        }
+
+        void accumulate(AdjacencySnapshot graph, int source) {
+            int visited = 0;
+            order[visited++] = source;
+            distance[source] = 0;
+            paths[source] = 1;
+            for (int head = 0; head < visited; head++) {
+                int node = order[head];
+                for (int pass = 0; pass < 2; pass++) {
+                    int start = pass == 0 ? graph.outStart(node) : graph.inStart(node);
+                    int end = pass == 0 ? graph.outEnd(node) : graph.inEnd(node);
+                    for (int p = start; p < end; p++) {
+                        int next = pass == 0 ? graph.outNeighbourAt(p) : graph.inNeighbourAt(p);
+                        if (distance[next] < 0) {
+                            distance[next] = distance[node] + 1;
+                            order[visited++] = next;
+                        }
+                        if (distance[next] == distance[node] + 1) {
+                            paths[next] += paths[node];
+                        }
+                    }
+                }
+            }
+            // Accumulation des dépendances dans l'ordre inverse de découverte
+            for (int i = visited - 1; i >= 0; i--) {
+                int node = order[i];
+                for (int pass = 0; pass < 2; pass++) {
+                    int start = pass == 0 ? graph.outStart(node) : graph.inStart(node);
+                    int end = pass == 0 ? graph.outEnd(node) : graph.inEnd(node);
+                    for (int p = start; p < end; p++) {
+                        int next = pass == 0 ? graph.outNeighbourAt(p) : graph.inNeighbourAt(p);
+                        if (distance[next] == distance[node] + 1) {
+                            dependency[node] += paths[node] / paths[next] * (1 + dependency[next]);
+                        }
+                    }
+                }
+                if (node != source) {
+                    centrality[node] += dependency[node];
+                }
+            }
+            for (int i = 0; i < visited; i++) {
+                int node = order[i];
+                distance[node] = -1;
+                paths[node] = 0;
+                dependency[node] = 0;
+            }
+        }
+
+        void merge(BrandesState other) {
+            for (int i = 0; i < centrality.length; i++) {
+                centrality[i] += other.centrality[i];
+            }
+        }
+    }
+
+    private static int[] members(int[] component, int label) {
+        return IntStream.range(0, component.length).filter(node -> component[node] == label).toArray();
+    }
+
+    private static int[] blastSources(AdjacencySnapshot graph, long[] ids) {
+        return Arrays.stream(ids).mapToInt(graph::nodeIndex).filter(index -> index >= 0).toArray();
+    }
+
+    /**
+     * Nombre de nœuds atteignables en suivant les arêtes sortantes, pour chaque source.
+     * Tous les nœuds d'une même composante fortement connexe atteignant le même ensemble, un seul
+     * BFS est fait par composante ; les BFS des différentes composantes sont parallélisés.
+     */
+    static int[] blastRadius(AdjacencySnapshot graph, int[] sources) {
+        int n = graph.nodeCount();
+        if (sources.length == 0) {
+            return new int[0];
+        }
+        int[] scc = stronglyConnected(graph);
+        LongIntHashMap representatives = new LongIntHashMap(sources.length);
+        for (int source : sources) {
+            if (representatives.get(scc[source]) == LongIntHashMap.MISSING) {
+                representatives.put(scc[source], source);
+            }
+        }
+        int[] distinct = Arrays.stream(sources)
+                .filter(source -> representatives.get(scc[source]) == source)
+                .toArray();
+
+        ThreadLocal<int[][]> buffers = ThreadLocal.withInitial(() -> new int[][] {new int[n], new int[n], {0}});
+        int[] reached = Arrays.stream(distinct).parallel().map(source -> {
+            int[][] buffer = buffers.get();
+            int[] seen = buffer[0];
+            int[] queue = buffer[1];
+            // Marquage par génération : pas de remise à zéro entre deux sources
+            int stamp = ++buffer[2][0];
+            int size = 0;
+            queue[size++] = source;
+            seen[source] = stamp;
+            for (int head = 0; head < size; head++) {
+                int node = queue[head];
+                for (int p = graph.outStart(node); p < graph.outEnd(node); p++) {
+                    int next = graph.outNeighbourAt(p);
+                    if (seen[next] != stamp) {
+                        seen[next] = stamp;
+                        queue[size++] = next;
+                    }
+                }
+            }
+            return size - 1;
+        }).toArray();
+
+        LongIntHashMap radiusByComponent = new LongIntHashMap(distinct.length);
+        for (int i = 0; i < distinct.length; i++) {
+            radiusByComponent.put(scc[distinct[i]], reached[i]);
+        }
+        int[] radius = new int[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            radius[i] = radiusByComponent.get(scc[sources[i]]);
+        }
+        return radius;
+    }
+
+    /**
+     * Composantes fortement connexes (Tarjan, version itérative pour ne pas dépendre de la pile).
+     */
+    static int[] stronglyConnected(AdjacencySnapshot graph) {
+        int n = graph.nodeCount();
+        int[] order = new int[n];
+        int[] low = new int[n];
+        int[] component = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int[] calls = new int[n];
+        int[] positions = new int[n];
+        Arrays.fill(order, -1);
+        int counter = 0;
+        int labels = 0;
+        int stackSize = 0;
+        for (int root = 0; root < n; root++) {
+            if (order[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            order[root] = low[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            calls[depth] = root;
+            positions[depth++] = graph.outStart(root);
+            while (depth > 0) {
+                int node = calls[depth - 1];
+                int position = positions[depth - 1];
+                if (position < graph.outEnd(node)) {
+                    positions[depth - 1]++;
+                    int next = graph.outNeighbourAt(position);
+                    if (order[next] < 0) {
+                        order[next] = low[next] = counter++;
+                        stack[stackSize++] = next;
+                        onStack[next] = true;
+                        calls[depth] = next;
+                        positions[depth++] = graph.outStart(next);
+                    } else if (onStack[next]) {
+                        low[node] = Math.min(low[node], order[next]);
+                    }
+                    continue;
+                }
+                if (low[node] == order[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        component[member] = labels;
+                    } while (member != node);
+                    labels++;
+                }
+                depth--;
+                if (depth > 0) {
+                    int caller = calls[depth - 1];
+                    low[caller] = Math.min(low[caller], low[node]);
+                }
+            }
+        }
+        return component;
+    }
+}
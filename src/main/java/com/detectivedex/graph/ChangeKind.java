@@ -0,0 +1,10 @@
+package com.detectivedex.graph;
+
+/**
+ * Type d'entité concerné par une modification du graphe
+ */
+public enum ChangeKind {
+    NODE,
+    RELATION,
+    EVENT
+}
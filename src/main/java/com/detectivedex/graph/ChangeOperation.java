@@ -0,0 +1,12 @@
+package com.detectivedex.graph;
+
+/**
+ * Nature d'une modification du graphe
+ */
+public enum ChangeOperation {
+    CREATED,
+    UPDATED,
+    DELETED,
+    // Position du nœud seule : diffusée et visible dans /graph/changes, ignorée par les index en mémoire
+    MOVED
+}
@@ -0,0 +1,7 @@
+package com.detectivedex.graph;
+
+/**
+ * Modification validée du graphe, telle que publiée aux abonnés du journal.
+ */
+public record GraphChange(long version, ChangeKind kind, long entityId, ChangeOperation operation) {
+}
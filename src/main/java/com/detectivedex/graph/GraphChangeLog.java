@@ -0,0 +1,190 @@
+package com.detectivedex.graph;
+
+import com.detectivedex.entity.GraphChangeEntry;
+import com.detectivedex.persistence.PersistenceManager;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import org.hibernate.Session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Journal des modifications du graphe.
+ *
+ * Chaque modification reçoit une version strictement croissante et est persistée dans la table
+ * graph_changes au sein de la transaction qui la produit. Une fois la transaction validée, elle est
+ * ajoutée à un tampon circulaire en mémoire et publiée aux abonnés.
+ *
+ * Les transactions pouvant se terminer dans le désordre, la version exposée aux lecteurs est le
+ * "niveau d'eau" : la plus grande version en dessous de laquelle aucune transaction n'est en cours.
+ */
+public final class GraphChangeLog {
+
+    // Nombre de modifications conservées en mémoire pour les lectures de delta
+    static final int BUFFER_CAPACITY = 4096;
+
+    private static final Object LOCK = new Object();
+    private static final NavigableSet<Long> IN_FLIGHT = new ConcurrentSkipListSet<>();
+    private static final GraphChange[] BUFFER = new GraphChange[BUFFER_CAPACITY];
+    private static final List<Consumer<GraphChange>> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
+    private static long lastAllocated = -1;
+    private static int bufferHead;
+    private static int bufferSize;
+    // Plus grande version sortie du tampon : en deçà, il faut relire la table
+    private static long evictedUpTo;
+
+    private GraphChangeLog() {
+    }
+
+    /**
+     * Enregistre une modification dans la transaction courante de l'EntityManager.
+     * Doit être appelé avant le commit ; la publication a lieu après validation.
+     */
+    public static long record(EntityManager em, ChangeKind kind, Long entityId, ChangeOperation operation) {
+        long version;
+        synchronized (LOCK) {
+            ensureInitialized();
+            version = ++lastAllocated;
+            IN_FLIGHT.add(version);
+        }
+        GraphChange change = new GraphChange(version, kind, entityId, operation);
+        // Une version restée en vol bloquerait version() : la synchronisation est enregistrée avant
+        // l'écriture (un échec de persist est libéré par le rollback), et son propre échec libère la version
+        try {
+            em.unwrap(Session.class).getTransaction().registerSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    complete(change, status == Status.STATUS_COMMITTED);
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (LOCK) {
+                IN_FLIGHT.remove(version);
+            }
+            throw e;
+        }
+        em.persist(new GraphChangeEntry(version, kind, entityId, operation));
+        return version;
+    }
+
+    /**
+     * Version courante du graphe : toutes les modifications jusqu'à cette version sont validées.
+     */
+    public static long version() {
+        synchronized (LOCK) {
+            ensureInitialized();
+            Long oldestInFlight = IN_FLIGHT.isEmpty() ? null : IN_FLIGHT.first();
+            return oldestInFlight == null ? lastAllocated : oldestInFlight - 1;
+        }
+    }
+
+    /**
+     * ETag associé à une version ; l'instant de démarrage évite de resservir une valeur après redémarrage.
+     */
+    public static String etag(long version) {
+        return EPOCH + "-" + version;
+    }
+
+    /**
+     * Modifications validées dans l'intervalle ]since, upTo], par version croissante.
+     * Lues depuis le tampon mémoire lorsque possible, sinon depuis la table graph_changes.
+     */
+    public static List<GraphChange> changesBetween(long since, long upTo) {
+        synchronized (LOCK) {
+            if (since >= evictedUpTo) {
+                List<GraphChange> changes = new ArrayList<>();
+                int start = (bufferHead - bufferSize + BUFFER_CAPACITY) % BUFFER_CAPACITY;
+                for (int i = 0; i < bufferSize; i++) {
+                    GraphChange change = BUFFER[(start + i) % BUFFER_CAPACITY];
+                    if (change.version() > since && change.version() <= upTo) {
+                        changes.add(change);
+                    }
+                }
+                changes.sort((a, b) -> Long.compare(a.version(), b.version()));
+                return changes;
+            }
+        }
+        return readFromTable(since, upTo);
+    }
+
+    /**
+     * Abonne un écouteur aux modifications validées. Il est appelé sur le thread qui a validé
+     * la transaction et ne doit donc pas bloquer.
+     */
+    public static void addListener(Consumer<GraphChange> listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Consumer<GraphChange> listener) {
+        LISTENERS.remove(listener);
+    }
+
+    private static void complete(GraphChange change, boolean committed) {
+        synchronized (LOCK) {
+            IN_FLIGHT.remove(change.version());
+            if (committed) {
+                if (bufferSize == BUFFER_CAPACITY) {
+                    evictedUpTo = Math.max(evictedUpTo, BUFFER[bufferHead].version());
+                } else {
+                    bufferSize++;
+                }
+                BUFFER[bufferHead] = change;
+                bufferHead = (bufferHead + 1) % BUFFER_CAPACITY;
+            }
+        }
+        if (committed) {
+            for (Consumer<GraphChange> listener : LISTENERS) {
+                listener.accept(change);
+            }
+        }
+    }
+
+    private static List<GraphChange> readFromTable(long since, long upTo) {
+        EntityManager em = PersistenceManager.getEntityManager();
+        try {
+            List<GraphChange> changes = new ArrayList<>();
+            for (GraphChangeEntry entry : em.createQuery(
+                    "SELECT c FROM GraphChangeEntry c WHERE c.version > :since AND c.version <= :upTo "
+                            + "ORDER BY c.version", GraphChangeEntry.class)
+                    .setParameter("since", since)
+                    .setParameter("upTo", upTo)
+                    .getResultList()) {
+                changes.add(new GraphChange(entry.getVersion(), entry.getEntityKind(),
+                        entry.getEntityId(), entry.getOperation()));
+            }
+            return changes;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Reprend la numérotation après la plus grande version persistée. Appelé sous LOCK.
+     */
+    private static void ensureInitialized() {
+        if (lastAllocated >= 0) {
+            return;
+        }
+        EntityManager em = PersistenceManager.getEntityManager();
+        try {
+            Long max = em.createQuery("SELECT MAX(c.version) FROM GraphChangeEntry c", Long.class)
+                    .getSingleResult();
+            lastAllocated = max == null ? 0 : max;
+            evictedUpTo = lastAllocated;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.detectivedex.graph;
+
+import com.detectivedex.persistence.PersistenceManager;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Index de la structure du graphe (nœuds et relations) en mémoire, tenu à jour à partir du
+ * journal des modifications.
+ *
+ * Les modifications validées sont mises en attente par l'écouteur GraphChangeLog puis appliquées
+ * au prochain appel de snapshot() : une rafale d'écritures (import, layout) ne coûte qu'une seule
+ * reconstruction des tableaux d'adjacence. Le premier appel charge tout le graphe depuis la base.
+ */
+public final class GraphIndex {
+
+    // Au-delà, les modifications en attente sont abandonnées au profit d'un rechargement complet
+    static final int MAX_PENDING_CHANGES = 100_000;
+
+    private static final int IN_CHUNK_SIZE = 1000;
+    private static final int STREAM_FETCH_SIZE = 1000;
+    private static final String RELATION_COLUMNS =
+            "r.id, r.sourceNode.id, r.targetNode.id, r.relationType, r.confirmed, r.confidence";
+
+    private static final Object LOCK = new Object();
+    private static final ConcurrentLinkedQueue<GraphChange> PENDING = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger PENDING_COUNT = new AtomicInteger();
+    private static final List<Consumer<Rebuild>> REBUILD_LISTENERS = new CopyOnWriteArrayList<>();
+
+    private static volatile AdjacencySnapshot current;
+    private static volatile boolean reloadRequired;
+    // Vrai dès le premier chargement : avant, il n'y a rien à tenir à jour
+    private static volatile boolean tracking;
+    // Accédé sous LOCK uniquement
+    private static Store store;
+
+    static {
+        GraphChangeLog.addListener(GraphIndex::onChange);
+    }
+
+    private GraphIndex() {
+    }
+
+    /**
+     * Instantané à jour du graphe. Sans modification en attente, renvoie l'instantané courant
+     * sans synchronisation.
+     */
+    public static AdjacencySnapshot snapshot() {
+        AdjacencySnapshot snapshot = current;
+        if (snapshot != null && PENDING_COUNT.get() == 0 && !reloadRequired) {
+            return snapshot;
+        }
+        synchronized (LOCK) {
+            try {
+                if (current == null || reloadRequired) {
+                    reload();
+                } else if (PENDING_COUNT.get() > 0) {
+                    applyPending();
+                }
+            } catch (RuntimeException e) {
+                // Les modifications lues sont déjà sorties de la file et store peut être à moitié
+                // modifié : seul un chargement complet remet l'index en phase
+                reloadRequired = true;
+                throw e;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Force un rechargement complet au prochain appel de snapshot().
+     */
+    public static void invalidate() {
+        reloadRequired = true;
+    }
+
+    /**
+     * Reconstruction de l'instantané, publiée aux calculs dérivés de l'index. Après un chargement
+     * complet, full vaut vrai ; sinon nodes contient les ids des nœuds créés, modifiés ou supprimés
+     * et endpoints les extrémités, anciennes et nouvelles, des relations modifiées.
+     */
+    record Rebuild(AdjacencySnapshot snapshot, boolean full, Set<Long> nodes, Set<Long> endpoints) {
+    }
+
+    /**
+     * Abonne un écouteur aux reconstructions. Il est appelé sous le verrou de l'index, avant que
+     * snapshot() ne renvoie le nouvel instantané, et ne doit donc faire qu'enregistrer le travail à faire.
+     */
+    static void addRebuildListener(Consumer<Rebuild> listener) {
+        REBUILD_LISTENERS.add(listener);
+    }
+
+    private static void publish(Rebuild rebuild) {
+        // Écouteurs d'abord : un lecteur qui voit le nouvel instantané voit aussi le travail enregistré
+        for (Consumer<Rebuild> listener : REBUILD_LISTENERS) {
+            listener.accept(rebuild);
+        }
+        current = rebuild.snapshot();
+    }
+
+    private static void onChange(GraphChange change) {
+        if (change.kind() == ChangeKind.EVENT || change.operation() == ChangeOperation.MOVED || !tracking) {
+            // Les événements et les positions ne font pas partie de la structure
+            return;
+        }
+        if (PENDING_COUNT.incrementAndGet() > MAX_PENDING_CHANGES) {
+            reloadRequired = true;
+        } else {
+            PENDING.add(change);
+        }
+    }
+
+    /**
+     * Chargement complet. Appelé sous LOCK.
+     */
+    private static void reload() {
+        // Les modifications validées pendant le chargement restent en attente et seront réappliquées
+        tracking = true;
+        reloadRequired = false;
+        PENDING.clear();
+        PENDING_COUNT.set(0);
+        long version = GraphChangeLog.version();
+
+        EntityManager em = PersistenceManager.getEntityManager();
+        try {
+            Store loaded = new Store();
+            try (Stream<Long> ids = em.createQuery("SELECT n.id FROM EvidenceNode n", Long.class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                    .getResultStream()) {
+                ids.forEach(loaded::addNode);
+            }
+            try (Stream<Object[]> rows = em.createQuery("SELECT " + RELATION_COLUMNS + " FROM Relation r", Object[].class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                    .getResultStream()) {
+                rows.forEach(loaded::putEdge);
+            }
+            store = loaded;
+            publish(new Rebuild(store.build(version), true, Set.of(), Set.of()));
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Applique les modifications en attente : seule la dernière opération par entité compte,
+     * et l'état des relations créées ou modifiées est relu en base. Appelé sous LOCK.
+     */
+    private static void applyPending() {
+        long version = current.version();
+        Map<Long, ChangeOperation> nodes = new LinkedHashMap<>();
+        Map<Long, ChangeOperation> relations = new LinkedHashMap<>();
+        for (GraphChange change; (change = PENDING.poll()) != null; ) {
+            PENDING_COUNT.decrementAndGet();
+            version = Math.max(version, change.version());
+            (change.kind() == ChangeKind.NODE ? nodes : relations).put(change.entityId(), change.operation());
+        }
+
+        List<Long> upsertedRelations = new ArrayList<>();
+        Set<Long> endpoints = new HashSet<>();
+        nodes.forEach((id, operation) -> {
+            if (operation != ChangeOperation.DELETED) {
+                store.addNode(id);
+            }
+        });
+        relations.forEach((id, operation) -> {
+            store.endpoints(id, endpoints);
+            if (operation == ChangeOperation.DELETED) {
+                store.removeEdge(id);
+            } else {
+                upsertedRelations.add(id);
+            }
+        });
+        if (!upsertedRelations.isEmpty()) {
+            EntityManager em = PersistenceManager.getEntityManager();
+            try {
+                for (int from = 0; from < upsertedRelations.size(); from += IN_CHUNK_SIZE) {
+                    List<Long> chunk = upsertedRelations.subList(from, Math.min(from + IN_CHUNK_SIZE, upsertedRelations.size()));
+                    // Une relation absente a été supprimée depuis : la suppression suivra dans le journal
+                    chunk.forEach(store::removeEdge);
+                    em.createQuery("SELECT " + RELATION_COLUMNS + " FROM Relation r WHERE r.id IN :ids", Object[].class)
+                            .setParameter("ids", chunk)
+                            .getResultList()
+                            .forEach(row -> {
+                                endpoints.add((Long) row[1]);
+                                endpoints.add((Long) row[2]);
+                                store.putEdge(row);
+                            });
+                }
+            } finally {
+                em.close();
+            }
+        }
+        nodes.forEach((id, operation) -> {
+            if (operation == ChangeOperation.DELETED) {
+                store.removeNode(id);
+            }
+        });
+        publish(new Rebuild(store.build(version), false, nodes.keySet(), endpoints));
+    }
+
+    /**
+     * Copie modifiable de la structure, en tableaux primitifs. Les suppressions déplacent le
+     * dernier élément dans la case libérée pour garder les tableaux denses.
+     */
+    private static final class Store {
+        private final LongIntHashMap nodeSlots = new LongIntHashMap(1024);
+        private long[] nodeIds = new long[1024];
+        private int nodeCount;
+
+        private final LongIntHashMap edgeSlots = new LongIntHashMap(1024);
+        private long[] edgeIds = new long[1024];
+        private long[] edgeSources = new long[1024];
+        private long[] edgeTargets = new long[1024];
+        private short[] edgeTypes = new short[1024];
+        private byte[] edgeFlags = new byte[1024];
+        private int edgeCount;
+
+        private final Map<String, Short> typeCodes = new HashMap<>();
+        private final List<String> typeNames = new ArrayList<>();
+
+        void addNode(long id) {
+            if (nodeSlots.get(id) != LongIntHashMap.MISSING) {
+                return;
+            }
+            if (nodeCount == nodeIds.length) {
+                nodeIds = Arrays.copyOf(nodeIds, nodeCount * 2);
+            }
+            nodeIds[nodeCount] = id;
+            nodeSlots.put(id, nodeCount++);
+        }
+
+        void removeNode(long id) {
+            int slot = nodeSlots.remove(id);
+            if (slot == LongIntHashMap.MISSING) {
+                return;
+            }
+            int last = --nodeCount;
+            if (slot != last) {
+                nodeIds[slot] = nodeIds[last];
+                nodeSlots.put(nodeIds[slot], slot);
+            }
+        }
+
+        /**
+         * Ajoute ou remplace une arête à partir d'une ligne RELATION_COLUMNS.
+         */
+        void putEdge(Object[] row) {
+            long id = (Long) row[0];
+            int slot = edgeSlots.get(id);
+            if (slot == LongIntHashMap.MISSING) {
+                if (edgeCount == edgeIds.length) {
+                    int capacity = edgeCount * 2;
+                    edgeIds = Arrays.copyOf(edgeIds, capacity);
+                    edgeSources = Arrays.copyOf(edgeSources, capacity);
+                    edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+                    edgeTypes = Arrays.copyOf(edgeTypes, capacity);
+                    edgeFlags = Arrays.copyOf(edgeFlags, capacity);
+                }
+                slot = edgeCount++;
+                edgeSlots.put(id, slot);
+            }
+            edgeIds[slot] = id;
+            edgeSources[slot] = (Long) row[1];
+            edgeTargets[slot] = (Long) row[2];
+            edgeTypes[slot] = typeCode((String) row[3]);
+            edgeFlags[slot] = AdjacencySnapshot.flags((Boolean) row[4], (String) row[5]);
+        }
+
+        /**
+         * Ajoute à into les ids des extrémités de l'arête id, si elle est connue.
+         */
+        void endpoints(long id, Set<Long> into) {
+            int slot = edgeSlots.get(id);
+            if (slot != LongIntHashMap.MISSING) {
+                into.add(edgeSources[slot]);
+                into.add(edgeTargets[slot]);
+            }
+        }
+
+        void removeEdge(long id) {
+            int slot = edgeSlots.remove(id);
+            if (slot == LongIntHashMap.MISSING) {
+                return;
+            }
+            int last = --edgeCount;
+            if (slot != last) {
+                edgeIds[slot] = edgeIds[last];
+                edgeSources[slot] = edgeSources[last];
+                edgeTargets[slot] = edgeTargets[last];
+                edgeTypes[slot] = edgeTypes[last];
+                edgeFlags[slot] = edgeFlags[last];
+                edgeSlots.put(edgeIds[slot], slot);
+            }
+        }
+
+        private short typeCode(String relationType) {
+            return typeCodes.computeIfAbsent(relationType, name -> {
+                typeNames.add(name);
+                return (short) (typeNames.size() - 1);
+            });
+        }
+
+        /**
+         * Construit un instantané : copie des tableaux et calcul des listes d'adjacence.
+         * Une arête dont une extrémité est inconnue de l'index est ignorée.
+         */
+        AdjacencySnapshot build(long version) {
+            int[] sources = new int[edgeCount];
+            int[] targets = new int[edgeCount];
+            long[] ids = new long[edgeCount];
+            short[] types = new short[edgeCount];
+            byte[] flags = new byte[edgeCount];
+            int kept = 0;
+            for (int edge = 0; edge < edgeCount; edge++) {
+                int source = nodeSlots.get(edgeSources[edge]);
+                int target = nodeSlots.get(edgeTargets[edge]);
+                if (source == LongIntHashMap.MISSING || target == LongIntHashMap.MISSING) {
+                    continue;
+                }
+                ids[kept] = edgeIds[edge];
+                sources[kept] = source;
+                targets[kept] = target;
+                types[kept] = edgeTypes[edge];
+                flags[kept] = edgeFlags[edge];
+                kept++;
+            }
+            return new AdjacencySnapshot(version,
+                    Arrays.copyOf(nodeIds, nodeCount), nodeSlots.copy(),
+                    Arrays.copyOf(ids, kept), Arrays.copyOf(sources, kept), Arrays.copyOf(targets, kept),
+                    Arrays.copyOf(types, kept), Arrays.copyOf(flags, kept),
+                    typeNames.toArray(String[]::new));
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.detectivedex.graph;
+
+import com.detectivedex.entity.SeverityLevel;
+import com.detectivedex.persistence.PersistenceManager;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Sévérité effective des nœuds, propagée le long des relations de causalité.
+ *
+ * La sévérité saisie sur un nœud ne dit rien de ce qu'il rend possible : un artefact LOW à l'origine
+ * d'un incident CRITICAL est en pratique critique. La sévérité effective d'un nœud est le maximum de
+ * sa sévérité déclarée et de celle des nœuds qu'il rend possibles, transmise par relation :
+ * <ul>
+ *   <li>A CAUSES B : la sévérité de B remonte vers sa cause A ;</li>
+ *   <li>A EXPLOITS B, A TRIGGERED_BY B : la sévérité de A descend vers la faille exploitée ou le déclencheur B.</li>
+ * </ul>
+ * Une relation confirmée ou de confiance HIGH transmet la sévérité intacte ; MEDIUM ou sans confiance
+ * la baisse d'un niveau, LOW de deux. Les autres types de relation ne transmettent rien.
+ *
+ * Le calcul est incrémental : à chaque reconstruction de GraphIndex, seuls les nœuds atteignables
+ * (dans le sens de propagation) depuis les nœuds et relations modifiés sont réévalués, à partir des
+ * valeurs inchangées de leurs prédécesseurs. Les valeurs ne font que croître pendant l'évaluation et
+ * sont bornées par CRITICAL : le calcul termine même en présence de cycles.
+ */
+public final class SeverityPropagation {
+
+    // Sens de propagation par type de relation
+    static final int NONE = 0;
+    static final int FORWARD = 1;
+    static final int BACKWARD = 2;
+    static final Map<String, Integer> DIRECTIONS = Map.of(
+            "CAUSES", BACKWARD,
+            "EXPLOITS", FORWARD,
+            "TRIGGERED_BY", FORWARD);
+
+    // Au-delà, les nœuds modifiés en attente sont abandonnés au profit d'un recalcul complet
+    static final int MAX_PENDING_NODES = 100_000;
+
+    private static final int IN_CHUNK_SIZE = 1000;
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final Object LOCK = new Object();
+    private static final Object PENDING_LOCK = new Object();
+
+    // Accédés sous PENDING_LOCK : travail cumulé depuis le dernier calcul
+    private static final Set<Long> PENDING_NODES = new HashSet<>();
+    private static final Set<Long> PENDING_ENDPOINTS = new HashSet<>();
+    private static AdjacencySnapshot pendingSnapshot;
+    private static boolean pendingFull;
+
+    // Vrai dès le premier calcul : avant, il n'y a rien à tenir à jour
+    private static volatile boolean tracking;
+    private static volatile Levels current;
+    // Accédés sous LOCK uniquement ; les clés sont des ids de nœud, les valeurs des scores de sévérité
+    private static LongIntHashMap declared;
+    private static LongIntHashMap effective;
+
+    static {
+        GraphIndex.addRebuildListener(SeverityPropagation::onRebuild);
+    }
+
+    private SeverityPropagation() {
+    }
+
+    /**
+     * Sévérités effectives à jour de l'instantané courant de GraphIndex. Sans reconstruction
+     * depuis le dernier appel, renvoie le résultat courant sans synchronisation.
+     */
+    public static Levels levels() {
+        tracking = true;
+        AdjacencySnapshot latest = GraphIndex.snapshot();
+        Levels levels = current;
+        if (levels != null && levels.snapshot == latest) {
+            return levels;
+        }
+        synchronized (LOCK) {
+            AdjacencySnapshot previous = current == null ? null : current.snapshot;
+            Set<Long> nodes;
+            Set<Long> endpoints;
+            boolean full;
+            synchronized (PENDING_LOCK) {
+                // Le dernier instantané reconstruit est au moins aussi récent que latest
+                if (pendingSnapshot != null) {
+                    latest = pendingSnapshot;
+                }
+                nodes = new HashSet<>(PENDING_NODES);
+                endpoints = new HashSet<>(PENDING_ENDPOINTS);
+                full = pendingFull;
+                PENDING_NODES.clear();
+                PENDING_ENDPOINTS.clear();
+                pendingSnapshot = null;
+                pendingFull = false;
+            }
+            if (previous == latest) {
+                return current;
+            }
+            try {
+                if (previous == null || full) {
+                    recompute(latest);
+                } else {
+                    update(previous, latest, nodes, endpoints);
+                }
+            } catch (RuntimeException e) {
+                // Le travail en attente est perdu : l'appel suivant repartira d'un calcul complet
+                current = null;
+                throw e;
+            }
+            current = new Levels(latest, declared.copy(), effective.copy());
+            return current;
+        }
+    }
+
+    private static void onRebuild(GraphIndex.Rebuild rebuild) {
+        if (!tracking) {
+            return;
+        }
+        synchronized (PENDING_LOCK) {
+            pendingSnapshot = rebuild.snapshot();
+            if (rebuild.full() || pendingFull) {
+                pendingFull = true;
+                PENDING_NODES.clear();
+                PENDING_ENDPOINTS.clear();
+                return;
+            }
+            PENDING_NODES.addAll(rebuild.nodes());
+            PENDING_ENDPOINTS.addAll(rebuild.endpoints());
+            if (PENDING_NODES.size() + PENDING_ENDPOINTS.size() > MAX_PENDING_NODES) {
+                pendingFull = true;
+                PENDING_NODES.clear();
+                PENDING_ENDPOINTS.clear();
+            }
+        }
+    }
+
+    /**
+     * Calcul complet : relit toutes les sévérités déclarées et évalue tout le graphe. Appelé sous LOCK.
+     */
+    private static void recompute(AdjacencySnapshot graph) {
+        declared = new LongIntHashMap(graph.nodeCount());
+        effective = new LongIntHashMap(graph.nodeCount());
+        EntityManager em = PersistenceManager.getEntityManager();
+        try (Stream<Object[]> rows = em.createQuery("SELECT n.id, n.severity FROM EvidenceNode n", Object[].class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream()) {
+            rows.forEach(row -> declared.put((Long) row[0], score((SeverityLevel) row[1])));
+        } finally {
+            em.close();
+        }
+        int[] all = new int[graph.nodeCount()];
+        Arrays.setAll(all, node -> node);
+        propagate(graph, declared, effective, all);
+    }
+
+    /**
+     * Calcul incrémental entre deux instantanés. Sont réévalués à partir de la sévérité déclarée :
+     * les nœuds dont la sévérité a changé, les extrémités des relations modifiées, les successeurs
+     * des nœuds supprimés, et tout ce qui en dépend. Appelé sous LOCK.
+     */
+    private static void update(AdjacencySnapshot previous, AdjacencySnapshot graph,
+                               Set<Long> nodes, Set<Long> endpoints) {
+        Set<Long> seeds = new HashSet<>(endpoints);
+        List<Long> existing = new ArrayList<>();
+        int[] previousDirections = directions(previous);
+        for (Long id : nodes) {
+            if (graph.nodeIndex(id) >= 0) {
+                existing.add(id);
+                continue;
+            }
+            declared.remove(id);
+            effective.remove(id);
+            int node = previous.nodeIndex(id);
+            if (node >= 0) {
+                forEachSuccessor(previous, previousDirections, node,
+                        (edge, successor) -> seeds.add(previous.nodeId(successor)));
+            }
+        }
+        if (!existing.isEmpty()) {
+            EntityManager em = PersistenceManager.getEntityManager();
+            try {
+                for (int from = 0; from < existing.size(); from += IN_CHUNK_SIZE) {
+                    List<Long> chunk = existing.subList(from, Math.min(from + IN_CHUNK_SIZE, existing.size()));
+                    for (Object[] row : em.createQuery(
+                            "SELECT n.id, n.severity FROM EvidenceNode n WHERE n.id IN :ids", Object[].class)
+                            .setParameter("ids", chunk)
+                            .getResultList()) {
+                        long id = (Long) row[0];
+                        int score = score((SeverityLevel) row[1]);
+                        // Un déplacement ou un renommage ne change rien à la propagation
+                        if (declared.get(id) != score || effective.get(id) == LongIntHashMap.MISSING) {
+                            declared.put(id, score);
+                            seeds.add(id);
+                        }
+                    }
+                }
+            } finally {
+                em.close();
+            }
+        }
+        int[] seedNodes = seeds.stream()
+                .mapToInt(graph::nodeIndex)
+                .filter(node -> node >= 0)
+                .toArray();
+        propagate(graph, declared, effective, seedNodes);
+    }
+
+    /**
+     * Réévalue les nœuds atteignables depuis seeds dans le sens de propagation. Les valeurs
+     * effectives des autres nœuds sont supposées à jour et servent de point de départ.
+     */
+    static void propagate(AdjacencySnapshot graph, LongIntHashMap declared, LongIntHashMap effective, int[] seeds) {
+        int[] directions = directions(graph);
+        BitSet affected = new BitSet(graph.nodeCount());
+        IntQueue zone = new IntQueue(seeds.length);
+        for (int seed : seeds) {
+            if (!affected.get(seed)) {
+                affected.set(seed);
+                zone.add(seed);
+            }
+        }
+        for (int i = 0; i < zone.size(); i++) {
+            forEachSuccessor(graph, directions, zone.get(i), (edge, successor) -> {
+                if (!affected.get(successor)) {
+                    affected.set(successor);
+                    zone.add(successor);
+                }
+            });
+        }
+
+        // Toute la zone part de sa valeur initiale et entre dans la file de relaxation
+        IntQueue work = new IntQueue(zone.size());
+        for (int i = 0; i < zone.size(); i++) {
+            int node = zone.get(i);
+            effective.put(graph.nodeId(node), initialValue(graph, directions, declared, effective, affected, node));
+            work.add(node);
+        }
+        BitSet queued = affected;
+        while (!work.isEmpty()) {
+            int node = work.poll();
+            queued.clear(node);
+            int value = effective.get(graph.nodeId(node));
+            forEachSuccessor(graph, directions, node, (edge, successor) -> {
+                int transmitted = transmit(graph, edge, value);
+                long id = graph.nodeId(successor);
+                if (transmitted > effective.get(id)) {
+                    effective.put(id, transmitted);
+                    if (!queued.get(successor)) {
+                        queued.set(successor);
+                        work.add(successor);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Sévérité déclarée du nœud, augmentée de ce que transmettent ses prédécesseurs hors de la zone
+     * réévaluée (leurs valeurs effectives sont à jour).
+     */
+    private static int initialValue(AdjacencySnapshot graph, int[] directions, LongIntHashMap declared,
+                                    LongIntHashMap effective, BitSet affected, int node) {
+        int value = Math.max(0, declared.get(graph.nodeId(node)));
+        for (int p = graph.inStart(node); p < graph.inEnd(node); p++) {
+            int edge = graph.inEdgeAt(p);
+            int predecessor = graph.inNeighbourAt(p);
+            if (directions[graph.relationTypeCode(edge)] == FORWARD && !affected.get(predecessor)) {
+                value = Math.max(value, transmit(graph, edge, effective.get(graph.nodeId(predecessor))));
+            }
+        }
+        for (int p = graph.outStart(node); p < graph.outEnd(node); p++) {
+            int edge = graph.outEdgeAt(p);
+            int predecessor = graph.outNeighbourAt(p);
+            if (directions[graph.relationTypeCode(edge)] == BACKWARD && !affected.get(predecessor)) {
+                value = Math.max(value, transmit(graph, edge, effective.get(graph.nodeId(predecessor))));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Score transmis par l'arête edge depuis un nœud de score value.
+     */
+    static int transmit(AdjacencySnapshot graph, int edge, int value) {
+        int penalty = graph.confirmed(edge) ? 0 : switch (graph.confidence(edge)) {
+            case AdjacencySnapshot.CONFIDENCE_HIGH -> 0;
+            case AdjacencySnapshot.CONFIDENCE_LOW -> 2;
+            default -> 1;
+        };
+        return Math.max(0, value - penalty);
+    }
+
+    /**
+     * Sens de propagation de chaque code de type de relation de l'instantané.
+     */
+    private static int[] directions(AdjacencySnapshot graph) {
+        int[] directions = new int[graph.relationTypeCount()];
+        for (int code = 0; code < directions.length; code++) {
+            String name = graph.relationTypeName(code);
+            directions[code] = name == null ? NONE : DIRECTIONS.getOrDefault(name.toUpperCase(), NONE);
+        }
+        return directions;
+    }
+
+    private interface EdgeVisitor {
+        void visit(int edge, int neighbour);
+    }
+
+    private static void forEachSuccessor(AdjacencySnapshot graph, int[] directions, int node, EdgeVisitor visitor) {
+        for (int p = graph.outStart(node); p < graph.outEnd(node); p++) {
+            int edge = graph.outEdgeAt(p);
+            if (directions[graph.relationTypeCode(edge)] == FORWARD) {
+                visitor.visit(edge, graph.outNeighbourAt(p));
+            }
+        }
+        for (int p = graph.inStart(node); p < graph.inEnd(node); p++) {
+            int edge = graph.inEdgeAt(p);
+            if (directions[graph.relationTypeCode(edge)] == BACKWARD) {
+                visitor.visit(edge, graph.inNeighbourAt(p));
+            }
+        }
+    }
+
+    /**
+     * File d'entiers extensible ; les éléments retirés restent lisibles par get(i).
+     */
+    private static final class IntQueue {
+        private int[] items;
+        private int head;
+        private int tail;
+
+        IntQueue(int capacity) {
+            items = new int[Math.max(16, capacity)];
+        }
+
+        void add(int value) {
+            if (tail == items.length) {
+                items = Arrays.copyOf(items, tail * 2);
+            }
+            items[tail++] = value;
+        }
+
+        int poll() {
+            return items[head++];
+        }
+
+        int get(int index) {
+            return items[index];
+        }
+
+        int size() {
+            return tail;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+    }
+
+    private static int score(SeverityLevel level) {
+        return level == null ? 0 : level.getScore();
+    }
+
+    /**
+     * Sévérités déclarées et effectives, figées pour un instantané du graphe.
+     */
+    public static final class Levels {
+        private final AdjacencySnapshot snapshot;
+        private final LongIntHashMap declared;
+        private final LongIntHashMap effective;
+
+        Levels(AdjacencySnapshot snapshot, LongIntHashMap declared, LongIntHashMap effective) {
+            this.snapshot = snapshot;
+            this.declared = declared;
+            this.effective = effective;
+        }
+
+        public AdjacencySnapshot snapshot() {
+            return snapshot;
+        }
+
+        /**
+         * Sévérité effective du nœud, ou null s'il est absent de l'instantané.
+         */
+        public SeverityLevel effective(long nodeId) {
+            return SeverityLevel.fromScore(effective.get(nodeId));
+        }
+
+        /**
+         * Vrai si la sévérité effective du nœud dépasse sa sévérité déclarée.
+         */
+        public boolean escalated(long nodeId) {
+            return effective.get(nodeId) > declared.get(nodeId);
+        }
+    }
+}
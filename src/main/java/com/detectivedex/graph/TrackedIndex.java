@@ -0,0 +1,147 @@
+package com.detectivedex.graph;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Suivi du journal des modifications pour un index en mémoire qui publie des vues immuables
+ * (SearchIndex, IocIndex).
+ *
+ * Les modifications validées sont mises en file et appliquées à la lecture suivante, fusionnées par
+ * entité (seule la dernière opération compte). Seule la mise à jour se fait sous le verrou ; elle publie
+ * une vue que les lectures utilisent ensuite sans verrou. Pendant un rechargement complet, les autres
+ * lectures continuent sur la dernière vue publiée. Si une mise à jour échoue, les modifications déjà
+ * sorties de la file sont perdues : l'index est alors entièrement rechargé à la lecture suivante.
+ *
+ * Les fonctions de chargement et d'application sont appelées sous le verrou, jamais en parallèle :
+ * l'état modifiable de l'index peut donc être un simple champ de la classe qui l'utilise.
+ *
+ * @param <V> vue publiée
+ */
+public final class TrackedIndex<V> {
+
+    // Attente du verrou par tranches, pour basculer sur la vue publiée si un rechargement commence
+    private static final long LOCK_POLL_MILLIS = 10;
+
+    private final Predicate<GraphChange> relevant;
+    private final int maxPendingChanges;
+    private final Supplier<V> loader;
+    private final Function<Map<ChangeKind, Map<Long, ChangeOperation>>, V> applier;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentLinkedQueue<GraphChange> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private volatile boolean reloadRequired;
+    // Vrai dès le premier chargement : avant, il n'y a rien à tenir à jour
+    private volatile boolean tracking;
+    private volatile boolean reloading;
+    private volatile V view;
+
+    /**
+     * @param relevant modifications qui concernent l'index
+     * @param maxPendingChanges au-delà, les modifications en attente sont abandonnées au profit d'un
+     *                          rechargement complet
+     * @param loader chargement complet, qui renvoie la vue à publier
+     * @param applier application des modifications fusionnées (par type, puis id -> dernière opération),
+     *              qui renvoie la vue à publier
+     */
+    public TrackedIndex(Predicate<GraphChange> relevant, int maxPendingChanges, Supplier<V> loader,
+                        Function<Map<ChangeKind, Map<Long, ChangeOperation>>, V> applier) {
+        this.relevant = relevant;
+        this.maxPendingChanges = maxPendingChanges;
+        this.loader = loader;
+        this.applier = applier;
+    }
+
+    /**
+     * Écouteur à abonner au journal des modifications.
+     */
+    public void onChange(GraphChange change) {
+        if (!tracking || !relevant.test(change)) {
+            return;
+        }
+        if (pendingCount.incrementAndGet() > maxPendingChanges) {
+            reloadRequired = true;
+        } else {
+            pending.add(change);
+        }
+    }
+
+    /**
+     * Force un rechargement complet à la prochaine lecture.
+     */
+    public void invalidate() {
+        reloadRequired = true;
+    }
+
+    /**
+     * Vue à jour : les modifications en attente sont appliquées sous le verrou, puis publiées. Si un
+     * autre thread recharge tout l'index, la dernière vue publiée est rendue sans attendre la fin.
+     */
+    public V current() {
+        V published = view;
+        if (published != null && !reloadRequired && pendingCount.get() == 0) {
+            return published;
+        }
+        try {
+            while (!lock.tryLock(LOCK_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (published != null && reloading) {
+                    return published;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (published != null) {
+                return published;
+            }
+            lock.lock();
+        }
+        try {
+            if (view == null || reloadRequired) {
+                reload();
+            } else if (pendingCount.get() > 0) {
+                view = applier.apply(drain());
+            }
+            return view;
+        } catch (RuntimeException e) {
+            // Modifications déjà sorties de la file, état peut-être à moitié modifié : tout relire
+            reloadRequired = true;
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reload() {
+        // Les modifications validées pendant le chargement restent en attente et seront réappliquées
+        tracking = true;
+        reloadRequired = false;
+        pending.clear();
+        pendingCount.set(0);
+        reloading = true;
+        try {
+            view = loader.get();
+        } finally {
+            reloading = false;
+        }
+    }
+
+    private Map<ChangeKind, Map<Long, ChangeOperation>> drain() {
+        Map<ChangeKind, Map<Long, ChangeOperation>> changes = new EnumMap<>(ChangeKind.class);
+        for (GraphChange change; (change = pending.poll()) != null; ) {
+            pendingCount.decrementAndGet();
+            changes.computeIfAbsent(change.kind(), kind -> new LinkedHashMap<>())
+                    .put(change.entityId(), change.operation());
+        }
+        return changes;
+    }
+}
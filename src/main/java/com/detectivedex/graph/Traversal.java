@@ -0,0 +1,414 @@
+package com.detectivedex.graph;
+
+import java.util.Arrays;
+
+/**
+ * Parcours du graphe sur un AdjacencySnapshot : plus court chemin et voisinage à k sauts.
+ *
+ * Les parcours travaillent sur les index denses de l'instantané et n'allouent que des structures
+ * proportionnelles à la partie visitée. Ils s'arrêtent à l'échéance (System.nanoTime) ou au-delà
+ * d'un nombre de nœuds visités, pour qu'un graphe énorme ne bloque pas un thread de requête.
+ */
+public final class Traversal {
+
+    /**
+     * Issue d'un parcours.
+     */
+    public enum Outcome {
+        FOUND,
+        NOT_FOUND,
+        TIMED_OUT,
+        LIMIT_REACHED
+    }
+
+    /**
+     * Plus court chemin : index des arêtes dans l'ordre du parcours, nombre de sauts et coût.
+     */
+    public record PathResult(Outcome outcome, int[] edges, int[] nodes, double cost) {
+    }
+
+    /**
+     * Voisinage : nœuds visités avec leur distance au centre, et arêtes parcourues.
+     */
+    public record NeighbourhoodResult(Outcome outcome, int[] nodes, int[] distances, int[] edges) {
+    }
+
+    // Fréquence de vérification de l'échéance, en nœuds développés
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+
+    private Traversal() {
+    }
+
+    /**
+     * Coût d'une arête pour la recherche pondérée : les relations confirmées et de forte confiance
+     * sont les moins chères (HIGH 1, MEDIUM 2, inconnue 3, LOW 4 ; x1.5 si non confirmée).
+     */
+    public static double edgeCost(AdjacencySnapshot graph, int edge) {
+        double cost = switch (graph.confidence(edge)) {
+            case AdjacencySnapshot.CONFIDENCE_HIGH -> 1.0;
+            case AdjacencySnapshot.CONFIDENCE_MEDIUM -> 2.0;
+            case AdjacencySnapshot.CONFIDENCE_LOW -> 4.0;
+            default -> 3.0;
+        };
+        return graph.confirmed(edge) ? cost : cost * 1.5;
+    }
+
+    /**
+     * Plus court chemin en nombre de sauts par BFS bidirectionnel : la recherche avance depuis
+     * la source par les arêtes sortantes et depuis la cible par les arêtes entrantes (ou dans les
+     * deux sens si directed vaut false), en développant toujours la plus petite frontière.
+     */
+    public static PathResult shortestPath(AdjacencySnapshot graph, int from, int to, int maxDepth,
+                                          boolean directed, int maxVisited, long deadlineNanos) {
+        if (from == to) {
+            return new PathResult(Outcome.FOUND, new int[0], new int[] {from}, 0);
+        }
+        Frontier forward = new Frontier(from);
+        Frontier backward = new Frontier(to);
+        int expanded = 0;
+        while (forward.depth + backward.depth < maxDepth && !forward.isEmpty() && !backward.isEmpty()) {
+            boolean expandForward = forward.size <= backward.size;
+            Frontier side = expandForward ? forward : backward;
+            Frontier other = expandForward ? backward : forward;
+            int[] level = Arrays.copyOf(side.queue, side.size);
+            side.size = 0;
+            side.depth++;
+            int meeting = -1;
+            int best = Integer.MAX_VALUE;
+            for (int node : level) {
+                if (++expanded % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadlineNanos) {
+                    return new PathResult(Outcome.TIMED_OUT, new int[0], new int[0], 0);
+                }
+                // Depuis la source : arêtes sortantes ; depuis la cible : arêtes entrantes
+                boolean useOut = expandForward || !directed;
+                boolean useIn = !expandForward || !directed;
+                if (useOut) {
+                    for (int p = graph.outStart(node); p < graph.outEnd(node); p++) {
+                        int edge = graph.outEdgeAt(p);
+                        int candidate = side.visit(graph.edgeTarget(edge), edge, other);
+                        if (candidate >= 0 && candidate < best) {
+                            best = candidate;
+                            meeting = graph.edgeTarget(edge);
+                        }
+                    }
+                }
+                if (useIn) {
+                    for (int p = graph.inStart(node); p < graph.inEnd(node); p++) {
+                        int edge = graph.inEdgeAt(p);
+                        int candidate = side.visit(graph.edgeSource(edge), edge, other);
+                        if (candidate >= 0 && candidate < best) {
+                            best = candidate;
+                            meeting = graph.edgeSource(edge);
+                        }
+                    }
+                }
+            }
+            if (meeting >= 0) {
+                return join(graph, forward, backward, meeting);
+            }
+            if (forward.parents.size() + backward.parents.size() > maxVisited) {
+                return new PathResult(Outcome.LIMIT_REACHED, new int[0], new int[0], 0);
+            }
+        }
+        return new PathResult(Outcome.NOT_FOUND, new int[0], new int[0], 0);
+    }
+
+    /**
+     * Plus court chemin pondéré par edgeCost (Dijkstra), limité à maxDepth sauts. La recherche porte sur
+     * des étiquettes (nœud, sauts) : un nœud déjà développé l'est de nouveau s'il est atteint avec moins
+     * de sauts, plus cher mais peut-être seul à rester dans la limite. Un nœud atteint avec maxDepth sauts
+     * n'est plus développé.
+     */
+    public static PathResult cheapestPath(AdjacencySnapshot graph, int from, int to, int maxDepth,
+                                          boolean directed, int maxVisited, long deadlineNanos) {
+        // Plus petit nombre de sauts avec lequel chaque nœud a été développé
+        LongIntHashMap expandedHops = new LongIntHashMap(64);
+        Labels labels = new Labels();
+        CostHeap heap = new CostHeap();
+        int expandedCount = 0;
+
+        heap.push(0, labels.add(from, 0, -1, -1));
+        while (!heap.isEmpty()) {
+            double cost = heap.peekCost();
+            int label = heap.pop();
+            int node = labels.nodes[label];
+            int nodeHops = labels.hops[label];
+            int previousHops = expandedHops.get(node);
+            if (previousHops != LongIntHashMap.MISSING && previousHops <= nodeHops) {
+                continue;
+            }
+            if (node == to) {
+                return labelPath(graph, labels, label, from, cost);
+            }
+            expandedHops.put(node, nodeHops);
+            if (++expandedCount % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadlineNanos) {
+                return new PathResult(Outcome.TIMED_OUT, new int[0], new int[0], 0);
+            }
+            if (expandedCount > maxVisited) {
+                return new PathResult(Outcome.LIMIT_REACHED, new int[0], new int[0], 0);
+            }
+            if (nodeHops >= maxDepth) {
+                continue;
+            }
+            for (int pass = 0; pass < 2; pass++) {
+                boolean outgoing = pass == 0;
+                if (!outgoing && directed) {
+                    break;
+                }
+                int start = outgoing ? graph.outStart(node) : graph.inStart(node);
+                int end = outgoing ? graph.outEnd(node) : graph.inEnd(node);
+                for (int p = start; p < end; p++) {
+                    int edge = outgoing ? graph.outEdgeAt(p) : graph.inEdgeAt(p);
+                    int next = outgoing ? graph.edgeTarget(edge) : graph.edgeSource(edge);
+                    // Déjà développé moins cher avec autant de sauts ou moins : rien à gagner
+                    int nextExpanded = expandedHops.get(next);
+                    if (nextExpanded != LongIntHashMap.MISSING && nextExpanded <= nodeHops + 1) {
+                        continue;
+                    }
+                    heap.push(cost + edgeCost(graph, edge), labels.add(next, nodeHops + 1, label, edge));
+                }
+            }
+        }
+        return new PathResult(Outcome.NOT_FOUND, new int[0], new int[0], 0);
+    }
+
+    /**
+     * Voisinage à depth sauts autour de center, par BFS. Au-delà de maxNodes nœuds le parcours
+     * s'arrête avec LIMIT_REACHED (le résultat partiel est renvoyé).
+     */
+    public static NeighbourhoodResult neighbourhood(AdjacencySnapshot graph, int center, int depth,
+                                                    boolean outgoing, boolean incoming, int maxNodes,
+                                                    long deadlineNanos) {
+        LongIntHashMap distances = new LongIntHashMap(64);
+        LongIntHashMap seenEdges = new LongIntHashMap(64);
+        int[] nodes = new int[16];
+        int[] nodeDistances = new int[16];
+        int[] edges = new int[16];
+        int nodeCount = 0;
+        int edgeCount = 0;
+        Outcome outcome = Outcome.FOUND;
+
+        distances.put(center, 0);
+        nodes[nodeCount] = center;
+        nodeDistances[nodeCount++] = 0;
+        traversal:
+        for (int head = 0; head < nodeCount; head++) {
+            if (head % DEADLINE_CHECK_INTERVAL == DEADLINE_CHECK_INTERVAL - 1 && System.nanoTime() > deadlineNanos) {
+                outcome = Outcome.TIMED_OUT;
+                break;
+            }
+            int node = nodes[head];
+            int distance = nodeDistances[head];
+            if (distance >= depth) {
+                continue;
+            }
+            for (int pass = 0; pass < 2; pass++) {
+                boolean out = pass == 0;
+                if (out ? !outgoing : !incoming) {
+                    continue;
+                }
+                int start = out ? graph.outStart(node) : graph.inStart(node);
+                int end = out ? graph.outEnd(node) : graph.inEnd(node);
+                for (int p = start; p < end; p++) {
+                    int edge = out ? graph.outEdgeAt(p) : graph.inEdgeAt(p);
+                    int next = out ? graph.edgeTarget(edge) : graph.edgeSource(edge);
+                    if (distances.get(next) == LongIntHashMap.MISSING) {
+                        if (nodeCount == maxNodes) {
+                            outcome = Outcome.LIMIT_REACHED;
+                            break traversal;
+                        }
+                        if (nodeCount == nodes.length) {
+                            nodes = Arrays.copyOf(nodes, nodeCount * 2);
+                            nodeDistances = Arrays.copyOf(nodeDistances, nodeCount * 2);
+                        }
+                        distances.put(next, distance + 1);
+                        nodes[nodeCount] = next;
+                        nodeDistances[nodeCount++] = distance + 1;
+                    }
+                    if (seenEdges.get(edge) == LongIntHashMap.MISSING) {
+                        seenEdges.put(edge, 1);
+                        if (edgeCount == edges.length) {
+                            edges = Arrays.copyOf(edges, edgeCount * 2);
+                        }
+                        edges[edgeCount++] = edge;
+                    }
+                }
+            }
+        }
+        return new NeighbourhoodResult(outcome, Arrays.copyOf(nodes, nodeCount),
+                Arrays.copyOf(nodeDistances, nodeCount), Arrays.copyOf(edges, edgeCount));
+    }
+
+    private static PathResult join(AdjacencySnapshot graph, Frontier forward, Frontier backward, int meeting) {
+        int[] head = walk(graph, forward.parents, meeting);
+        int[] tail = walk(graph, backward.parents, meeting);
+        int[] edges = new int[head.length + tail.length];
+        for (int i = 0; i < head.length; i++) {
+            edges[i] = head[head.length - 1 - i];
+        }
+        System.arraycopy(tail, 0, edges, head.length, tail.length);
+        return new PathResult(Outcome.FOUND, edges, nodesAlong(graph, edges, forward.origin), edges.length);
+    }
+
+    private static PathResult labelPath(AdjacencySnapshot graph, Labels labels, int label, int from, double cost) {
+        int[] edges = new int[labels.hops[label]];
+        for (int i = edges.length - 1; i >= 0; i--) {
+            edges[i] = labels.edges[label];
+            label = labels.parents[label];
+        }
+        return new PathResult(Outcome.FOUND, edges, nodesAlong(graph, edges, from), cost);
+    }
+
+    /**
+     * Arêtes de node jusqu'à l'origine de la recherche, en remontant les parents.
+     */
+    private static int[] walk(AdjacencySnapshot graph, LongIntHashMap parents, int node) {
+        int[] edges = new int[8];
+        int count = 0;
+        for (int edge = parents.get(node); edge >= 0; edge = parents.get(node)) {
+            if (count == edges.length) {
+                edges = Arrays.copyOf(edges, count * 2);
+            }
+            edges[count++] = edge;
+            node = graph.edgeSource(edge) == node ? graph.edgeTarget(edge) : graph.edgeSource(edge);
+        }
+        return Arrays.copyOf(edges, count);
+    }
+
+    private static int[] nodesAlong(AdjacencySnapshot graph, int[] edges, int from) {
+        int[] nodes = new int[edges.length + 1];
+        nodes[0] = from;
+        for (int i = 0; i < edges.length; i++) {
+            int edge = edges[i];
+            nodes[i + 1] = graph.edgeSource(edge) == nodes[i] ? graph.edgeTarget(edge) : graph.edgeSource(edge);
+        }
+        return nodes;
+    }
+
+    /**
+     * Un côté du BFS bidirectionnel : nœuds visités (avec l'arête par laquelle ils ont été
+     * atteints), distances, et frontière courante.
+     */
+    private static final class Frontier {
+        final int origin;
+        final LongIntHashMap parents = new LongIntHashMap(64);
+        final LongIntHashMap distances = new LongIntHashMap(64);
+        int[] queue = new int[16];
+        int size;
+        int depth;
+
+        Frontier(int origin) {
+            this.origin = origin;
+            parents.put(origin, -1);
+            distances.put(origin, 0);
+            queue[size++] = origin;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Visite node atteint par edge. Renvoie la longueur du chemin complet si node a déjà été
+         * atteint par l'autre côté, sinon -1.
+         */
+        int visit(int node, int edge, Frontier other) {
+            if (parents.get(node) == LongIntHashMap.MISSING) {
+                parents.put(node, edge);
+                distances.put(node, depth);
+                if (size == queue.length) {
+                    queue = Arrays.copyOf(queue, size * 2);
+                }
+                queue[size++] = node;
+            }
+            int otherDistance = other.distances.get(node);
+            return otherDistance == LongIntHashMap.MISSING ? -1 : distances.get(node) + otherDistance;
+        }
+    }
+
+    /**
+     * Étiquettes de la recherche pondérée : nœud, sauts depuis l'origine, étiquette et arête d'arrivée.
+     */
+    private static final class Labels {
+        private int[] nodes = new int[16];
+        private int[] hops = new int[16];
+        private int[] parents = new int[16];
+        private int[] edges = new int[16];
+        private int size;
+
+        int add(int node, int nodeHops, int parent, int edge) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                hops = Arrays.copyOf(hops, size * 2);
+                parents = Arrays.copyOf(parents, size * 2);
+                edges = Arrays.copyOf(edges, size * 2);
+            }
+            nodes[size] = node;
+            hops[size] = nodeHops;
+            parents[size] = parent;
+            edges[size] = edge;
+            return size++;
+        }
+    }
+
+    /**
+     * Tas binaire (coût, étiquette) en tableaux primitifs ; les étiquettes dépassées sont ignorées au dépilement.
+     */
+    private static final class CostHeap {
+        private double[] costs = new double[16];
+        private int[] labels = new int[16];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double peekCost() {
+            return costs[0];
+        }
+
+        void push(double cost, int label) {
+            if (size == costs.length) {
+                costs = Arrays.copyOf(costs, size * 2);
+                labels = Arrays.copyOf(labels, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (costs[parent] <= cost) {
+                    break;
+                }
+                costs[i] = costs[parent];
+                labels[i] = labels[parent];
+                i = parent;
+            }
+            costs[i] = cost;
+            labels[i] = label;
+        }
+
+        int pop() {
+            int top = labels[0];
+            double cost = costs[--size];
+            int last = labels[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && costs[child + 1] < costs[child]) {
+                    child++;
+                }
+                if (costs[child] >= cost) {
+                    break;
+                }
+                costs[i] = costs[child];
+                labels[i] = labels[child];
+                i = child;
+            }
+            costs[i] = cost;
+            labels[i] = last;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.detectivedex.ioc;
+
+/**
+ * Indicateur normalisé : deux écritures d'un même indicateur (casse, zéros de tête, forme
+ * "défangée") donnent la même valeur.
+ */
+public record Indicator(IndicatorType type, String value) {
+}
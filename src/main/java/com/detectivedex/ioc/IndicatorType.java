@@ -0,0 +1,14 @@
+package com.detectivedex.ioc;
+
+/**
+ * Type d'indicateur de compromission reconnu par l'index
+ */
+public enum IndicatorType {
+    HASH,
+    IPV4,
+    IPV6,
+    CIDR,
+    DOMAIN,
+    URL,
+    EMAIL
+}
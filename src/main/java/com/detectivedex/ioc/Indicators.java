@@ -0,0 +1,284 @@
+package com.detectivedex.ioc;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Reconnaissance et normalisation des indicateurs de compromission.
+ *
+ * Les formes "défangées" courantes sont rétablies (evil[.]com, hxxp://, user[@]host). Les hash
+ * (MD5, SHA-1, SHA-256, SHA-512), domaines, URL et emails sont mis en minuscules ; les IPv4 perdent
+ * leurs zéros de tête et leur port ; les IPv6 sont écrites avec leurs huit groupes ; un bloc CIDR
+ * est ramené à son adresse de réseau.
+ */
+public final class Indicators {
+
+    private static final Set<Integer> HASH_LENGTHS = Set.of(32, 40, 64, 128);
+    private static final Pattern DEFANGED_DOT = Pattern.compile("(?i)\\[\\.]|\\(\\.\\)|\\{\\.}|\\[dot]");
+    private static final Pattern DEFANGED_AT = Pattern.compile("(?i)\\[@]|\\[at]");
+    private static final Pattern DEFANGED_SCHEME = Pattern.compile("(?i)\\bhxxp");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s,;\"'<>()\\[\\]{}|`]+");
+    private static final String LEADING_PUNCTUATION = "<([{'\"";
+    private static final String TRAILING_PUNCTUATION = ">)]}'\".,;!?";
+
+    private Indicators() {
+    }
+
+    /**
+     * Indicateur saisi tel quel (une valeur), ou null s'il n'est d'aucun type reconnu.
+     */
+    public static Indicator parse(String input) {
+        if (input == null) {
+            return null;
+        }
+        String value = trim(refang(input).trim().toLowerCase(Locale.ROOT));
+        if (value.isEmpty()) {
+            return null;
+        }
+        int scheme = value.indexOf("://");
+        if (scheme > 0 && value.substring(0, scheme).matches("[a-z][a-z0-9+.-]*")) {
+            if (scheme + 3 == value.length()) {
+                return null;
+            }
+            // http://evil.com et http://evil.com/ désignent la même ressource
+            boolean bareHost = value.indexOf('/', scheme + 3) == value.length() - 1;
+            return new Indicator(IndicatorType.URL, bareHost ? value.substring(0, value.length() - 1) : value);
+        }
+        int slash = value.indexOf('/');
+        if (slash > 0) {
+            return cidr(value.substring(0, slash), value.substring(slash + 1));
+        }
+        int at = value.indexOf('@');
+        if (at > 0) {
+            return at < value.length() - 1 && at == value.lastIndexOf('@') && isDomain(value.substring(at + 1))
+                    ? new Indicator(IndicatorType.EMAIL, value) : null;
+        }
+        long ipv4 = ipv4(withoutPort(value));
+        if (ipv4 >= 0) {
+            return new Indicator(IndicatorType.IPV4, formatIpv4(ipv4));
+        }
+        if (value.indexOf(':') != value.lastIndexOf(':')) {
+            String ipv6 = ipv6(value);
+            return ipv6 != null ? new Indicator(IndicatorType.IPV6, ipv6) : null;
+        }
+        if (HASH_LENGTHS.contains(value.length()) && isHex(value)) {
+            return new Indicator(IndicatorType.HASH, value);
+        }
+        String domain = value.endsWith(".") ? value.substring(0, value.length() - 1) : value;
+        return isDomain(domain) ? new Indicator(IndicatorType.DOMAIN, domain) : null;
+    }
+
+    /**
+     * Indicateurs présents dans un texte libre. Une URL produit aussi son hôte, un email son domaine.
+     */
+    public static void extract(String text, Consumer<Indicator> sink) {
+        if (text == null) {
+            return;
+        }
+        for (String token : SEPARATORS.split(refang(text))) {
+            Indicator indicator = parse(token);
+            if (indicator == null) {
+                continue;
+            }
+            sink.accept(indicator);
+            String value = indicator.value();
+            Indicator parent = switch (indicator.type()) {
+                case URL -> parse(host(value));
+                case EMAIL -> parse(value.substring(value.indexOf('@') + 1));
+                default -> null;
+            };
+            if (parent != null) {
+                sink.accept(parent);
+            }
+        }
+    }
+
+    /**
+     * Valeur numérique d'une IPv4 (0 à 2^32 - 1), ou -1 si value n'en est pas une.
+     */
+    public static long ipv4(String value) {
+        long address = 0;
+        int octets = 0;
+        int start = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            if (i < value.length() && value.charAt(i) != '.') {
+                if (!Character.isDigit(value.charAt(i)) || i - start >= 3) {
+                    return -1;
+                }
+                continue;
+            }
+            if (i == start || ++octets > 4) {
+                return -1;
+            }
+            int octet = Integer.parseInt(value, start, i, 10);
+            if (octet > 255) {
+                return -1;
+            }
+            address = address << 8 | octet;
+            start = i + 1;
+        }
+        return octets == 4 ? address : -1;
+    }
+
+    public static String formatIpv4(long address) {
+        return (address >>> 24 & 0xFF) + "." + (address >>> 16 & 0xFF) + "." + (address >>> 8 & 0xFF) + "." + (address & 0xFF);
+    }
+
+    /**
+     * Première et dernière adresse d'un bloc CIDR normalisé ("a.b.c.d/n").
+     */
+    public static long[] range(String cidr) {
+        int slash = cidr.indexOf('/');
+        long network = ipv4(cidr.substring(0, slash));
+        int prefix = Integer.parseInt(cidr.substring(slash + 1));
+        return new long[] {network, network | (1L << (32 - prefix)) - 1};
+    }
+
+    static String refang(String text) {
+        String value = DEFANGED_DOT.matcher(text).replaceAll(".");
+        value = DEFANGED_AT.matcher(value).replaceAll("@");
+        return DEFANGED_SCHEME.matcher(value).replaceAll("http");
+    }
+
+    private static Indicator cidr(String address, String prefix) {
+        long ipv4 = ipv4(address);
+        if (ipv4 < 0 || prefix.isEmpty() || prefix.length() > 2 || !prefix.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        int length = Integer.parseInt(prefix);
+        if (length > 32) {
+            return null;
+        }
+        long mask = length == 0 ? 0 : 0xFFFFFFFFL << (32 - length) & 0xFFFFFFFFL;
+        return new Indicator(IndicatorType.CIDR, formatIpv4(ipv4 & mask) + "/" + length);
+    }
+
+    /**
+     * IPv6 en huit groupes hexadécimaux sans zéros de tête, ou null si value n'en est pas une.
+     */
+    private static String ipv6(String value) {
+        int zone = value.indexOf('%');
+        if (zone >= 0) {
+            value = value.substring(0, zone);
+        }
+        int gap = value.indexOf("::");
+        if (gap >= 0 && value.indexOf("::", gap + 1) >= 0) {
+            return null;
+        }
+        int[] groups = new int[8];
+        int count;
+        if (gap < 0) {
+            count = groups(value, groups, 0);
+            if (count != 8) {
+                return null;
+            }
+        } else {
+            // Groupes avant "::", puis groupes après, alignés à droite ; le trou est rempli de zéros
+            int head = groups(value.substring(0, gap), groups, 0);
+            int[] tail = new int[8];
+            int tailCount = head < 0 ? -1 : groups(value.substring(gap + 2), tail, 0);
+            if (tailCount < 0 || head + tailCount > 7) {
+                return null;
+            }
+            System.arraycopy(tail, 0, groups, 8 - tailCount, tailCount);
+        }
+        StringBuilder canonical = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            if (i > 0) {
+                canonical.append(':');
+            }
+            canonical.append(Integer.toHexString(groups[i]));
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * Lit les groupes "x:y:z" (le dernier pouvant être une IPv4) dans into à partir de offset.
+     * Renvoie le nombre de groupes lus, ou -1 si la suite est invalide.
+     */
+    private static int groups(String value, int[] into, int offset) {
+        if (value.isEmpty()) {
+            return 0;
+        }
+        String[] parts = value.split(":", -1);
+        int count = 0;
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (i == parts.length - 1 && part.indexOf('.') > 0) {
+                long ipv4 = ipv4(part);
+                if (ipv4 < 0 || offset + count > 6) {
+                    return -1;
+                }
+                into[offset + count++] = (int) (ipv4 >>> 16);
+                into[offset + count++] = (int) (ipv4 & 0xFFFF);
+            } else if (part.isEmpty() || part.length() > 4 || !isHex(part) || offset + count == 8) {
+                return -1;
+            } else {
+                into[offset + count++] = Integer.parseInt(part, 16);
+            }
+        }
+        return count;
+    }
+
+    private static String withoutPort(String value) {
+        int colon = value.indexOf(':');
+        return colon > 0 && colon == value.lastIndexOf(':') && value.substring(colon + 1).chars().allMatch(Character::isDigit)
+                ? value.substring(0, colon) : value;
+    }
+
+    private static String host(String url) {
+        int start = url.indexOf("://") + 3;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        String authority = url.substring(start, end);
+        return authority.substring(authority.lastIndexOf('@') + 1);
+    }
+
+    private static boolean isDomain(String value) {
+        String[] labels = value.split("\\.", -1);
+        if (labels.length < 2 || value.length() > 253) {
+            return false;
+        }
+        for (String label : labels) {
+            if (label.isEmpty() || label.length() > 63 || label.startsWith("-") || label.endsWith("-")) {
+                return false;
+            }
+            for (int i = 0; i < label.length(); i++) {
+                char c = label.charAt(i);
+                if (!(c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-' || c == '_')) {
+                    return false;
+                }
+            }
+        }
+        String tld = labels[labels.length - 1];
+        return tld.startsWith("xn--") || tld.length() >= 2 && tld.chars().allMatch(Character::isLetter);
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String trim(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && LEADING_PUNCTUATION.indexOf(value.charAt(start)) >= 0) {
+            start++;
+        }
+        while (end > start && (TRAILING_PUNCTUATION.indexOf(value.charAt(end - 1)) >= 0
+                // "evil.com:" perd son deux-points, pas l'IPv6 "fe80::"
+                || value.charAt(end - 1) == ':' && (end - start < 2 || value.charAt(end - 2) != ':'))) {
+            end--;
+        }
+        return value.substring(start, end);
+    }
+}
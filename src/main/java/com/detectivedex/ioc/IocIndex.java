@@ -0,0 +1,366 @@
+package com.detectivedex.ioc;
+
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.graph.ChangeKind;
+import com.detectivedex.graph.ChangeOperation;
+import com.detectivedex.graph.GraphChangeLog;
+import com.detectivedex.graph.TrackedIndex;
+import com.detectivedex.persistence.PersistenceManager;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Index exact des indicateurs de compromission : indicateur normalisé -> nœuds IOC (nom et
+ * description) et événements (champ evidence) qui le mentionnent.
+ *
+ * Une recherche est une lecture de table de hachage. Les IPv4 sont en plus rangées par valeur
+ * numérique, ce qui permet de chercher un bloc CIDR (toutes les adresses connues du bloc), et les
+ * blocs CIDR mentionnés sont rangés par longueur de préfixe : une adresse cherchée retrouve aussi
+ * les blocs qui la contiennent, en au plus 33 lectures.
+ *
+ * Comme SearchIndex, l'index suit le journal des modifications (voir TrackedIndex) et ne relit que
+ * les nœuds et événements modifiés, à la recherche suivante ; les recherches lisent sans verrou la
+ * dernière vue immuable publiée (View).
+ */
+public final class IocIndex {
+
+    // Au-delà, les modifications en attente sont abandonnées au profit d'un rechargement complet
+    static final int MAX_PENDING_CHANGES = 100_000;
+
+    private static final int IN_CHUNK_SIZE = 1000;
+    private static final int STREAM_FETCH_SIZE = 1000;
+    // Indicateurs modifiés gardés à part dans une vue avant de recopier tout l'index
+    private static final int MAX_RECENT_INDICATORS = 1024;
+    private static final String NODE_QUERY =
+            "SELECT n.id, n.name, n.description FROM EvidenceNode n WHERE n.nodeType = :ioc";
+    private static final String EVENT_QUERY =
+            "SELECT e.id, e.evidence FROM TimelineEvent e WHERE e.evidence IS NOT NULL";
+
+    // Les relations ne portent pas d'indicateur, un déplacement ne touche aucun texte
+    private static final TrackedIndex<View> INDEX = new TrackedIndex<>(
+            change -> change.kind() != ChangeKind.RELATION && change.operation() != ChangeOperation.MOVED,
+            MAX_PENDING_CHANGES, IocIndex::reload, IocIndex::applyPending);
+
+    // Accédé par les fonctions de chargement et d'application de INDEX uniquement, sous son verrou
+    private static Store store;
+
+    static {
+        GraphChangeLog.addListener(INDEX::onChange);
+    }
+
+    private IocIndex() {
+    }
+
+    /**
+     * Entités qui mentionnent un indicateur, par id croissant.
+     */
+    public record Match(Set<Long> nodeIds, Set<Long> eventIds) {
+        public boolean found() {
+            return !nodeIds.isEmpty() || !eventIds.isEmpty();
+        }
+    }
+
+    /**
+     * Recherche chaque indicateur ; une valeur nulle dans la liste donne un résultat nul.
+     */
+    public static List<Match> lookup(List<Indicator> indicators) {
+        View current = INDEX.current();
+        List<Match> matches = new ArrayList<>(indicators.size());
+        for (Indicator indicator : indicators) {
+            matches.add(indicator == null ? null : current.lookup(indicator));
+        }
+        return matches;
+    }
+
+    /**
+     * Force un rechargement complet à la prochaine recherche.
+     */
+    public static void invalidate() {
+        INDEX.invalidate();
+    }
+
+    /**
+     * Chargement complet.
+     */
+    private static View reload() {
+        EntityManager em = PersistenceManager.getEntityManager();
+        try {
+            Store loaded = new Store();
+            try (Stream<Object[]> rows = em.createQuery(NODE_QUERY, Object[].class)
+                    .setParameter("ioc", NodeType.IOC)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                    .getResultStream()) {
+                rows.forEach(row -> loaded.put(ChangeKind.NODE, row));
+            }
+            try (Stream<Object[]> rows = em.createQuery(EVENT_QUERY, Object[].class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                    .getResultStream()) {
+                rows.forEach(row -> loaded.put(ChangeKind.EVENT, row));
+            }
+            store = loaded;
+            return loaded.publish();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Applique les dernières opérations par entité : les nœuds et événements modifiés sont retirés
+     * puis relus (un nœud qui n'est plus de type IOC n'est pas réindexé).
+     */
+    private static View applyPending(Map<ChangeKind, Map<Long, ChangeOperation>> changes) {
+        EntityManager em = null;
+        try {
+            for (Map.Entry<ChangeKind, Map<Long, ChangeOperation>> entry : changes.entrySet()) {
+                ChangeKind kind = entry.getKey();
+                List<Long> upserted = new ArrayList<>();
+                entry.getValue().forEach((id, operation) -> {
+                    store.remove(kind, id);
+                    if (operation != ChangeOperation.DELETED) {
+                        upserted.add(id);
+                    }
+                });
+                if (upserted.isEmpty()) {
+                    continue;
+                }
+                if (em == null) {
+                    em = PersistenceManager.getEntityManager();
+                }
+                for (int from = 0; from < upserted.size(); from += IN_CHUNK_SIZE) {
+                    List<Long> chunk = upserted.subList(from, Math.min(from + IN_CHUNK_SIZE, upserted.size()));
+                    if (kind == ChangeKind.NODE) {
+                        em.createQuery(NODE_QUERY + " AND n.id IN :ids", Object[].class)
+                                .setParameter("ioc", NodeType.IOC)
+                                .setParameter("ids", chunk)
+                                .getResultList()
+                                .forEach(row -> store.put(kind, row));
+                    } else {
+                        em.createQuery(EVENT_QUERY + " AND e.id IN :ids", Object[].class)
+                                .setParameter("ids", chunk)
+                                .getResultList()
+                                .forEach(row -> store.put(kind, row));
+                    }
+                }
+            }
+        } finally {
+            if (em != null) {
+                em.close();
+            }
+        }
+        return store.publish();
+    }
+
+    /**
+     * Nœuds et événements qui mentionnent un même indicateur.
+     */
+    private static final class References {
+        final Set<Long> nodes = new HashSet<>();
+        final Set<Long> events = new HashSet<>();
+
+        Set<Long> of(ChangeKind kind) {
+            return kind == ChangeKind.NODE ? nodes : events;
+        }
+
+        boolean isEmpty() {
+            return nodes.isEmpty() && events.isEmpty();
+        }
+    }
+
+    /**
+     * Copie publiée des références d'un indicateur ; vide si plus rien ne le mentionne.
+     */
+    private record Entry(Indicator indicator, Set<Long> nodes, Set<Long> events) {
+        static Entry of(Indicator indicator, References references) {
+            return references == null ? new Entry(indicator, Set.of(), Set.of())
+                    : new Entry(indicator, Set.copyOf(references.nodes), Set.copyOf(references.events));
+        }
+    }
+
+    /**
+     * État modifiable de l'index, réservé au thread qui tient LOCK, avec l'index inverse
+     * entité -> indicateurs pour les retraits.
+     */
+    static final class Store {
+        private final Map<Indicator, References> exact = new HashMap<>();
+        private final Map<ChangeKind, Map<Long, Set<Indicator>>> mentions = Map.of(
+                ChangeKind.NODE, new HashMap<>(), ChangeKind.EVENT, new HashMap<>());
+        // Depuis la dernière publication
+        private final Set<Indicator> touched = new HashSet<>();
+        private View published;
+
+        /**
+         * Indexe une ligne (id, textes...) d'un nœud IOC ou d'un événement.
+         */
+        void put(ChangeKind kind, Object[] row) {
+            long id = (Long) row[0];
+            remove(kind, id);
+            Set<Indicator> found = new HashSet<>();
+            for (int field = 1; field < row.length; field++) {
+                Indicators.extract((String) row[field], found::add);
+            }
+            if (found.isEmpty()) {
+                return;
+            }
+            for (Indicator indicator : found) {
+                exact.computeIfAbsent(indicator, key -> new References()).of(kind).add(id);
+            }
+            touched.addAll(found);
+            mentions.get(kind).put(id, found);
+        }
+
+        void remove(ChangeKind kind, long id) {
+            Set<Indicator> indicators = mentions.get(kind).remove(id);
+            if (indicators == null) {
+                return;
+            }
+            for (Indicator indicator : indicators) {
+                References references = exact.get(indicator);
+                references.of(kind).remove(id);
+                if (references.isEmpty()) {
+                    exact.remove(indicator);
+                }
+            }
+            touched.addAll(indicators);
+        }
+
+        /**
+         * Vue immuable de l'état courant. Les indicateurs modifiés depuis la dernière copie complète
+         * forment une petite table à part, recopiée à chaque publication ; la copie complète (avec
+         * les index d'adresses et de blocs) n'a lieu que quand cette table dépasse MAX_RECENT_INDICATORS.
+         */
+        View publish() {
+            if (published == null || published.recent.size() + touched.size() > MAX_RECENT_INDICATORS) {
+                Map<Indicator, Entry> entries = new HashMap<>();
+                exact.forEach((indicator, references) -> entries.put(indicator, Entry.of(indicator, references)));
+                published = new View(entries, Map.of());
+            } else {
+                Map<Indicator, Entry> recent = new HashMap<>(published.recent);
+                touched.forEach(indicator -> recent.put(indicator, Entry.of(indicator, exact.get(indicator))));
+                published = new View(published, recent);
+            }
+            touched.clear();
+            return published;
+        }
+    }
+
+    /**
+     * État publié de l'index, partagé sans verrou par les recherches : une copie complète, et les
+     * indicateurs modifiés depuis (recent), qui masquent leur entrée dans la copie.
+     */
+    static final class View {
+        private final Map<Indicator, Entry> exact;
+        // IPv4 par valeur numérique, pour les recherches de bloc
+        private final TreeMap<Long, Entry> addresses;
+        // Blocs CIDR mentionnés, par longueur de préfixe puis adresse de réseau
+        private final Map<Integer, Map<Long, Entry>> blocks;
+        private final Map<Indicator, Entry> recent;
+
+        private View(Map<Indicator, Entry> exact, Map<Indicator, Entry> recent) {
+            this.exact = exact;
+            this.addresses = new TreeMap<>();
+            this.blocks = new TreeMap<>();
+            this.recent = recent;
+            exact.forEach((indicator, entry) -> {
+                if (indicator.type() == IndicatorType.IPV4) {
+                    addresses.put(Indicators.ipv4(indicator.value()), entry);
+                } else if (indicator.type() == IndicatorType.CIDR) {
+                    blocks.computeIfAbsent(prefix(indicator), length -> new HashMap<>())
+                            .put(Indicators.range(indicator.value())[0], entry);
+                }
+            });
+        }
+
+        private View(View base, Map<Indicator, Entry> recent) {
+            this.exact = base.exact;
+            this.addresses = base.addresses;
+            this.blocks = base.blocks;
+            this.recent = recent;
+        }
+
+        /**
+         * Entités correspondant à l'indicateur : égalité exacte, plus pour une IPv4 les blocs qui la
+         * contiennent, et pour un bloc les IPv4 et les blocs plus petits qu'il contient.
+         */
+        Match lookup(Indicator indicator) {
+            List<Entry> matched = new ArrayList<>();
+            Entry same = recent.containsKey(indicator) ? recent.get(indicator) : exact.get(indicator);
+            if (same != null) {
+                matched.add(same);
+            }
+            if (indicator.type() == IndicatorType.IPV4) {
+                long address = Indicators.ipv4(indicator.value());
+                blocks.forEach((length, networks) -> {
+                    Entry block = networks.get(network(address, length));
+                    if (block != null && !recent.containsKey(block.indicator())) {
+                        matched.add(block);
+                    }
+                });
+                recent.values().forEach(entry -> {
+                    if (entry.indicator().type() == IndicatorType.CIDR
+                            && contains(Indicators.range(entry.indicator().value()), address)) {
+                        matched.add(entry);
+                    }
+                });
+            } else if (indicator.type() == IndicatorType.CIDR) {
+                long[] range = Indicators.range(indicator.value());
+                int prefix = prefix(indicator);
+                addresses.subMap(range[0], true, range[1], true).values().forEach(entry -> {
+                    if (!recent.containsKey(entry.indicator())) {
+                        matched.add(entry);
+                    }
+                });
+                blocks.forEach((length, networks) -> {
+                    if (length > prefix) {
+                        networks.forEach((network, block) -> {
+                            if (contains(range, network) && !recent.containsKey(block.indicator())) {
+                                matched.add(block);
+                            }
+                        });
+                    }
+                });
+                recent.values().forEach(entry -> {
+                    Indicator other = entry.indicator();
+                    if (other.type() == IndicatorType.IPV4 && contains(range, Indicators.ipv4(other.value()))
+                            || other.type() == IndicatorType.CIDR && prefix(other) > prefix
+                            && contains(range, Indicators.range(other.value())[0])) {
+                        matched.add(entry);
+                    }
+                });
+            }
+            return new Match(collect(matched, Entry::nodes), collect(matched, Entry::events));
+        }
+
+        private static Set<Long> collect(List<Entry> matched, Function<Entry, Collection<Long>> ids) {
+            if (matched.isEmpty()) {
+                return Set.of();
+            }
+            Set<Long> sorted = new TreeSet<>();
+            matched.forEach(entry -> sorted.addAll(ids.apply(entry)));
+            return sorted;
+        }
+
+        private static boolean contains(long[] range, long address) {
+            return address >= range[0] && address <= range[1];
+        }
+
+        private static int prefix(Indicator cidr) {
+            return Integer.parseInt(cidr.value().substring(cidr.value().indexOf('/') + 1));
+        }
+
+        private static long network(long address, int length) {
+            return length == 0 ? 0 : address & (0xFFFFFFFFL << (32 - length) & 0xFFFFFFFFL);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.detectivedex.observability;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Journal structuré des requêtes SQL, branché sur les connexions du pool.
+ *
+ * Deux journaux, écrits en clé=valeur (operation, durationMs, type, batch, success, sql) :
+ * detectivedex.sql reçoit un échantillon des requêtes (detectivedex.sql.sample-rate, entre 0 et 1,
+ * 0 par défaut), detectivedex.sql.slow toutes celles qui dépassent detectivedex.sql.slow-threshold-ms
+ * (500 par défaut, 0 désactive). Les valeurs des paramètres ne sont jamais journalisées.
+ *
+ * La durée est celle de l'exécution JDBC ; la lecture des lignes d'un SELECT n'y est pas comptée.
+ * L'écriture est asynchrone (voir logback.xml) : le thread de la requête ne fait que formater l'événement.
+ */
+public final class QueryLog implements QueryExecutionListener {
+
+    static final String SQL_LOGGER = "detectivedex.sql";
+    static final String SLOW_LOGGER = "detectivedex.sql.slow";
+    static final double DEFAULT_SAMPLE_RATE = 0;
+    static final long DEFAULT_SLOW_THRESHOLD_MS = 500;
+    // Début de l'exécution, gardé dans l'ExecutionInfo pour une durée à la microseconde
+    static final String START_NANOS = "detectivedex.startNanos";
+
+    private static final Logger SQL = LoggerFactory.getLogger(SQL_LOGGER);
+    private static final Logger SLOW = LoggerFactory.getLogger(SLOW_LOGGER);
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    QueryLog(double sampleRate, long slowThresholdMs) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThresholdMs > 0 ? TimeUnit.MILLISECONDS.toNanos(slowThresholdMs) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Journal configuré par detectivedex.sql.sample-rate et detectivedex.sql.slow-threshold-ms.
+     *
+     * @param config lecture d'une clé de configuration, null si absente
+     */
+    public static QueryLog configure(Function<String, String> config) {
+        double sampleRate = rate(config, "detectivedex.sql.sample-rate", DEFAULT_SAMPLE_RATE);
+        long threshold = DEFAULT_SLOW_THRESHOLD_MS;
+        String value = config.apply("detectivedex.sql.slow-threshold-ms");
+        if (value != null) {
+            if (!value.matches("\\d{1,9}")) {
+                throw new IllegalStateException("detectivedex.sql.slow-threshold-ms must be a non-negative integer: " + value);
+            }
+            threshold = Long.parseLong(value);
+        }
+        return new QueryLog(sampleRate, threshold);
+    }
+
+    /**
+     * Taux d'échantillonnage lu sous la clé, entre 0 et 1.
+     */
+    static double rate(Function<String, String> config, String key, double defaultValue) {
+        String value = config.apply(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        double rate;
+        try {
+            rate = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            rate = -1;
+        }
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new IllegalStateException(key + " must be between 0 and 1: " + value);
+        }
+        return rate;
+    }
+
+    /**
+     * Faux si ni échantillon ni seuil : les connexions n'ont alors pas besoin d'être observées.
+     */
+    public boolean isEnabled() {
+        return sampleRate > 0 || slowThresholdNanos != Long.MAX_VALUE;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long elapsed = start != null ? System.nanoTime() - start : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        if (elapsed >= slowThresholdNanos) {
+            if (SLOW.isWarnEnabled()) {
+                write(SLOW.atWarn(), execInfo, queryInfoList, elapsed).log("slow query");
+            }
+        } else if (sampleRate > 0 && SQL.isInfoEnabled()
+                && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            write(SQL.atInfo(), execInfo, queryInfoList, elapsed).log("query");
+        }
+    }
+
+    private static LoggingEventBuilder write(LoggingEventBuilder event, ExecutionInfo execInfo,
+                                             List<QueryInfo> queryInfoList, long elapsedNanos) {
+        String operation = RequestContext.operation();
+        return event.addKeyValue("operation", operation != null ? operation : "-")
+                .addKeyValue("durationMs", String.format(Locale.ROOT, "%.3f", elapsedNanos / 1e6))
+                .addKeyValue("type", execInfo.getStatementType())
+                .addKeyValue("batch", execInfo.isBatch() ? execInfo.getBatchSize() : 0)
+                .addKeyValue("success", execInfo.isSuccess())
+                .addKeyValue("sql", sql(queryInfoList));
+    }
+
+    /**
+     * Texte SQL exécuté ; un lot JDBC répète le même SQL, chaque texte n'est écrit qu'une fois.
+     */
+    static String sql(List<QueryInfo> queryInfoList) {
+        if (queryInfoList.size() == 1) {
+            return queryInfoList.get(0).getQuery();
+        }
+        Set<String> statements = new LinkedHashSet<>();
+        for (QueryInfo query : queryInfoList) {
+            statements.add(query.getQuery());
+        }
+        return String.join("; ", statements);
+    }
+}
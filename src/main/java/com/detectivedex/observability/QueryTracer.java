@@ -0,0 +1,36 @@
+package com.detectivedex.observability;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Une phase "sql" par exécution JDBC dans la trace en cours : texte de la requête, type, lot.
+ */
+public final class QueryTracer implements QueryExecutionListener {
+
+    private static final String SPAN = "detectivedex.span";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = Tracer.span("sql");
+        if (span != Span.NOOP) {
+            execInfo.addCustomValue(SPAN, span);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = execInfo.getCustomValue(SPAN, Span.class);
+        if (span == null) {
+            return;
+        }
+        span.attribute("db.statement", QueryLog.sql(queryInfoList))
+                .attribute("db.statement.type", execInfo.getStatementType().name())
+                .attribute("db.batch.size", execInfo.isBatch() ? execInfo.getBatchSize() : null)
+                .attribute("error", execInfo.isSuccess() ? null : Boolean.TRUE)
+                .end();
+    }
+}
@@ -0,0 +1,28 @@
+package com.detectivedex.observability;
+
+/**
+ * Opération en cours sur le thread : la méthode de ressource REST qui traite la requête
+ * ("EvidenceNodeResource.getAllNodes"), rattachée aux requêtes SQL qu'elle déclenche.
+ */
+public final class RequestContext {
+
+    private static final ThreadLocal<String> OPERATION = new ThreadLocal<>();
+
+    private RequestContext() {
+    }
+
+    public static void enter(String operation) {
+        OPERATION.set(operation);
+    }
+
+    /**
+     * Opération en cours, ou null hors requête (chargement d'un index, tâche de fond...).
+     */
+    public static String operation() {
+        return OPERATION.get();
+    }
+
+    public static void exit() {
+        OPERATION.remove();
+    }
+}
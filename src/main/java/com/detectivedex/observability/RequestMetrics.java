@@ -0,0 +1,92 @@
+package com.detectivedex.observability;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latence, volume et erreurs des requêtes HTTP, par méthode de ressource.
+ *
+ * L'enregistrement est sans verrou : lecture d'une ConcurrentHashMap, Recorder HdrHistogram (sans
+ * attente) et LongAdder. Seule la lecture (/metrics) verrouille une opération, le temps de reverser
+ * l'intervalle du Recorder dans l'histogramme cumulé depuis le démarrage.
+ */
+public final class RequestMetrics {
+
+    // Latences en microsecondes, de 1 µs à 10 min, précision de 1 %
+    static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private static final ConcurrentMap<String, Operation> OPERATIONS = new ConcurrentHashMap<>();
+
+    private RequestMetrics() {
+    }
+
+    /**
+     * Compteurs et histogramme cumulés d'une opération, copiés à la lecture.
+     */
+    public record Snapshot(String operation, long requests, long clientErrors, long serverErrors,
+                           long responseBytes, long latencySumMicros, Histogram latencyMicros) {
+    }
+
+    /**
+     * Enregistre une requête terminée.
+     *
+     * @param operation méthode de ressource ("EvidenceNodeResource.getAllNodes")
+     * @param status statut HTTP de la réponse
+     * @param elapsedNanos durée, réponse écrite comprise
+     * @param responseBytes taille du corps écrit
+     */
+    public static void record(String operation, int status, long elapsedNanos, long responseBytes) {
+        Operation metrics = OPERATIONS.get(operation);
+        if (metrics == null) {
+            metrics = OPERATIONS.computeIfAbsent(operation, name -> new Operation());
+        }
+        long micros = Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_LATENCY_MICROS));
+        metrics.latency.recordValue(micros);
+        metrics.latencySum.add(micros);
+        metrics.requests.increment();
+        metrics.bytes.add(responseBytes);
+        if (status >= 500) {
+            metrics.serverErrors.increment();
+        } else if (status >= 400) {
+            metrics.clientErrors.increment();
+        }
+    }
+
+    /**
+     * Opérations déjà appelées, par nom.
+     */
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>(OPERATIONS.size());
+        OPERATIONS.forEach((name, metrics) -> snapshots.add(metrics.snapshot(name)));
+        snapshots.sort(Comparator.comparing(Snapshot::operation));
+        return snapshots;
+    }
+
+    private static final class Operation {
+        final Recorder latency = new Recorder(1, HIGHEST_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+        final LongAdder latencySum = new LongAdder();
+        final LongAdder requests = new LongAdder();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        // Accédés sous le verrou de l'opération
+        final Histogram cumulative = new Histogram(1, HIGHEST_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+        Histogram interval;
+
+        synchronized Snapshot snapshot(String name) {
+            interval = latency.getIntervalHistogram(interval);
+            cumulative.add(interval);
+            return new Snapshot(name, requests.sum(), clientErrors.sum(), serverErrors.sum(), bytes.sum(),
+                    latencySum.sum(), cumulative.copy());
+        }
+    }
+}
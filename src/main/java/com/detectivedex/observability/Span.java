@@ -0,0 +1,76 @@
+package com.detectivedex.observability;
+
+import com.detectivedex.dto.SpanView;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Phase chronométrée d'une trace. Identifiants et attributs suivent le modèle OpenTelemetry
+ * (spanId sur 16 caractères hexadécimaux, conventions sémantiques db.*, http.*).
+ *
+ * Hors trace échantillonnée, Tracer rend NOOP, sur lequel tous les appels sont sans effet.
+ */
+public final class Span implements AutoCloseable {
+
+    static final Span NOOP = new Span(null, null, null, null, 0);
+
+    private final Trace trace;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final long startNanos;
+    private long endNanos;
+    private Map<String, Object> attributes;
+
+    Span(Trace trace, String spanId, String parentSpanId, String name, long startNanos) {
+        this.trace = trace;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.startNanos = startNanos;
+    }
+
+    public Span attribute(String key, Object value) {
+        if (trace != null && value != null) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Termine la phase ; sans effet si elle l'est déjà.
+     */
+    public void end() {
+        end(System.nanoTime());
+    }
+
+    void end(long nanos) {
+        if (trace != null && endNanos == 0) {
+            endNanos = nanos;
+            trace.ended(this);
+        }
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+
+    String spanId() {
+        return spanId;
+    }
+
+    long durationNanos() {
+        return (endNanos != 0 ? endNanos : System.nanoTime()) - startNanos;
+    }
+
+    SpanView toView(String traceId, long traceStartEpochNanos, long traceStartNanos) {
+        long start = traceStartEpochNanos + (startNanos - traceStartNanos);
+        return new SpanView(traceId, spanId, parentSpanId, name, start, start + durationNanos(),
+                durationNanos() / 1000, attributes != null ? attributes : Map.of());
+    }
+}
@@ -0,0 +1,131 @@
+package com.detectivedex.observability;
+
+import com.detectivedex.dto.SpanView;
+import com.detectivedex.dto.TraceView;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Trace d'une requête : la phase racine et ses phases imbriquées, ouvertes et fermées sur le
+ * thread de la requête. Au-delà de MAX_SPANS, les nouvelles phases sont comptées mais pas gardées.
+ */
+public final class Trace {
+
+    static final int MAX_SPANS = 512;
+
+    private final String traceId;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private final List<Span> spans = new ArrayList<>();
+    private final Deque<Span> open = new ArrayDeque<>();
+    private final Span root;
+    private String operation;
+    private int dropped;
+
+    Trace(String traceId, String remoteParentSpanId, String name) {
+        this.traceId = traceId;
+        this.startNanos = System.nanoTime();
+        long now = System.currentTimeMillis();
+        this.startEpochNanos = now * 1_000_000;
+        this.root = new Span(this, newSpanId(), remoteParentSpanId, name, startNanos);
+        spans.add(root);
+        open.push(root);
+    }
+
+    public String traceId() {
+        return traceId;
+    }
+
+    public Span root() {
+        return root;
+    }
+
+    /**
+     * Méthode de ressource qui a traité la requête, reprise dans la vue.
+     */
+    public void setOperation(String operation) {
+        this.operation = operation;
+        root.attribute("code.function", operation);
+    }
+
+    String operation() {
+        return operation;
+    }
+
+    /**
+     * Ouvre une phase, fille de la phase ouverte la plus récente.
+     */
+    public Span start(String name) {
+        return add(name, System.nanoTime(), true);
+    }
+
+    /**
+     * Phase déjà terminée, qui a duré durationNanos jusqu'à maintenant.
+     */
+    Span completed(String name, long durationNanos) {
+        long now = System.nanoTime();
+        Span span = add(name, now - durationNanos, false);
+        span.end(now);
+        return span;
+    }
+
+    private Span add(String name, long start, boolean push) {
+        if (spans.size() >= MAX_SPANS) {
+            dropped++;
+            return Span.NOOP;
+        }
+        Span parent = open.peek();
+        Span span = new Span(this, newSpanId(), parent != null ? parent.spanId() : root.spanId(), name, start);
+        spans.add(span);
+        if (push) {
+            open.push(span);
+        }
+        return span;
+    }
+
+    void ended(Span span) {
+        open.remove(span);
+    }
+
+    /**
+     * Termine les phases restées ouvertes puis la racine.
+     */
+    void finish() {
+        long now = System.nanoTime();
+        while (!open.isEmpty()) {
+            open.peek().end(now);
+        }
+    }
+
+    long durationNanos() {
+        return root.durationNanos();
+    }
+
+    public TraceView toView() {
+        List<SpanView> views = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            views.add(span.toView(traceId, startEpochNanos, startNanos));
+        }
+        SpanView rootView = views.get(0);
+        return new TraceView(traceId, rootView.name(), operation, rootView.startTimeUnixNano(),
+                rootView.durationMicros(), dropped, views);
+    }
+
+    static String newSpanId() {
+        return hex(ThreadLocalRandom.current().nextLong(), 16);
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return hex(random.nextLong(), 16) + hex(random.nextLong(), 16);
+    }
+
+    private static String hex(long value, int digits) {
+        String hex = Long.toHexString(value);
+        return "0".repeat(digits - hex.length()) + hex;
+    }
+}
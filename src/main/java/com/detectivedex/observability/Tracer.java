@@ -0,0 +1,115 @@
+package com.detectivedex.observability;
+
+import com.detectivedex.config.AppConfig;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+/**
+ * Traçage des requêtes, échantillonné : une requête sur detectivedex.tracing.sample-rate (0.01 par
+ * défaut) est tracée, ou toute requête dont l'en-tête W3C traceparent demande l'échantillonnage ;
+ * un traceparent non échantillonné n'est jamais tracé. La trace reprend alors l'identifiant de
+ * l'appelant.
+ *
+ * La trace en cours est attachée au thread de la requête ; hors trace, span() rend une phase inerte
+ * et ne coûte qu'une lecture de ThreadLocal. Les traces terminées sont gardées en mémoire, les
+ * RECENT_TRACES dernières, pour /admin/traces.
+ */
+public final class Tracer {
+
+    static final double DEFAULT_SAMPLE_RATE = 0.01;
+    static final int RECENT_TRACES = 256;
+
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+    private static final AtomicReferenceArray<Trace> RECENT = new AtomicReferenceArray<>(RECENT_TRACES);
+    private static final AtomicLong EXPORTED = new AtomicLong();
+
+    private static volatile double sampleRate =
+            QueryLog.rate(AppConfig::get, "detectivedex.tracing.sample-rate", DEFAULT_SAMPLE_RATE);
+
+    private Tracer() {
+    }
+
+    public static boolean isEnabled() {
+        return sampleRate > 0;
+    }
+
+    static void setSampleRate(double rate) {
+        sampleRate = rate;
+    }
+
+    /**
+     * Démarre la trace d'une requête, ou rend null si elle n'est pas échantillonnée.
+     *
+     * @param name nom de la phase racine ("GET /nodes")
+     * @param traceparent en-tête W3C de l'appelant, ou null
+     */
+    public static Trace begin(String name, String traceparent) {
+        if (traceparent != null) {
+            var matcher = TRACEPARENT.matcher(traceparent.trim());
+            if (matcher.matches() && !matcher.group(1).equals(INVALID_TRACE_ID)) {
+                boolean sampled = (Integer.parseInt(matcher.group(3), 16) & 1) != 0;
+                return sampled ? new Trace(matcher.group(1), matcher.group(2), name) : null;
+            }
+        }
+        double rate = sampleRate;
+        if (rate <= 0 || (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+            return null;
+        }
+        return new Trace(Trace.newTraceId(), null, name);
+    }
+
+    public static void attach(Trace trace) {
+        CURRENT.set(trace);
+    }
+
+    /**
+     * Termine la trace, la garde parmi les récentes et la détache du thread.
+     */
+    public static void finish(Trace trace) {
+        trace.finish();
+        RECENT.set((int) (EXPORTED.getAndIncrement() % RECENT_TRACES), trace);
+        if (CURRENT.get() == trace) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Ouvre une phase dans la trace du thread, à fermer par end() ou try-with-resources.
+     */
+    public static Span span(String name) {
+        Trace trace = CURRENT.get();
+        return trace != null ? trace.start(name) : Span.NOOP;
+    }
+
+    /**
+     * Enregistre une phase déjà terminée, qui a duré durationNanos jusqu'à maintenant.
+     */
+    public static Span completed(String name, long durationNanos) {
+        Trace trace = CURRENT.get();
+        return trace != null ? trace.completed(name, durationNanos) : Span.NOOP;
+    }
+
+    /**
+     * Traces récentes les plus lentes, éventuellement limitées à une méthode de ressource.
+     */
+    public static List<Trace> slowest(int limit, String operation) {
+        List<Trace> traces = new ArrayList<>(RECENT_TRACES);
+        for (int i = 0; i < RECENT_TRACES; i++) {
+            Trace trace = RECENT.get(i);
+            if (trace != null && (operation == null || operation.equals(trace.operation()))) {
+                traces.add(trace);
+            }
+        }
+        traces.sort(Comparator.comparingLong(Trace::durationNanos).reversed());
+        return traces.subList(0, Math.min(limit, traces.size()));
+    }
+}
@@ -0,0 +1,23 @@
+package com.detectivedex.persistence;
+
+/**
+ * Base de données utilisée, choisie par detectivedex.db.profile (ou DETECTIVEDEX_DB_PROFILE).
+ */
+public enum DatabaseProfile {
+    /** H2 en mémoire : données perdues à l'arrêt (développement, tests) */
+    MEMORY("org.h2.Driver"),
+    /** H2 embarqué, fichier sur disque (detectivedex.db.file) */
+    FILE("org.h2.Driver"),
+    /** Serveur PostgreSQL (detectivedex.db.url) */
+    POSTGRESQL("org.postgresql.Driver");
+
+    private final String driverClass;
+
+    DatabaseProfile(String driverClass) {
+        this.driverClass = driverClass;
+    }
+
+    public String getDriverClass() {
+        return driverClass;
+    }
+}
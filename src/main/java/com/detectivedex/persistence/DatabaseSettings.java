@@ -0,0 +1,102 @@
+package com.detectivedex.persistence;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Propriétés Hibernate de connexion pour le profil configuré : URL, identifiants et pool HikariCP.
+ *
+ * Clés lues (propriété système, puis variable d'environnement, voir AppConfig) :
+ * detectivedex.db.profile (memory, file, postgresql), detectivedex.db.url, detectivedex.db.file,
+ * detectivedex.db.user, detectivedex.db.password, detectivedex.db.pool-size,
+ * detectivedex.db.connection-timeout (ms).
+ */
+final class DatabaseSettings {
+
+    static final String MEMORY_URL = "jdbc:h2:mem:detectivedex;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    static final String DEFAULT_POSTGRESQL_URL = "jdbc:postgresql://localhost:5432/detectivedex";
+    static final String DEFAULT_FILE = Path.of(System.getProperty("user.home"), ".detectivedex", "detectivedex").toString();
+    // Un pool fixe : au-delà de quelques connexions par cœur, la base sature avant le pool
+    static final int DEFAULT_POOL_SIZE = 10;
+    static final int DEFAULT_CONNECTION_TIMEOUT_MS = 5000;
+    static final String POOL_NAME = "detectivedex";
+
+    private static final String CONNECTION_PROVIDER = ObservedConnectionProvider.class.getName();
+    // Requêtes analysées gardées par session H2 (8 par défaut)
+    private static final String H2_OPTIONS = ";QUERY_CACHE_SIZE=64";
+
+    private DatabaseSettings() {
+    }
+
+    /**
+     * Propriétés à passer à la création de la EntityManagerFactory.
+     *
+     * @param config lecture d'une clé de configuration, null si absente
+     */
+    static Map<String, Object> resolve(Function<String, String> config) {
+        DatabaseProfile profile = profile(config.apply("detectivedex.db.profile"));
+        String url = config.apply("detectivedex.db.url");
+        if (url == null) {
+            url = switch (profile) {
+                case MEMORY -> MEMORY_URL;
+                case FILE -> "jdbc:h2:file:" + valueOr(config.apply("detectivedex.db.file"), DEFAULT_FILE)
+                        + ";DB_CLOSE_ON_EXIT=FALSE" + H2_OPTIONS;
+                case POSTGRESQL -> DEFAULT_POSTGRESQL_URL;
+            };
+        }
+        String defaultUser = profile == DatabaseProfile.POSTGRESQL ? "detectivedex" : "sa";
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.connection.driver_class", profile.getDriverClass());
+        properties.put("hibernate.connection.url", url);
+        properties.put("hibernate.connection.username", valueOr(config.apply("detectivedex.db.user"), defaultUser));
+        properties.put("hibernate.connection.password", valueOr(config.apply("detectivedex.db.password"), ""));
+
+        int poolSize = positive(config, "detectivedex.db.pool-size", DEFAULT_POOL_SIZE);
+        properties.put("hibernate.connection.provider_class", CONNECTION_PROVIDER);
+        properties.put("hibernate.hikari.poolName", POOL_NAME);
+        properties.put("hibernate.hikari.maximumPoolSize", String.valueOf(poolSize));
+        properties.put("hibernate.hikari.minimumIdle", String.valueOf(poolSize));
+        properties.put("hibernate.hikari.connectionTimeout",
+                String.valueOf(positive(config, "detectivedex.db.connection-timeout", DEFAULT_CONNECTION_TIMEOUT_MS)));
+        // Statistiques du pool (connexions actives, inactives, en attente) exposées en JMX
+        properties.put("hibernate.hikari.registerMbeans", "true");
+        if (profile == DatabaseProfile.POSTGRESQL) {
+            // Requêtes préparées côté serveur dès la première exécution et gardées par connexion
+            properties.put("hibernate.hikari.dataSource.prepareThreshold", "1");
+            properties.put("hibernate.hikari.dataSource.preparedStatementCacheQueries", "512");
+            properties.put("hibernate.hikari.dataSource.preparedStatementCacheSizeMiB", "16");
+            properties.put("hibernate.hikari.dataSource.reWriteBatchedInserts", "true");
+        }
+        return properties;
+    }
+
+    private static DatabaseProfile profile(String name) {
+        if (name == null) {
+            return DatabaseProfile.MEMORY;
+        }
+        try {
+            return DatabaseProfile.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unknown detectivedex.db.profile: " + name, e);
+        }
+    }
+
+    private static int positive(Function<String, String> config, String key, int defaultValue) {
+        String value = config.apply(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!value.matches("\\d{1,9}") || Integer.parseInt(value) == 0) {
+            throw new IllegalStateException(key + " must be a positive integer: " + value);
+        }
+        return Integer.parseInt(value);
+    }
+
+    private static String valueOr(String value, String defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,45 @@
+package com.detectivedex.persistence;
+
+import com.detectivedex.config.AppConfig;
+import com.detectivedex.observability.QueryLog;
+import com.detectivedex.observability.QueryTracer;
+import com.detectivedex.observability.Tracer;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.HibernateException;
+import org.hibernate.hikaricp.internal.HikariCPConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Pool HikariCP dont les connexions passent par le journal des requêtes (QueryLog) et le traçage
+ * (QueryTracer). Quand l'un et l'autre sont désactivés, les connexions du pool sont rendues telles quelles.
+ */
+public class ObservedConnectionProvider extends HikariCPConnectionProvider {
+
+    private DataSource observed;
+
+    @Override
+    public void configure(Map<String, Object> props) throws HibernateException {
+        super.configure(props);
+        QueryLog queryLog = QueryLog.configure(AppConfig::get);
+        if (queryLog.isEnabled() || Tracer.isEnabled()) {
+            ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(unwrap(DataSource.class))
+                    .name(DatabaseSettings.POOL_NAME);
+            if (queryLog.isEnabled()) {
+                builder.listener(queryLog);
+            }
+            if (Tracer.isEnabled()) {
+                builder.listener(new QueryTracer());
+            }
+            observed = builder.build();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return observed != null ? observed.getConnection() : super.getConnection();
+    }
+}
@@ -1,9 +1,15 @@
 package com.detectivedex.persistence;
 
+import com.detectivedex.config.AppConfig;
+import com.detectivedex.observability.Span;
+import com.detectivedex.observability.Tracer;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Gestionnaire singleton pour la EntityManagerFactory
  * Assure que toutes les classes utilisent la même instance EMF
@@ -12,7 +18,7 @@ public class PersistenceManager {
     private static EntityManagerFactory emf;
 
     static {
-        emf = Persistence.createEntityManagerFactory("DetectiveDexPU");
+        emf = Persistence.createEntityManagerFactory("DetectiveDexPU", properties());
     }
 
     private PersistenceManager() {
@@ -23,7 +29,23 @@ public class PersistenceManager {
     }
 
     public static EntityManager getEntityManager() {
-        return emf.createEntityManager();
+        try (Span span = Tracer.span("EntityManager.create")) {
+            return emf.createEntityManager();
+        }
+    }
+
+    /**
+     * Connexion et pool du profil configuré (DatabaseSettings), puis les propriétés système hibernate.*
+     * qui surchargent le tout (par exemple -Dhibernate.show_sql=false pour les benchmarks).
+     */
+    private static Map<String, Object> properties() {
+        Map<String, Object> properties = new HashMap<>(DatabaseSettings.resolve(AppConfig::get));
+        System.getProperties().forEach((key, value) -> {
+            if (key.toString().startsWith("hibernate.")) {
+                properties.put(key.toString(), value);
+            }
+        });
+        return properties;
     }
 
     public static void closeEntityManagerFactory() {
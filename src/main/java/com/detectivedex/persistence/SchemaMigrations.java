@@ -0,0 +1,47 @@
+package com.detectivedex.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.Map;
+
+/**
+ * Applique les migrations Flyway (src/main/resources/db/migration) au démarrage de Hibernate,
+ * avant la validation du schéma (hibernate.hbm2ddl.auto=validate) : une base en retard est mise à
+ * jour, un schéma qui ne correspond pas aux entités empêche le démarrage.
+ *
+ * Enregistré via META-INF/services ; la connexion est celle configurée pour Hibernate.
+ */
+public class SchemaMigrations implements Integrator {
+
+    static final String LOCATION = "classpath:db/migration";
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        Map<String, Object> settings = sessionFactory.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSettings();
+        Flyway.configure()
+                .dataSource(setting(settings, AvailableSettings.JAKARTA_JDBC_URL, AvailableSettings.URL),
+                        setting(settings, AvailableSettings.JAKARTA_JDBC_USER, AvailableSettings.USER),
+                        setting(settings, AvailableSettings.JAKARTA_JDBC_PASSWORD, AvailableSettings.PASS))
+                .locations(LOCATION)
+                .load()
+                .migrate();
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    private static String setting(Map<String, Object> settings, String key, String legacyKey) {
+        Object value = settings.containsKey(key) ? settings.get(key) : settings.get(legacyKey);
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.detectivedex.persistence;
+
+import com.detectivedex.observability.Span;
+import com.detectivedex.observability.Tracer;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+
+import java.util.stream.Stream;
+
+/**
+ * Lecture en masse hors contexte de persistance, pour les exports et rapports qui parcourent tout le graphe.
+ *
+ * Une StatelessSession ne garde ni les entités lues, ni leur état pour la détection des modifications, et
+ * ne remplit pas le cache de second niveau : la mémoire ne dépend que des lignes en cours de traitement.
+ * Les requêtes sont parcourues en avant (scroll FORWARD_ONLY) par lots de FETCH_SIZE lignes, dans une
+ * transaction annulée à la fermeture (en auto-commit, le pilote PostgreSQL ignore la taille de lot et
+ * charge tout le résultat). Les associations LAZY des entités lues ne sont pas chargeables :
+ * les lectures passent par des projections ou des champs simples.
+ */
+public final class StatelessRead implements AutoCloseable {
+
+    // Nombre de lignes lues par aller-retour JDBC
+    public static final int FETCH_SIZE = 500;
+
+    private final StatelessSession session;
+
+    private StatelessRead(StatelessSession session) {
+        this.session = session;
+    }
+
+    public static StatelessRead open() {
+        try (Span span = Tracer.span("StatelessSession.open")) {
+            StatelessSession session = PersistenceManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .openStatelessSession();
+            try {
+                session.getTransaction().begin();
+            } catch (RuntimeException e) {
+                session.close();
+                throw e;
+            }
+            return new StatelessRead(session);
+        }
+    }
+
+    /**
+     * Requête HQL en lecture seule avec la taille de lot des lectures en masse, à paramétrer avant stream().
+     */
+    public <T> SelectionQuery<T> query(String hql, Class<T> type) {
+        return session.createSelectionQuery(hql, type)
+                .setReadOnly(true)
+                .setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Résultats d'une requête sans paramètre, parcourus au fil de la lecture ; le flux doit être fermé.
+     */
+    public <T> Stream<T> stream(String hql, Class<T> type) {
+        return query(hql, type).stream();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+        } finally {
+            session.close();
+        }
+    }
+}
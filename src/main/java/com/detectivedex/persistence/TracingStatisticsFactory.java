@@ -0,0 +1,37 @@
+package com.detectivedex.persistence;
+
+import com.detectivedex.observability.Tracer;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistiques Hibernate qui ajoutent à la trace en cours une phase "query" par requête HQL exécutée,
+ * avec son nombre de lignes : l'écart avec les phases "sql" correspondantes est le temps d'hydratation.
+ * Déclarée par hibernate.stats.factory dans persistence.xml.
+ */
+public class TracingStatisticsFactory implements StatisticsFactory {
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new TracingStatistics(sessionFactory);
+    }
+
+    private static final class TracingStatistics extends StatisticsImpl {
+
+        TracingStatistics(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public void queryExecuted(String hql, int rows, long time) {
+            super.queryExecuted(hql, rows, time);
+            Tracer.completed("query", TimeUnit.MILLISECONDS.toNanos(time))
+                    .attribute("db.query.text", hql)
+                    .attribute("db.response.rows", rows);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.detectivedex.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+
+/**
+ * EntityManager et transaction partagés par tout le traitement d'une requête HTTP.
+ *
+ * La requête ouvre son unité (openRequest) ; l'EntityManager n'est créé qu'au premier
+ * entityManager(), puis réutilisé par toutes les ressources appelées, et fermé par closeRequest()
+ * avant l'écriture de la réponse. Une requête GET ou HEAD est en lecture seule : session
+ * Hibernate en lecture seule (pas de copie des états pour la détection des modifications) et
+ * FlushMode.MANUAL, sans transaction. Sinon une transaction est ouverte avec l'EntityManager,
+ * validée par commit() et annulée à la fermeture si elle ne l'a pas été.
+ *
+ * Hors requête (tests, réponses écrites en flux après la fermeture de l'unité, tâches de fond),
+ * read() et write() ouvrent une unité propre à l'appelant, fermée par close().
+ */
+public final class UnitOfWork implements AutoCloseable {
+
+    private static final ThreadLocal<UnitOfWork> REQUEST = new ThreadLocal<>();
+
+    private final boolean readOnly;
+    private final boolean requestScoped;
+    private EntityManager em;
+
+    private UnitOfWork(boolean readOnly, boolean requestScoped) {
+        this.readOnly = readOnly;
+        this.requestScoped = requestScoped;
+    }
+
+    /**
+     * Ouvre l'unité de la requête en cours sur ce thread.
+     */
+    public static void openRequest(boolean readOnly) {
+        closeRequest();
+        REQUEST.set(new UnitOfWork(readOnly, true));
+    }
+
+    /**
+     * Ferme l'unité de la requête : transaction non validée annulée, EntityManager fermé.
+     * Sans effet si elle l'est déjà.
+     */
+    public static void closeRequest() {
+        UnitOfWork unit = REQUEST.get();
+        if (unit != null) {
+            REQUEST.remove();
+            unit.release();
+        }
+    }
+
+    /**
+     * Unité de la requête en cours, ou à défaut une unité en lecture seule propre à l'appelant.
+     */
+    public static UnitOfWork read() {
+        UnitOfWork unit = REQUEST.get();
+        return unit != null ? unit : new UnitOfWork(true, false);
+    }
+
+    /**
+     * Unité de la requête en cours, ou à défaut une unité transactionnelle propre à l'appelant.
+     *
+     * @throws IllegalStateException si la requête en cours est en lecture seule
+     */
+    public static UnitOfWork write() {
+        UnitOfWork unit = REQUEST.get();
+        if (unit == null) {
+            return new UnitOfWork(false, false);
+        }
+        if (unit.readOnly) {
+            throw new IllegalStateException("Write attempted in a read-only request");
+        }
+        return unit;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * EntityManager de l'unité, créé au premier appel ; en écriture, une transaction y est active.
+     */
+    public EntityManager entityManager() {
+        if (em == null) {
+            em = PersistenceManager.getEntityManager();
+            if (readOnly) {
+                Session session = em.unwrap(Session.class);
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+            }
+        }
+        if (!readOnly && !em.getTransaction().isActive()) {
+            em.getTransaction().begin();
+        }
+        return em;
+    }
+
+    /**
+     * Valide la transaction en cours ; elle est annulée si la validation échoue.
+     */
+    public void commit() {
+        if (em == null) {
+            return;
+        }
+        EntityTransaction transaction = em.getTransaction();
+        if (!transaction.isActive()) {
+            return;
+        }
+        try {
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Ferme une unité propre à l'appelant ; l'unité d'une requête reste ouverte jusqu'à closeRequest().
+     */
+    @Override
+    public void close() {
+        if (!requestScoped) {
+            release();
+        }
+    }
+
+    private void release() {
+        if (em == null) {
+            return;
+        }
+        try {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+        } finally {
+            em.close();
+            em = null;
+        }
+    }
+}
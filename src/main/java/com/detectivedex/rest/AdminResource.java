@@ -0,0 +1,95 @@
+package com.detectivedex.rest;
+
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import com.detectivedex.dto.CacheRegionStatistics;
+import com.detectivedex.dto.TraceView;
+import com.detectivedex.observability.Trace;
+import com.detectivedex.observability.Tracer;
+import com.detectivedex.persistence.PersistenceManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Endpoints d'exploitation : état des caches, traces des requêtes récentes
+ */
+@Path("/admin")
+@Produces(MediaType.APPLICATION_JSON)
+public class AdminResource {
+
+    static final int MAX_TRACES = 100;
+
+    /**
+     * Statistiques des régions du cache de second niveau (entités et résultats de requêtes).
+     * Les succès, échecs et écritures viennent de Hibernate, les évictions des statistiques JCache.
+     */
+    @GET
+    @Path("/cache")
+    public Response getCacheStatistics() {
+        Statistics statistics = PersistenceManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        String[] names = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(names);
+        List<CacheRegionStatistics> regions = new ArrayList<>(names.length);
+        for (String name : names) {
+            org.hibernate.stat.CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region == null) {
+                continue;
+            }
+            long hits = region.getHitCount();
+            long misses = region.getMissCount();
+            regions.add(new CacheRegionStatistics(name, hits, misses, region.getPutCount(), evictions(name),
+                    hits + misses == 0 ? 0 : (double) hits / (hits + misses)));
+        }
+        return Response.ok(regions).build();
+    }
+
+    /**
+     * Traces les plus lentes parmi les requêtes récentes échantillonnées (voir Tracer), de la plus lente
+     * à la plus rapide, éventuellement limitées à une méthode de ressource (operation=ReportResource.exportHtmlReport).
+     */
+    @GET
+    @Path("/traces")
+    public Response getSlowestTraces(@QueryParam("limit") @DefaultValue("20") int limit,
+                                     @QueryParam("operation") String operation) {
+        if (limit < 1 || limit > MAX_TRACES) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"limit must be between 1 and " + MAX_TRACES + "\"}")
+                    .build();
+        }
+        List<TraceView> traces = new ArrayList<>();
+        for (Trace trace : Tracer.slowest(limit, operation)) {
+            traces.add(trace.toView());
+        }
+        return Response.ok(traces).build();
+    }
+
+    /**
+     * Évictions lues sur le MBean JCache de la région, ou -1 si les statistiques JCache sont désactivées.
+     */
+    private static long evictions(String region) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            Set<ObjectName> beans = server.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null);
+            long evictions = -1;
+            for (ObjectName bean : beans) {
+                evictions = Math.max(evictions, 0) + (Long) server.getAttribute(bean, "CacheEvictions");
+            }
+            return evictions;
+        } catch (JMException e) {
+            return -1;
+        }
+    }
+}
@@ -1,17 +1,32 @@
 package com.detectivedex.rest;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import com.detectivedex.dto.NodePosition;
+import com.detectivedex.dto.PositionUpdateReport;
 import com.detectivedex.entity.EvidenceNode;
 import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.Relation;
 import com.detectivedex.entity.SeverityLevel;
-import com.detectivedex.persistence.PersistenceManager;
+import com.detectivedex.entity.TimelineEvent;
+import com.detectivedex.graph.ChangeKind;
+import com.detectivedex.graph.ChangeOperation;
+import com.detectivedex.graph.GraphChangeLog;
+import com.detectivedex.graph.SeverityPropagation;
+import com.detectivedex.persistence.UnitOfWork;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Endpoint REST pour la gestion des nœuds de preuve
@@ -21,25 +36,40 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 public class EvidenceNodeResource {
 
-    private EntityManager getEntityManager() {
-        return PersistenceManager.getEntityManager();
-    }
+    // Nœuds par UPDATE groupé (3 paramètres par nœud + la liste IN)
+    static final int POSITION_CHUNK_SIZE = 200;
+
+    private static final KeysetQuery LIST_QUERY = new KeysetQuery("EvidenceNode", "n", "createdAt", Map.ofEntries(
+        Map.entry("id", "n.id"),
+        Map.entry("name", "n.name"),
+        Map.entry("description", "n.description"),
+        Map.entry("nodeType", "n.nodeType"),
+        Map.entry("severity", "n.severity"),
+        Map.entry("positionX", "n.positionX"),
+        Map.entry("positionY", "n.positionY"),
+        Map.entry("color", "n.color"),
+        Map.entry("status", "n.status"),
+        Map.entry("createdAt", "n.createdAt"),
+        Map.entry("updatedAt", "n.updatedAt")
+    ));
 
     /**
-     * Récupère tous les nœuds
+     * Récupère les nœuds, du plus récent au plus ancien.
+     * Paginable par curseur (limit, cursor) et projetable (fields=id,name,...).
      */
     @GET
-    public Response getAllNodes() {
-        EntityManager em = getEntityManager();
-        try {
-            TypedQuery<EvidenceNode> query = em.createQuery(
-                "SELECT n FROM EvidenceNode n ORDER BY n.createdAt DESC",
-                EvidenceNode.class
-            );
-            List<EvidenceNode> nodes = query.getResultList();
-            return Response.ok(nodes).build();
-        } finally {
-            em.close();
+    public Response getAllNodes(@QueryParam("limit") Integer limit,
+                                @QueryParam("cursor") String cursor,
+                                @QueryParam("fields") String fields) {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
+            Response response = LIST_QUERY.list(em, limit, cursor, fields);
+            // Les projections (fields) ne portent que des colonnes : pas de sévérité effective
+            if (response.getEntity() instanceof List<?> items && !items.isEmpty()
+                    && items.get(0) instanceof EvidenceNode) {
+                withEffectiveSeverity(items.stream().map(EvidenceNode.class::cast).toList());
+            }
+            return response;
         }
     }
 
@@ -49,17 +79,16 @@ public class EvidenceNodeResource {
     @GET
     @Path("/{id}")
     public Response getNodeById(@PathParam("id") Long id) {
-        EntityManager em = getEntityManager();
-        try {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
             EvidenceNode node = em.find(EvidenceNode.class, id);
             if (node == null) {
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("{\"error\":\"Node not found\"}")
                         .build();
             }
+            withEffectiveSeverity(List.of(node));
             return Response.ok(node).build();
-        } finally {
-            em.close();
         }
     }
 
@@ -68,28 +97,24 @@ public class EvidenceNodeResource {
      */
     @POST
     public Response createNode(EvidenceNode node) {
-        EntityManager em = getEntityManager();
-        try {
-            em.getTransaction().begin();
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EntityManager em = work.entityManager();
             node.setCreatedAt(LocalDateTime.now());
             node.setUpdatedAt(LocalDateTime.now());
             if (node.getStatus() == null) {
                 node.setStatus("OPEN");
             }
             em.persist(node);
-            em.getTransaction().commit();
+            GraphChangeLog.record(em, ChangeKind.NODE, node.getId(), ChangeOperation.CREATED);
+            work.commit();
+            withEffectiveSeverity(List.of(node));
             return Response.status(Response.Status.CREATED)
                     .entity(node)
                     .build();
         } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\":\"" + e.getMessage() + "\"}")
                     .build();
-        } finally {
-            em.close();
         }
     }
 
@@ -99,12 +124,10 @@ public class EvidenceNodeResource {
     @PUT
     @Path("/{id}")
     public Response updateNode(@PathParam("id") Long id, EvidenceNode updatedNode) {
-        EntityManager em = getEntityManager();
-        try {
-            em.getTransaction().begin();
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EntityManager em = work.entityManager();
             EvidenceNode node = em.find(EvidenceNode.class, id);
             if (node == null) {
-                em.getTransaction().rollback();
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("{\"error\":\"Node not found\"}")
                         .build();
@@ -137,49 +160,135 @@ public class EvidenceNodeResource {
             node.setUpdatedAt(LocalDateTime.now());
 
             em.merge(node);
-            em.getTransaction().commit();
+            GraphChangeLog.record(em, ChangeKind.NODE, node.getId(), ChangeOperation.UPDATED);
+            work.commit();
+            withEffectiveSeverity(List.of(node));
             return Response.ok(node).build();
         } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"" + e.getMessage() + "\"}")
+                    .build();
+        }
+    }
+
+    /**
+     * Met à jour les positions d'un ensemble de nœuds (déplacement d'une sélection, layout automatique).
+     * Un seul UPDATE par lot de POSITION_CHUNK_SIZE nœuds, le tout dans une transaction.
+     * Les ids inconnus sont ignorés et renvoyés dans notFound.
+     */
+    @PATCH
+    @Path("/positions")
+    public Response updatePositions(List<NodePosition> positions) {
+        if (positions == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"A list of positions is required\"}")
+                    .build();
+        }
+        // Pour un même id, la dernière position l'emporte
+        Map<Long, NodePosition> byId = new LinkedHashMap<>();
+        for (NodePosition position : positions) {
+            if (position == null || position.id() == null
+                    || position.positionX() == null || position.positionY() == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"error\":\"Each position requires id, positionX and positionY\"}")
+                        .build();
             }
+            byId.put(position.id(), position);
+        }
+
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EntityManager em = work.entityManager();
+            List<NodePosition> distinct = new ArrayList<>(byId.values());
+            List<Long> notFound = new ArrayList<>();
+            int updated = 0;
+            LocalDateTime now = LocalDateTime.now();
+            for (int from = 0; from < distinct.size(); from += POSITION_CHUNK_SIZE) {
+                List<NodePosition> chunk = distinct.subList(from, Math.min(from + POSITION_CHUNK_SIZE, distinct.size()));
+                updated += updatePositionChunk(em, chunk, now, notFound);
+            }
+            work.commit();
+            return Response.ok(new PositionUpdateReport(updated, notFound)).build();
+        } catch (Exception e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\":\"" + e.getMessage() + "\"}")
                     .build();
-        } finally {
-            em.close();
         }
     }
 
+    /**
+     * Applique un lot de positions par un UPDATE ... SET positionX = CASE n.id WHEN ... END.
+     */
+    private int updatePositionChunk(EntityManager em, List<NodePosition> chunk, LocalDateTime now, List<Long> notFound) {
+        List<Long> ids = chunk.stream().map(NodePosition::id).toList();
+        Set<Long> existing = new HashSet<>(em.createQuery(
+                "SELECT n.id FROM EvidenceNode n WHERE n.id IN :ids", Long.class)
+                .setParameter("ids", ids)
+                .getResultList());
+
+        StringBuilder caseX = new StringBuilder("CASE n.id");
+        StringBuilder caseY = new StringBuilder("CASE n.id");
+        for (int i = 0; i < chunk.size(); i++) {
+            caseX.append(" WHEN :id").append(i).append(" THEN :x").append(i);
+            caseY.append(" WHEN :id").append(i).append(" THEN :y").append(i);
+        }
+        caseX.append(" ELSE n.positionX END");
+        caseY.append(" ELSE n.positionY END");
+
+        Query update = em.createQuery("UPDATE EvidenceNode n SET n.positionX = " + caseX
+                + ", n.positionY = " + caseY + ", n.updatedAt = :now WHERE n.id IN :ids");
+        for (int i = 0; i < chunk.size(); i++) {
+            NodePosition position = chunk.get(i);
+            update.setParameter("id" + i, position.id());
+            update.setParameter("x" + i, position.positionX());
+            update.setParameter("y" + i, position.positionY());
+        }
+        int updated = update.setParameter("now", now)
+                .setParameter("ids", ids)
+                .executeUpdate();
+
+        for (Long id : ids) {
+            if (existing.contains(id)) {
+                GraphChangeLog.record(em, ChangeKind.NODE, id, ChangeOperation.MOVED);
+            } else {
+                notFound.add(id);
+            }
+        }
+        return updated;
+    }
+
     /**
      * Supprime un nœud
      */
     @DELETE
     @Path("/{id}")
     public Response deleteNode(@PathParam("id") Long id) {
-        EntityManager em = getEntityManager();
-        try {
-            em.getTransaction().begin();
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EntityManager em = work.entityManager();
             EvidenceNode node = em.find(EvidenceNode.class, id);
             if (node == null) {
-                em.getTransaction().rollback();
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("{\"error\":\"Node not found\"}")
                         .build();
             }
 
+            // Les relations et événements supprimés en cascade sont journalisés eux aussi
+            for (Relation relation : node.getOutgoingRelations()) {
+                GraphChangeLog.record(em, ChangeKind.RELATION, relation.getId(), ChangeOperation.DELETED);
+            }
+            for (Relation relation : node.getIncomingRelations()) {
+                GraphChangeLog.record(em, ChangeKind.RELATION, relation.getId(), ChangeOperation.DELETED);
+            }
+            for (TimelineEvent event : node.getEvents()) {
+                GraphChangeLog.record(em, ChangeKind.EVENT, event.getId(), ChangeOperation.DELETED);
+            }
             em.remove(node);
-            em.getTransaction().commit();
+            GraphChangeLog.record(em, ChangeKind.NODE, node.getId(), ChangeOperation.DELETED);
+            work.commit();
             return Response.noContent().build();
         } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\":\"" + e.getMessage() + "\"}")
                     .build();
-        } finally {
-            em.close();
         }
     }
 
@@ -189,22 +298,22 @@ public class EvidenceNodeResource {
     @GET
     @Path("/type/{type}")
     public Response getNodesByType(@PathParam("type") String type) {
-        EntityManager em = getEntityManager();
-        try {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
             NodeType nodeType = NodeType.valueOf(type.toUpperCase());
             TypedQuery<EvidenceNode> query = em.createQuery(
                 "SELECT n FROM EvidenceNode n WHERE n.nodeType = :type ORDER BY n.createdAt DESC",
                 EvidenceNode.class
             );
             query.setParameter("type", nodeType);
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
             List<EvidenceNode> nodes = query.getResultList();
+            withEffectiveSeverity(nodes);
             return Response.ok(nodes).build();
         } catch (IllegalArgumentException e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\":\"Invalid node type\"}")
                     .build();
-        } finally {
-            em.close();
         }
     }
 
@@ -214,22 +323,22 @@ public class EvidenceNodeResource {
     @GET
     @Path("/severity/{severity}")
     public Response getNodesBySeverity(@PathParam("severity") String severity) {
-        EntityManager em = getEntityManager();
-        try {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
             SeverityLevel severityLevel = SeverityLevel.valueOf(severity.toUpperCase());
             TypedQuery<EvidenceNode> query = em.createQuery(
                 "SELECT n FROM EvidenceNode n WHERE n.severity = :severity ORDER BY n.createdAt DESC",
                 EvidenceNode.class
             );
             query.setParameter("severity", severityLevel);
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
             List<EvidenceNode> nodes = query.getResultList();
+            withEffectiveSeverity(nodes);
             return Response.ok(nodes).build();
         } catch (IllegalArgumentException e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\":\"Invalid severity level\"}")
                     .build();
-        } finally {
-            em.close();
         }
     }
 
@@ -239,17 +348,29 @@ public class EvidenceNodeResource {
     @GET
     @Path("/status/{status}")
     public Response getNodesByStatus(@PathParam("status") String status) {
-        EntityManager em = getEntityManager();
-        try {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
             TypedQuery<EvidenceNode> query = em.createQuery(
                 "SELECT n FROM EvidenceNode n WHERE n.status = :status ORDER BY n.createdAt DESC",
                 EvidenceNode.class
             );
             query.setParameter("status", status);
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
             List<EvidenceNode> nodes = query.getResultList();
+            withEffectiveSeverity(nodes);
             return Response.ok(nodes).build();
-        } finally {
-            em.close();
+        }
+    }
+
+    /**
+     * Renseigne la sévérité effective des nœuds renvoyés. Un nœud encore absent de l'index
+     * (créé par une transaction concurrente) garde sa sévérité déclarée.
+     */
+    private static void withEffectiveSeverity(List<EvidenceNode> nodes) {
+        SeverityPropagation.Levels levels = SeverityPropagation.levels();
+        for (EvidenceNode node : nodes) {
+            SeverityLevel effective = levels.effective(node.getId());
+            node.setEffectiveSeverity(effective != null ? effective : node.getSeverity());
         }
     }
 }
@@ -0,0 +1,228 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.graph.GraphChange;
+import com.detectivedex.graph.GraphChangeLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Diffuse les modifications du graphe aux abonnés Server-Sent Events de /graph/stream.
+ *
+ * Les modifications publiées par GraphChangeLog sont accumulées puis envoyées par lot à chaque tick,
+ * fusionnées par entité. Chaque abonné a sa propre file bornée, vidée par une tâche d'écriture
+ * (l'envoi Jersey est synchrone) : un client lent ne retarde ni le tick ni les autres abonnés, et
+ * il est déconnecté dès que sa file déborde au lieu de retenir de la mémoire côté serveur.
+ */
+final class GraphEventBroadcaster {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GraphEventBroadcaster.class);
+
+    static final String EVENT_NAME = "graph-changes";
+    static final long TICK_MILLIS = 250;
+    // Événements en file tolérés par abonné, en plus de celui en cours d'écriture, avant déconnexion
+    static final int MAX_PENDING_SENDS = 16;
+    // Au-delà, le lot est remplacé par un événement reset (recharger /graph)
+    static final int MAX_BATCH_CHANGES = 1000;
+    // Commentaire SSE envoyé périodiquement pour garder la connexion ouverte
+    private static final int HEARTBEAT_TICKS = 60;
+
+    private static final GraphEventBroadcaster INSTANCE = new GraphEventBroadcaster();
+
+    // Écritures bloquantes des abonnés ; un thread n'est occupé que tant que sa file n'est pas vide
+    private static final ExecutorService WRITERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "graph-sse-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<GraphChange> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private volatile Sse sse;
+    private ScheduledExecutorService ticker;
+    private int ticksSinceHeartbeat;
+
+    private GraphEventBroadcaster() {
+        GraphChangeLog.addListener(this::onChange);
+    }
+
+    static GraphEventBroadcaster get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Enregistre un nouvel abonné ; le premier abonnement démarre le tick.
+     */
+    void subscribe(SseEventSink sink, Sse sse) {
+        this.sse = sse;
+        subscribers.add(new Subscriber(sink));
+        startTicker();
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private synchronized void startTicker() {
+        if (ticker == null) {
+            ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "graph-sse-broadcaster");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleWithFixedDelay(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void onChange(GraphChange change) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        // Au-delà du plafond, inutile de conserver le détail : le lot sera un reset
+        if (pendingCount.incrementAndGet() <= MAX_BATCH_CHANGES + 1) {
+            pending.add(change);
+        }
+    }
+
+    /**
+     * Vide la file, fusionne les modifications et envoie le lot à chaque abonné.
+     */
+    synchronized void tick() {
+        try {
+            subscribers.removeIf(Subscriber::isClosed);
+            // La file est toujours vidée : une modification ajoutée juste après la remise à zéro du
+            // compteur part à ce tick ou au suivant, jamais oubliée
+            int count = pendingCount.getAndSet(0);
+            Map<String, GraphChange> latest = new LinkedHashMap<>();
+            for (GraphChange change; (change = pending.poll()) != null; ) {
+                latest.put(change.kind() + ":" + change.entityId(), change);
+            }
+            if (latest.isEmpty() && count <= MAX_BATCH_CHANGES) {
+                // Rien de nouveau, ou modifications déjà envoyées au tick précédent
+                if (count == 0 && ++ticksSinceHeartbeat >= HEARTBEAT_TICKS) {
+                    ticksSinceHeartbeat = 0;
+                    broadcast(sse.newEventBuilder().comment("heartbeat").build());
+                }
+                return;
+            }
+            ticksSinceHeartbeat = 0;
+
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("version", GraphChangeLog.version());
+            if (count > MAX_BATCH_CHANGES) {
+                payload.put("reset", true);
+            } else {
+                List<Map<String, Object>> changes = new ArrayList<>(latest.size());
+                for (GraphChange change : latest.values()) {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("version", change.version());
+                    item.put("kind", change.kind());
+                    item.put("id", change.entityId());
+                    item.put("operation", change.operation());
+                    changes.add(item);
+                }
+                payload.put("reset", false);
+                payload.put("changes", changes);
+            }
+
+            // Sérialisé une seule fois pour tous les abonnés
+            String data = JacksonConfig.sharedMapper().writeValueAsString(payload);
+            broadcast(sse.newEventBuilder()
+                    .name(EVENT_NAME)
+                    .id(String.valueOf(payload.get("version")))
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(String.class, data)
+                    .build());
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Une exception interromprait définitivement le tick planifié
+            LOG.warn("Graph change broadcast failed", e);
+        }
+    }
+
+    private void broadcast(OutboundSseEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(event)) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Abonné SSE avec file d'envoi bornée, vidée par une seule tâche d'écriture à la fois.
+     */
+    private static final class Subscriber {
+        private final SseEventSink sink;
+        private final BlockingQueue<OutboundSseEvent> queue = new ArrayBlockingQueue<>(MAX_PENDING_SENDS);
+        private final AtomicBoolean writing = new AtomicBoolean();
+
+        Subscriber(SseEventSink sink) {
+            this.sink = sink;
+        }
+
+        boolean isClosed() {
+            return sink.isClosed();
+        }
+
+        /**
+         * Met l'événement en file sans bloquer ; renvoie false si l'abonné doit être retiré.
+         */
+        boolean offer(OutboundSseEvent event) {
+            if (sink.isClosed()) {
+                return false;
+            }
+            if (!queue.offer(event)) {
+                LOG.info("Closing slow graph stream subscriber ({} events pending)", queue.size());
+                close();
+                return false;
+            }
+            if (writing.compareAndSet(false, true)) {
+                WRITERS.execute(this::drain);
+            }
+            return true;
+        }
+
+        private void drain() {
+            do {
+                try {
+                    for (OutboundSseEvent event; (event = queue.poll()) != null && !sink.isClosed(); ) {
+                        sink.send(event).toCompletableFuture().join();
+                    }
+                } catch (RuntimeException e) {
+                    close();
+                }
+                writing.set(false);
+                // Un événement mis en file juste avant la remise à false n'a relancé aucune tâche
+            } while (!queue.isEmpty() && !sink.isClosed() && writing.compareAndSet(false, true));
+        }
+
+        private void close() {
+            queue.clear();
+            try {
+                sink.close();
+            } catch (RuntimeException e) {
+                LOG.debug("Graph stream subscriber close failed", e);
+            }
+        }
+    }
+}
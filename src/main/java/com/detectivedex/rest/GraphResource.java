@@ -0,0 +1,489 @@
+package com.detectivedex.rest;
+
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import com.detectivedex.dto.EntityDelta;
+import com.detectivedex.dto.GraphAnalytics;
+import com.detectivedex.dto.GraphDelta;
+import com.detectivedex.dto.GraphEdge;
+import com.detectivedex.dto.GraphNeighbourhood;
+import com.detectivedex.dto.GraphNode;
+import com.detectivedex.dto.GraphPath;
+import com.detectivedex.dto.GraphSnapshot;
+import com.detectivedex.dto.NodeScore;
+import com.detectivedex.dto.TimelineEventSummary;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.graph.AdjacencySnapshot;
+import com.detectivedex.graph.Analytics;
+import com.detectivedex.graph.ChangeKind;
+import com.detectivedex.graph.ChangeOperation;
+import com.detectivedex.graph.GraphChange;
+import com.detectivedex.graph.GraphChangeLog;
+import com.detectivedex.graph.GraphIndex;
+import com.detectivedex.graph.Traversal;
+import com.detectivedex.persistence.PersistenceManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Endpoint REST pour la lecture du graphe : instantané complet et modifications incrémentales
+ */
+@Path("/graph")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class GraphResource {
+
+    // Au-delà, le client recharge l'instantané complet plutôt que d'appliquer le delta
+    static final int MAX_DELTA_CHANGES = 10_000;
+
+    // Taille maximale des listes IN lors du rechargement des entités modifiées
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    // Bornes des parcours : profondeur, nombre de nœuds et durée maximale par requête
+    static final int DEFAULT_PATH_DEPTH = 6;
+    static final int MAX_PATH_DEPTH = 12;
+    static final int MAX_PATH_VISITED = 500_000;
+    static final int MAX_NEIGHBOURHOOD_DEPTH = 5;
+    static final int DEFAULT_NEIGHBOURHOOD_LIMIT = 1000;
+    static final int MAX_NEIGHBOURHOOD_LIMIT = 10_000;
+    static final long TRAVERSAL_BUDGET_MILLIS = 250;
+    static final int DEFAULT_ANALYTICS_TOP = 20;
+    static final int MAX_ANALYTICS_TOP = 1000;
+    // Types de nœuds dont le rayon d'impact est calculé par /graph/analytics
+    private static final List<NodeType> BLAST_SOURCE_TYPES = List.of(NodeType.IOC, NodeType.VULNERABILITY);
+
+    private EntityManager getEntityManager() {
+        return PersistenceManager.getEntityManager();
+    }
+
+    /**
+     * Renvoie les nœuds (projetés), les arêtes (paires d'ids) et la version du graphe.
+     * Si l'ETag envoyé dans If-None-Match correspond à la version courante, renvoie 304.
+     */
+    @GET
+    public Response getGraph(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        // La version est lue avant les données : au pire l'instantané est plus récent que son ETag
+        long version = GraphChangeLog.version();
+        EntityTag etag = new EntityTag(GraphChangeLog.etag(version));
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+
+        if (matches(ifNoneMatch, etag)) {
+            return Response.notModified(etag).cacheControl(cacheControl).build();
+        }
+
+        EntityManager em = getEntityManager();
+        try {
+            em.getTransaction().begin();
+            List<GraphNode> nodes = em.createQuery(
+                "SELECT " + GraphNode.SELECT_EXPRESSION + " FROM EvidenceNode n ORDER BY n.id",
+                GraphNode.class
+            ).getResultList();
+            List<GraphEdge> edges = em.createQuery(
+                "SELECT " + GraphEdge.SELECT_EXPRESSION + " FROM Relation r ORDER BY r.id",
+                GraphEdge.class
+            ).getResultList();
+            em.getTransaction().commit();
+
+            return Response.ok(new GraphSnapshot(version, nodes, edges))
+                    .tag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"error\":\"" + e.getMessage() + "\"}")
+                    .build();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Renvoie les nœuds, relations et événements créés, modifiés ou supprimés depuis la version since.
+     * Plusieurs modifications d'une même entité sont fusionnées : seule la dernière compte.
+     */
+    @GET
+    @Path("/changes")
+    public Response getChanges(@QueryParam("since") Long since) {
+        if (since == null || since < 0) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"Parameter since is required\"}")
+                    .build();
+        }
+        long version = GraphChangeLog.version();
+        if (since > version || version - since > MAX_DELTA_CHANGES) {
+            return Response.ok(GraphDelta.reset(since, version)).build();
+        }
+
+        Map<ChangeKind, Map<Long, ChangeOperation>> latest = new LinkedHashMap<>();
+        for (ChangeKind kind : ChangeKind.values()) {
+            latest.put(kind, new LinkedHashMap<>());
+        }
+        for (GraphChange change : GraphChangeLog.changesBetween(since, version)) {
+            latest.get(change.kind()).put(change.entityId(), change.operation());
+        }
+
+        EntityManager em = getEntityManager();
+        try {
+            em.getTransaction().begin();
+            GraphDelta delta = new GraphDelta(since, version, false,
+                delta(em, latest.get(ChangeKind.NODE),
+                    "SELECT " + GraphNode.SELECT_EXPRESSION + " FROM EvidenceNode n WHERE n.id IN :ids",
+                    GraphNode.class),
+                delta(em, latest.get(ChangeKind.RELATION),
+                    "SELECT " + GraphEdge.SELECT_EXPRESSION + " FROM Relation r WHERE r.id IN :ids",
+                    GraphEdge.class),
+                delta(em, latest.get(ChangeKind.EVENT),
+                    "SELECT " + TimelineEventSummary.SELECT_EXPRESSION + " FROM TimelineEvent e WHERE e.id IN :ids",
+                    TimelineEventSummary.class));
+            em.getTransaction().commit();
+            return Response.ok(delta).build();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"error\":\"" + e.getMessage() + "\"}")
+                    .build();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Arêtes incidentes à un nœud, lues dans l'index d'adjacence en mémoire (sans requête).
+     * direction : out (sortantes), in (entrantes) ou both (par défaut).
+     */
+    @GET
+    @Path("/edges/{nodeId}")
+    public Response getEdges(@PathParam("nodeId") Long nodeId,
+                             @QueryParam("direction") @DefaultValue("both") String direction) {
+        boolean outgoing = direction.equals("out") || direction.equals("both");
+        boolean incoming = direction.equals("in") || direction.equals("both");
+        if (!outgoing && !incoming) {
+            return badRequest("Invalid direction: " + direction);
+        }
+        AdjacencySnapshot graph = GraphIndex.snapshot();
+        int node = graph.nodeIndex(nodeId);
+        if (node < 0) {
+            return nodeNotFound();
+        }
+        List<GraphEdge> edges = new ArrayList<>(
+                (outgoing ? graph.outDegree(node) : 0) + (incoming ? graph.inDegree(node) : 0));
+        if (outgoing) {
+            for (int p = graph.outStart(node); p < graph.outEnd(node); p++) {
+                edges.add(edge(graph, graph.outEdgeAt(p)));
+            }
+        }
+        if (incoming) {
+            for (int p = graph.inStart(node); p < graph.inEnd(node); p++) {
+                edges.add(edge(graph, graph.inEdgeAt(p)));
+            }
+        }
+        return Response.ok(edges).build();
+    }
+
+    /**
+     * Plus court chemin de from vers to, en suivant le sens des relations (directed=false pour l'ignorer).
+     * Par défaut en nombre de sauts (BFS bidirectionnel) ; weighted=true privilégie les relations
+     * confirmées et de forte confiance. Le parcours est borné en profondeur, en nœuds visités et en durée.
+     */
+    @GET
+    @Path("/paths")
+    public Response getPath(@QueryParam("from") Long from,
+                            @QueryParam("to") Long to,
+                            @QueryParam("maxDepth") Integer maxDepth,
+                            @QueryParam("weighted") boolean weighted,
+                            @QueryParam("directed") @DefaultValue("true") boolean directed) {
+        if (from == null || to == null) {
+            return badRequest("Parameters from and to are required");
+        }
+        int depth = maxDepth == null ? DEFAULT_PATH_DEPTH : maxDepth;
+        if (depth < 1 || depth > MAX_PATH_DEPTH) {
+            return badRequest("maxDepth must be between 1 and " + MAX_PATH_DEPTH);
+        }
+        AdjacencySnapshot graph = GraphIndex.snapshot();
+        int source = graph.nodeIndex(from);
+        int target = graph.nodeIndex(to);
+        if (source < 0 || target < 0) {
+            return nodeNotFound();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TRAVERSAL_BUDGET_MILLIS);
+        Traversal.PathResult path = weighted
+                ? Traversal.cheapestPath(graph, source, target, depth, directed, MAX_PATH_VISITED, deadline)
+                : Traversal.shortestPath(graph, source, target, depth, directed, MAX_PATH_VISITED, deadline);
+
+        EntityManager em = getEntityManager();
+        try {
+            List<GraphNode> nodes = loadNodes(em, graph, path.nodes());
+            List<GraphEdge> edges = new ArrayList<>(path.edges().length);
+            for (int edge : path.edges()) {
+                edges.add(edge(graph, edge));
+            }
+            return Response.ok(new GraphPath(from, to, path.outcome(), path.edges().length, path.cost(), nodes, edges))
+                    .build();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Nœuds et arêtes à au plus depth sauts de id. direction : out, in ou both (par défaut).
+     * Au-delà de limit nœuds ou du budget de temps, le résultat partiel est renvoyé avec son outcome.
+     */
+    @GET
+    @Path("/neighbourhood/{id}")
+    public Response getNeighbourhood(@PathParam("id") Long id,
+                                     @QueryParam("depth") @DefaultValue("1") int depth,
+                                     @QueryParam("direction") @DefaultValue("both") String direction,
+                                     @QueryParam("limit") Integer limit) {
+        boolean outgoing = direction.equals("out") || direction.equals("both");
+        boolean incoming = direction.equals("in") || direction.equals("both");
+        if (!outgoing && !incoming) {
+            return badRequest("Invalid direction: " + direction);
+        }
+        if (depth < 1 || depth > MAX_NEIGHBOURHOOD_DEPTH) {
+            return badRequest("depth must be between 1 and " + MAX_NEIGHBOURHOOD_DEPTH);
+        }
+        int maxNodes = limit == null ? DEFAULT_NEIGHBOURHOOD_LIMIT : limit;
+        if (maxNodes < 1 || maxNodes > MAX_NEIGHBOURHOOD_LIMIT) {
+            return badRequest("limit must be between 1 and " + MAX_NEIGHBOURHOOD_LIMIT);
+        }
+        return neighbourhood(id, depth, outgoing, incoming, maxNodes);
+    }
+
+    /**
+     * Classements des nœuds (degré, PageRank, betweenness sur la plus grande composante), composantes
+     * connexes et rayon d'impact des IOC et vulnérabilités. Calculé en parallèle sur l'index
+     * d'adjacence et conservé tant que le graphe ne change pas.
+     */
+    @GET
+    @Path("/analytics")
+    public Response getAnalytics(@QueryParam("top") Integer top) {
+        int size = top == null ? DEFAULT_ANALYTICS_TOP : top;
+        if (size < 1 || size > MAX_ANALYTICS_TOP) {
+            return badRequest("top must be between 1 and " + MAX_ANALYTICS_TOP);
+        }
+        AdjacencySnapshot graph = GraphIndex.snapshot();
+        Analytics.Result result = Analytics.of(graph, this::blastSourceIds);
+
+        int[] sources = result.blastSources();
+        int[] radius = result.blastRadius();
+        return Response.ok(new GraphAnalytics(
+                graph.version(),
+                graph.nodeCount(),
+                graph.edgeCount(),
+                result.componentCount(),
+                result.largestComponentSize(),
+                result.betweennessSampled(),
+                result.blastRadiusTruncated(),
+                result.computeMillis(),
+                top(graph, graph.nodeCount(), size, node -> node, node -> result.degree()[node]),
+                top(graph, graph.nodeCount(), size, node -> node, node -> result.pageRank()[node]),
+                top(graph, graph.nodeCount(), size, node -> node, node -> result.betweenness()[node]),
+                top(graph, sources.length, size, i -> sources[i], i -> radius[i])
+        )).build();
+    }
+
+    /**
+     * Rayon d'impact d'un nœud : tout ce qui est atteignable en aval (arêtes sortantes), avec la distance.
+     */
+    @GET
+    @Path("/blast-radius/{id}")
+    public Response getBlastRadius(@PathParam("id") Long id, @QueryParam("limit") Integer limit) {
+        int maxNodes = limit == null ? MAX_NEIGHBOURHOOD_LIMIT : limit;
+        if (maxNodes < 1 || maxNodes > MAX_NEIGHBOURHOOD_LIMIT) {
+            return badRequest("limit must be between 1 and " + MAX_NEIGHBOURHOOD_LIMIT);
+        }
+        return neighbourhood(id, Integer.MAX_VALUE, true, false, maxNodes);
+    }
+
+    /**
+     * Flux Server-Sent Events des modifications du graphe, envoyées par lots fusionnés.
+     * Chaque événement "graph-changes" porte la version atteinte et la liste des entités touchées ;
+     * le client peut ensuite appeler /graph/changes pour récupérer leur état.
+     */
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void stream(@Context SseEventSink sink, @Context Sse sse) {
+        GraphEventBroadcaster.get().subscribe(sink, sse);
+    }
+
+    /**
+     * Sépare suppressions et mises à jour, puis relit l'état courant des entités mises à jour.
+     */
+    private <T> EntityDelta<T> delta(EntityManager em, Map<Long, ChangeOperation> changes, String jpql, Class<T> type) {
+        List<Long> deleted = new ArrayList<>();
+        List<Long> upsertedIds = new ArrayList<>();
+        changes.forEach((id, operation) -> {
+            if (operation == ChangeOperation.DELETED) {
+                deleted.add(id);
+            } else {
+                upsertedIds.add(id);
+            }
+        });
+
+        List<T> upserted = new ArrayList<>(upsertedIds.size());
+        for (int from = 0; from < upsertedIds.size(); from += IN_CHUNK_SIZE) {
+            Collection<Long> chunk = upsertedIds.subList(from, Math.min(from + IN_CHUNK_SIZE, upsertedIds.size()));
+            upserted.addAll(em.createQuery(jpql, type).setParameter("ids", chunk).getResultList());
+        }
+        return new EntityDelta<>(upserted, deleted);
+    }
+
+    private Response neighbourhood(Long id, int depth, boolean outgoing, boolean incoming, int maxNodes) {
+        AdjacencySnapshot graph = GraphIndex.snapshot();
+        int center = graph.nodeIndex(id);
+        if (center < 0) {
+            return nodeNotFound();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TRAVERSAL_BUDGET_MILLIS);
+        Traversal.NeighbourhoodResult result = Traversal.neighbourhood(
+                graph, center, depth, outgoing, incoming, maxNodes, deadline);
+
+        EntityManager em = getEntityManager();
+        try {
+            List<GraphNode> nodes = loadNodes(em, graph, result.nodes());
+            Map<Long, Integer> distances = new LinkedHashMap<>();
+            int reached = 0;
+            for (int i = 0; i < result.nodes().length; i++) {
+                distances.put(graph.nodeId(result.nodes()[i]), result.distances()[i]);
+                reached = Math.max(reached, result.distances()[i]);
+            }
+            List<GraphEdge> edges = new ArrayList<>(result.edges().length);
+            for (int edge : result.edges()) {
+                // Une arête vers un nœud écarté par la limite n'est pas renvoyée
+                if (distances.containsKey(graph.nodeId(graph.edgeSource(edge)))
+                        && distances.containsKey(graph.nodeId(graph.edgeTarget(edge)))) {
+                    edges.add(edge(graph, edge));
+                }
+            }
+            // Sans limite de profondeur (rayon d'impact), la profondeur renvoyée est celle atteinte
+            int reportedDepth = depth == Integer.MAX_VALUE ? reached : depth;
+            return Response.ok(new GraphNeighbourhood(id, reportedDepth, result.outcome(), nodes, distances, edges))
+                    .build();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Projections GraphNode des nœuds d'index donnés, dans le même ordre (requêtes IN par lots).
+     */
+    private List<GraphNode> loadNodes(EntityManager em, AdjacencySnapshot graph, int[] indexes) {
+        List<Long> ids = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            ids.add(graph.nodeId(index));
+        }
+        Map<Long, GraphNode> byId = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            Collection<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+            for (GraphNode node : em.createQuery(
+                    "SELECT " + GraphNode.SELECT_EXPRESSION + " FROM EvidenceNode n WHERE n.id IN :ids", GraphNode.class)
+                    .setParameter("ids", chunk)
+                    .getResultList()) {
+                byId.put(node.id(), node);
+            }
+        }
+        List<GraphNode> nodes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            GraphNode node = byId.get(id);
+            if (node != null) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
+
+    private long[] blastSourceIds() {
+        EntityManager em = getEntityManager();
+        try {
+            return em.createQuery("SELECT n.id FROM EvidenceNode n WHERE n.nodeType IN :types", Long.class)
+                    .setParameter("types", BLAST_SOURCE_TYPES)
+                    .getResultStream()
+                    .mapToLong(Long::longValue)
+                    .toArray();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Les size meilleurs scores parmi count candidats (tas borné), par score décroissant.
+     */
+    private static List<NodeScore> top(AdjacencySnapshot graph, int count, int size,
+                                       IntUnaryOperator nodeOf, IntToDoubleFunction scoreOf) {
+        PriorityQueue<Integer> best = new PriorityQueue<>(size + 1,
+                (a, b) -> Double.compare(scoreOf.applyAsDouble(a), scoreOf.applyAsDouble(b)));
+        for (int i = 0; i < count; i++) {
+            best.add(i);
+            if (best.size() > size) {
+                best.poll();
+            }
+        }
+        List<NodeScore> scores = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            int i = best.poll();
+            scores.add(new NodeScore(graph.nodeId(nodeOf.applyAsInt(i)), scoreOf.applyAsDouble(i)));
+        }
+        Collections.reverse(scores);
+        return scores;
+    }
+
+    private static Response badRequest(String message) {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"" + message + "\"}")
+                .build();
+    }
+
+    private static Response nodeNotFound() {
+        return Response.status(Response.Status.NOT_FOUND)
+                .entity("{\"error\":\"Node not found\"}")
+                .build();
+    }
+
+    private static GraphEdge edge(AdjacencySnapshot graph, int edge) {
+        return new GraphEdge(graph.edgeId(edge), graph.nodeId(graph.edgeSource(edge)),
+                graph.nodeId(graph.edgeTarget(edge)), graph.relationType(edge));
+    }
+
+    private static boolean matches(String ifNoneMatch, EntityTag etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals("\"" + etag.getValue() + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,358 @@
+package com.detectivedex.rest;
+
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import com.detectivedex.dto.ImportReport;
+import com.detectivedex.dto.ImportReport.RecordError;
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.Relation;
+import com.detectivedex.entity.SeverityLevel;
+import com.detectivedex.entity.TimelineEvent;
+import com.detectivedex.graph.ChangeKind;
+import com.detectivedex.graph.ChangeOperation;
+import com.detectivedex.graph.GraphChangeLog;
+import com.detectivedex.persistence.PersistenceManager;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Endpoint REST pour l'import en masse de nœuds, relations et événements.
+ *
+ * Le corps est un tableau JSON ou du NDJSON (un objet par ligne), lu en flux. Chaque enregistrement
+ * porte un champ "type" (node, relation, event). Un nœud peut déclarer une référence temporaire "ref" ;
+ * les champs source, target (relation) et node (event) acceptent soit cette référence (chaîne),
+ * soit l'id d'un nœud existant (nombre).
+ *
+ * Les enregistrements sont persistés par lots dans une transaction par bloc de CHUNK_SIZE ;
+ * un enregistrement invalide est signalé sans interrompre l'import.
+ */
+@Path("/import")
+@Produces(MediaType.APPLICATION_JSON)
+public class ImportResource {
+
+    static final String NDJSON = "application/x-ndjson";
+    // Enregistrements par transaction
+    static final int CHUNK_SIZE = 1000;
+    // Doit rester aligné sur hibernate.jdbc.batch_size
+    static final int FLUSH_SIZE = 50;
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private EntityManager getEntityManager() {
+        return PersistenceManager.getEntityManager();
+    }
+
+    /**
+     * Importe un tableau JSON d'enregistrements
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response importJson(InputStream body) {
+        return importRecords(body);
+    }
+
+    /**
+     * Importe un flux NDJSON d'enregistrements
+     */
+    @POST
+    @Consumes(NDJSON)
+    public Response importNdjson(InputStream body) {
+        return importRecords(body);
+    }
+
+    private Response importRecords(InputStream body) {
+        ImportRun run = new ImportRun();
+        try (JsonParser parser = JacksonConfig.sharedMapper().createParser(body)) {
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"error\":\"Empty import payload\"}")
+                        .build();
+            }
+            if (first == JsonToken.START_ARRAY) {
+                // Tableau racine : lecture élément par élément jusqu'à END_ARRAY
+                parser.nextToken();
+            }
+            // Sinon les objets racine sont lus à la suite (NDJSON)
+            Iterator<JsonNode> records = JacksonConfig.sharedMapper().readValues(parser, JsonNode.class);
+
+            List<JsonNode> chunk = new ArrayList<>(CHUNK_SIZE);
+            try {
+                while (records.hasNext()) {
+                    chunk.add(records.next());
+                    if (chunk.size() == CHUNK_SIZE) {
+                        run.processChunk(chunk);
+                        chunk.clear();
+                    }
+                }
+            } catch (RuntimeException e) {
+                // MappingIterator enveloppe les erreurs de syntaxe : l'import s'arrête à cet endroit
+                run.error(run.received + chunk.size(), null, "Malformed JSON: " + rootMessage(e));
+            }
+            run.processChunk(chunk);
+        } catch (JsonProcessingException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"Malformed JSON\"}")
+                    .build();
+        } catch (IOException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"" + e.getMessage() + "\"}")
+                    .build();
+        }
+        return Response.ok(run.report()).build();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof JsonProcessingException
+                ? ((JsonProcessingException) cause).getOriginalMessage()
+                : String.valueOf(cause.getMessage());
+    }
+
+    /**
+     * Enregistrement rejeté lors de sa validation.
+     */
+    private static final class InvalidRecordException extends Exception {
+        InvalidRecordException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * État d'un import : références résolues, compteurs et erreurs.
+     */
+    private final class ImportRun {
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Long> refs = new LinkedHashMap<>();
+        private final Set<Long> knownNodeIds = new HashSet<>();
+        private final List<RecordError> errors = new ArrayList<>();
+        private int received;
+        private int nodes;
+        private int relations;
+        private int events;
+        private int failed;
+
+        void processChunk(List<JsonNode> chunk) {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            int firstIndex = received;
+            received += chunk.size();
+            Map<String, Long> chunkRefs = new HashMap<>();
+            List<RecordError> chunkErrors = new ArrayList<>();
+            int chunkNodes = 0;
+            int chunkRelations = 0;
+            int chunkEvents = 0;
+
+            EntityManager em = getEntityManager();
+            try {
+                em.getTransaction().begin();
+                loadExistingNodeIds(em, chunk);
+                int pendingWrites = 0;
+                for (int i = 0; i < chunk.size(); i++) {
+                    JsonNode record = chunk.get(i);
+                    try {
+                        String type = text(record, "type");
+                        if ("node".equals(type)) {
+                            EvidenceNode node = toNode(record);
+                            String ref = text(record, "ref");
+                            if (ref != null && (refs.containsKey(ref) || chunkRefs.containsKey(ref))) {
+                                throw new InvalidRecordException("Duplicate ref: " + ref);
+                            }
+                            em.persist(node);
+                            GraphChangeLog.record(em, ChangeKind.NODE, node.getId(), ChangeOperation.CREATED);
+                            if (ref != null) {
+                                chunkRefs.put(ref, node.getId());
+                            }
+                            chunkNodes++;
+                        } else if ("relation".equals(type)) {
+                            Relation relation = toRelation(em, record, chunkRefs);
+                            em.persist(relation);
+                            GraphChangeLog.record(em, ChangeKind.RELATION, relation.getId(), ChangeOperation.CREATED);
+                            chunkRelations++;
+                        } else if ("event".equals(type)) {
+                            TimelineEvent event = toEvent(em, record, chunkRefs);
+                            em.persist(event);
+                            GraphChangeLog.record(em, ChangeKind.EVENT, event.getId(), ChangeOperation.CREATED);
+                            chunkEvents++;
+                        } else {
+                            throw new InvalidRecordException("Unknown record type: " + type);
+                        }
+                    } catch (InvalidRecordException e) {
+                        chunkErrors.add(new RecordError(firstIndex + i, text(record, "ref"), e.getMessage()));
+                        continue;
+                    }
+                    if (++pendingWrites % FLUSH_SIZE == 0) {
+                        em.flush();
+                        em.clear();
+                    }
+                }
+                em.getTransaction().commit();
+
+                refs.putAll(chunkRefs);
+                knownNodeIds.addAll(chunkRefs.values());
+                nodes += chunkNodes;
+                relations += chunkRelations;
+                events += chunkEvents;
+                failed += chunkErrors.size();
+                for (RecordError error : chunkErrors) {
+                    error(error);
+                }
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                failed += chunk.size();
+                error(firstIndex, null, "Chunk of " + chunk.size() + " records rolled back: " + rootMessage(e));
+            } finally {
+                em.close();
+            }
+        }
+
+        void error(int index, String ref, String message) {
+            error(new RecordError(index, ref, message));
+        }
+
+        private void error(RecordError error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        ImportReport report() {
+            long durationMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+            return new ImportReport(received, nodes, relations, events, failed, errors, refs,
+                    durationMs, received * 1000L / durationMs);
+        }
+
+        /**
+         * Vérifie en une requête l'existence des nœuds référencés par id dans le bloc.
+         */
+        private void loadExistingNodeIds(EntityManager em, List<JsonNode> chunk) {
+            Set<Long> ids = new HashSet<>();
+            for (JsonNode record : chunk) {
+                for (String field : new String[] {"source", "target", "node"}) {
+                    JsonNode value = record.get(field);
+                    if (value != null && value.isIntegralNumber() && !knownNodeIds.contains(value.asLong())) {
+                        ids.add(value.asLong());
+                    }
+                }
+            }
+            if (!ids.isEmpty()) {
+                knownNodeIds.addAll(em.createQuery(
+                        "SELECT n.id FROM EvidenceNode n WHERE n.id IN :ids", Long.class)
+                        .setParameter("ids", ids)
+                        .getResultList());
+            }
+        }
+
+        private EvidenceNode resolveNode(EntityManager em, JsonNode record, String field,
+                                         Map<String, Long> chunkRefs) throws InvalidRecordException {
+            JsonNode value = record.get(field);
+            Long id = null;
+            if (value != null && value.isIntegralNumber()) {
+                id = knownNodeIds.contains(value.asLong()) ? value.asLong() : null;
+            } else if (value != null && value.isTextual()) {
+                id = chunkRefs.containsKey(value.asText()) ? chunkRefs.get(value.asText()) : refs.get(value.asText());
+            }
+            if (id == null) {
+                throw new InvalidRecordException("Unknown node for " + field + ": " + value);
+            }
+            // Référence sans SELECT : l'existence a déjà été vérifiée
+            return em.getReference(EvidenceNode.class, id);
+        }
+
+        private EvidenceNode toNode(JsonNode record) throws InvalidRecordException {
+            EvidenceNode node = new EvidenceNode(
+                    required(record, "name"),
+                    parseEnum(NodeType.class, required(record, "nodeType")),
+                    parseEnum(SeverityLevel.class, required(record, "severity")));
+            node.setDescription(text(record, "description"));
+            if (text(record, "status") != null) {
+                node.setStatus(text(record, "status"));
+            }
+            if (record.hasNonNull("positionX")) {
+                node.setPositionX(record.get("positionX").asDouble());
+            }
+            if (record.hasNonNull("positionY")) {
+                node.setPositionY(record.get("positionY").asDouble());
+            }
+            if (text(record, "color") != null) {
+                node.setColor(text(record, "color"));
+            }
+            return node;
+        }
+
+        private Relation toRelation(EntityManager em, JsonNode record, Map<String, Long> chunkRefs)
+                throws InvalidRecordException {
+            Relation relation = new Relation(
+                    resolveNode(em, record, "source", chunkRefs),
+                    resolveNode(em, record, "target", chunkRefs),
+                    required(record, "relationType"));
+            relation.setDescription(text(record, "description"));
+            relation.setConfidence(text(record, "confidence"));
+            if (record.hasNonNull("confirmed")) {
+                relation.setConfirmed(record.get("confirmed").asBoolean());
+            }
+            return relation;
+        }
+
+        private TimelineEvent toEvent(EntityManager em, JsonNode record, Map<String, Long> chunkRefs)
+                throws InvalidRecordException {
+            LocalDateTime eventDate;
+            try {
+                eventDate = LocalDateTime.parse(required(record, "eventDate"));
+            } catch (RuntimeException e) {
+                throw new InvalidRecordException("Invalid eventDate: " + text(record, "eventDate"));
+            }
+            TimelineEvent event = new TimelineEvent(
+                    resolveNode(em, record, "node", chunkRefs),
+                    required(record, "title"),
+                    eventDate,
+                    text(record, "eventType"));
+            event.setDescription(text(record, "description"));
+            event.setEvidence(text(record, "evidence"));
+            return event;
+        }
+    }
+
+    private static String text(JsonNode record, String field) {
+        JsonNode value = record.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String required(JsonNode record, String field) throws InvalidRecordException {
+        String value = text(record, field);
+        if (value == null || value.isBlank()) {
+            throw new InvalidRecordException("Missing field: " + field);
+        }
+        return value;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) throws InvalidRecordException {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRecordException("Invalid " + type.getSimpleName() + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.detectivedex.rest;
+
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import com.detectivedex.dto.IocLookupReport;
+import com.detectivedex.dto.IocLookupResult;
+import com.detectivedex.ioc.Indicator;
+import com.detectivedex.ioc.Indicators;
+import com.detectivedex.ioc.IocIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Endpoint REST de recherche d'indicateurs de compromission en masse
+ */
+@Path("/ioc")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class IocResource {
+
+    static final int MAX_INDICATORS = 10_000;
+
+    /**
+     * Recherche une liste d'indicateurs (hash, IP, bloc CIDR, domaine, URL, email, formes défangées
+     * acceptées) dans les nœuds IOC et les preuves des événements. Une IPv4 retrouve aussi les blocs
+     * CIDR qui la contiennent, un bloc les adresses qu'il contient.
+     */
+    @POST
+    @Path("/lookup")
+    public Response lookup(List<String> indicators) {
+        if (indicators == null || indicators.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"At least one indicator is required\"}")
+                    .build();
+        }
+        if (indicators.size() > MAX_INDICATORS) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"At most " + MAX_INDICATORS + " indicators per request\"}")
+                    .build();
+        }
+
+        long start = System.nanoTime();
+        List<Indicator> parsed = new ArrayList<>(indicators.size());
+        for (String indicator : indicators) {
+            parsed.add(Indicators.parse(indicator));
+        }
+        List<IocIndex.Match> matches = IocIndex.lookup(parsed);
+
+        List<IocLookupResult> results = new ArrayList<>(indicators.size());
+        int found = 0;
+        for (int i = 0; i < indicators.size(); i++) {
+            Indicator indicator = parsed.get(i);
+            IocIndex.Match match = matches.get(i);
+            if (indicator == null) {
+                results.add(new IocLookupResult(indicators.get(i), null, null, false, List.of(), List.of()));
+                continue;
+            }
+            if (match.found()) {
+                found++;
+            }
+            results.add(new IocLookupResult(indicators.get(i), indicator.type(), indicator.value(), match.found(),
+                    List.copyOf(match.nodeIds()), List.copyOf(match.eventIds())));
+        }
+        long tookMicros = (System.nanoTime() - start) / 1000;
+        return Response.ok(new IocLookupReport(indicators.size(), found, tookMicros, results)).build();
+    }
+}
@@ -8,16 +8,24 @@ import jakarta.ws.rs.ext.Provider;
 
 @Provider
 public class JacksonConfig implements ContextResolver<ObjectMapper> {
-    private final ObjectMapper mapper;
+    private static final ObjectMapper MAPPER = createMapper();
 
-    public JacksonConfig() {
-        mapper = new ObjectMapper();
+    private static ObjectMapper createMapper() {
+        ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+
+    /**
+     * ObjectMapper partagé, pour les sérialisations faites hors des MessageBodyWriter de Jersey
+     */
+    static ObjectMapper sharedMapper() {
+        return MAPPER;
     }
 
     @Override
     public ObjectMapper getContext(Class<?> type) {
-        return mapper;
+        return MAPPER;
     }
 }
@@ -0,0 +1,174 @@
+package com.detectivedex.rest;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.ws.rs.core.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lecture paginée par curseur (keyset) sur le couple (date de tri, id) pour les endpoints de liste,
+ * avec projection optionnelle des champs retournés.
+ *
+ * Sans limit, cursor ni fields, la liste complète des entités est renvoyée comme auparavant.
+ * Lorsqu'une page suivante existe, son curseur est renvoyé dans l'en-tête X-Next-Cursor.
+ */
+final class KeysetQuery {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    private final String entityName;
+    private final String alias;
+    private final String joins;
+    private final String sortField;
+    private final String defaultSelection;
+    private final Map<String, String> fieldPaths;
+
+    /**
+     * @param entityName       nom JPQL de l'entité
+     * @param alias            alias utilisé dans la requête
+     * @param joins            jointures (JOIN FETCH) appliquées à la sélection par défaut, ou chaîne vide
+     * @param sortField        champ date utilisé pour le tri décroissant
+     * @param defaultSelection expression sélectionnée quand aucune projection n'est demandée
+     * @param fieldPaths       champs projetables (nom exposé vers chemin JPQL)
+     */
+    KeysetQuery(String entityName, String alias, String joins, String sortField, String defaultSelection,
+                Map<String, String> fieldPaths) {
+        this.entityName = entityName;
+        this.alias = alias;
+        this.joins = joins;
+        this.sortField = sortField;
+        this.defaultSelection = defaultSelection;
+        this.fieldPaths = fieldPaths;
+    }
+
+    KeysetQuery(String entityName, String alias, String sortField, String defaultSelection,
+                Map<String, String> fieldPaths) {
+        this(entityName, alias, "", sortField, defaultSelection, fieldPaths);
+    }
+
+    KeysetQuery(String entityName, String alias, String sortField, Map<String, String> fieldPaths) {
+        this(entityName, alias, sortField, alias, fieldPaths);
+    }
+
+    /**
+     * Exécute la requête de liste et construit la réponse HTTP.
+     */
+    Response list(EntityManager em, Integer limit, String cursor, String fields) {
+        List<String> projection;
+        Object[] after;
+        try {
+            projection = parseFields(fields);
+            after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"" + e.getMessage() + "\"}")
+                    .build();
+        }
+        if (limit != null && (limit < 1 || limit > MAX_LIMIT)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"limit must be between 1 and " + MAX_LIMIT + "\"}")
+                    .build();
+        }
+        Integer pageSize = limit != null ? limit : (after != null ? Integer.valueOf(DEFAULT_LIMIT) : null);
+
+        String sortPath = alias + "." + sortField;
+        String idPath = alias + ".id";
+        StringBuilder jpql = new StringBuilder("SELECT ")
+                .append(sortPath).append(", ").append(idPath).append(", ");
+        if (projection == null) {
+            jpql.append(defaultSelection);
+        } else {
+            for (int i = 0; i < projection.size(); i++) {
+                if (i > 0) jpql.append(", ");
+                jpql.append(fieldPaths.get(projection.get(i)));
+            }
+        }
+        jpql.append(" FROM ").append(entityName).append(' ').append(alias);
+        if (projection == null && !joins.isEmpty()) {
+            jpql.append(' ').append(joins);
+        }
+        if (after != null) {
+            jpql.append(" WHERE ").append(sortPath).append(" < :afterSort OR (")
+                    .append(sortPath).append(" = :afterSort AND ").append(idPath).append(" < :afterId)");
+        }
+        jpql.append(" ORDER BY ").append(sortPath).append(" DESC, ").append(idPath).append(" DESC");
+
+        TypedQuery<Object[]> query = em.createQuery(jpql.toString(), Object[].class);
+        if (after != null) {
+            query.setParameter("afterSort", after[0]);
+            query.setParameter("afterId", after[1]);
+        }
+        if (pageSize != null) {
+            query.setMaxResults(pageSize + 1);
+        }
+        List<Object[]> rows = query.getResultList();
+
+        boolean hasMore = pageSize != null && rows.size() > pageSize;
+        int count = hasMore ? pageSize : rows.size();
+        List<Object> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(projection == null ? rows.get(i)[2] : toMap(projection, rows.get(i)));
+        }
+
+        Response.ResponseBuilder response = Response.ok(items);
+        if (hasMore) {
+            Object[] last = rows.get(count - 1);
+            response.header(NEXT_CURSOR_HEADER, encodeCursor((LocalDateTime) last[0], (Long) last[1]));
+        }
+        return response.build();
+    }
+
+    private List<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        requested.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+            if (!fieldPaths.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            requested.add(name);
+        }
+        return new ArrayList<>(requested);
+    }
+
+    private static Map<String, Object> toMap(List<String> projection, Object[] row) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        for (int i = 0; i < projection.size(); i++) {
+            item.put(projection.get(i), row[i + 2]);
+        }
+        return item;
+    }
+
+    static String encodeCursor(LocalDateTime sortValue, Long id) {
+        String raw = sortValue + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Object[] {
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.valueOf(raw.substring(separator + 1))
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.observability.RequestMetrics;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+
+/**
+ * Mesure chaque requête pour RequestMetrics : chronomètre démarré avant la sélection de la ressource,
+ * arrêté dans le filtre de réponse si la réponse n'a pas de corps, sinon après l'écriture du corps
+ * (un StreamingOutput est ainsi mesuré en entier), avec le nombre d'octets écrits.
+ */
+@Provider
+@PreMatching
+public class MetricsFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    // Opération des requêtes qui ne correspondent à aucune ressource (404, 405...)
+    static final String UNMATCHED = "unmatched";
+
+    // Octets du corps écrit, repris par la trace de la requête
+    static final String RESPONSE_BYTES = MetricsFilter.class.getName() + ".responseBytes";
+
+    private static final String START = MetricsFilter.class.getName() + ".start";
+    private static final String OPERATION = MetricsFilter.class.getName() + ".operation";
+    private static final String STATUS = MetricsFilter.class.getName() + ".status";
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        request.setProperty(START, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        Object start = request.getProperty(START);
+        if (start == null) {
+            return;
+        }
+        Method method = resourceInfo.getResourceMethod();
+        String operation = method != null ? RequestObserver.operation(method) : UNMATCHED;
+        // Un flux SSE reste ouvert : seule sa mise en place est mesurée
+        if (response.hasEntity() && !MediaType.SERVER_SENT_EVENTS_TYPE.isCompatible(response.getMediaType())) {
+            request.setProperty(OPERATION, operation);
+            request.setProperty(STATUS, response.getStatus());
+        } else {
+            RequestMetrics.record(operation, response.getStatus(), System.nanoTime() - (Long) start, 0);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        Object start = context.getProperty(START);
+        if (start == null || context.getProperty(OPERATION) == null) {
+            context.proceed();
+            return;
+        }
+        CountingOutputStream counting = new CountingOutputStream(context.getOutputStream());
+        context.setOutputStream(counting);
+        String operation = (String) context.getProperty(OPERATION);
+        int status = (Integer) context.getProperty(STATUS);
+        context.removeProperty(OPERATION);
+        try {
+            context.proceed();
+        } catch (IOException | RuntimeException e) {
+            // Réponse interrompue : l'en-tête est parti, le client reçoit un corps tronqué
+            status = 500;
+            throw e;
+        } finally {
+            context.setProperty(RESPONSE_BYTES, counting.count);
+            RequestMetrics.record(operation, status,
+                    System.nanoTime() - (Long) start, counting.count);
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
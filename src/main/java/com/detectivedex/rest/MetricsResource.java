@@ -0,0 +1,159 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.observability.PrometheusWriter;
+import com.detectivedex.observability.RequestMetrics;
+import com.detectivedex.persistence.PersistenceManager;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+import org.HdrHistogram.Histogram;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+
+/**
+ * Métriques au format Prometheus : latence, volume et erreurs par méthode de ressource (MetricsFilter),
+ * statistiques Hibernate, pool de connexions et JVM (tas, GC, threads).
+ */
+@Path("/metrics")
+public class MetricsResource {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    @GET
+    @Produces(PrometheusWriter.CONTENT_TYPE)
+    public Response getMetrics() {
+        PrometheusWriter out = new PrometheusWriter();
+        writeRequests(out);
+        SessionFactoryImplementor sessionFactory = PersistenceManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class);
+        writeHibernate(out, sessionFactory.getStatistics());
+        writePool(out, sessionFactory);
+        writeJvm(out);
+        return Response.ok(out.toString()).build();
+    }
+
+    private static void writeRequests(PrometheusWriter out) {
+        List<RequestMetrics.Snapshot> operations = RequestMetrics.snapshot();
+
+        out.family("detectivedex_http_request_duration_seconds", "summary",
+                "Durée des requêtes HTTP, réponse écrite comprise, depuis le démarrage");
+        for (RequestMetrics.Snapshot operation : operations) {
+            Histogram latency = operation.latencyMicros();
+            for (double quantile : QUANTILES) {
+                out.sample("detectivedex_http_request_duration_seconds",
+                        latency.getValueAtPercentile(quantile * 100) / 1e6,
+                        "operation", operation.operation(), "quantile", String.valueOf(quantile));
+            }
+            out.sample("detectivedex_http_request_duration_seconds_sum", operation.latencySumMicros() / 1e6,
+                    "operation", operation.operation());
+            out.sample("detectivedex_http_request_duration_seconds_count", operation.requests(),
+                    "operation", operation.operation());
+        }
+
+        out.family("detectivedex_http_request_duration_max_seconds", "gauge",
+                "Durée maximale d'une requête HTTP depuis le démarrage");
+        for (RequestMetrics.Snapshot operation : operations) {
+            out.sample("detectivedex_http_request_duration_max_seconds", operation.latencyMicros().getMaxValue() / 1e6,
+                    "operation", operation.operation());
+        }
+
+        out.family("detectivedex_http_errors_total", "counter", "Réponses en erreur (4xx, 5xx)");
+        for (RequestMetrics.Snapshot operation : operations) {
+            out.sample("detectivedex_http_errors_total", operation.clientErrors(),
+                    "operation", operation.operation(), "class", "4xx");
+            out.sample("detectivedex_http_errors_total", operation.serverErrors(),
+                    "operation", operation.operation(), "class", "5xx");
+        }
+
+        out.family("detectivedex_http_response_bytes_total", "counter", "Octets écrits dans les corps de réponse");
+        for (RequestMetrics.Snapshot operation : operations) {
+            out.sample("detectivedex_http_response_bytes_total", operation.responseBytes(),
+                    "operation", operation.operation());
+        }
+    }
+
+    private static void writeHibernate(PrometheusWriter out, Statistics statistics) {
+        out.family("detectivedex_hibernate_sessions_opened_total", "counter", "Sessions Hibernate ouvertes")
+                .sample("detectivedex_hibernate_sessions_opened_total", statistics.getSessionOpenCount());
+        out.family("detectivedex_hibernate_transactions_total", "counter", "Transactions terminées")
+                .sample("detectivedex_hibernate_transactions_total", statistics.getTransactionCount());
+        out.family("detectivedex_hibernate_flushes_total", "counter", "Flushs de session")
+                .sample("detectivedex_hibernate_flushes_total", statistics.getFlushCount());
+        out.family("detectivedex_hibernate_statements_prepared_total", "counter", "Requêtes JDBC préparées")
+                .sample("detectivedex_hibernate_statements_prepared_total", statistics.getPrepareStatementCount());
+        out.family("detectivedex_hibernate_queries_total", "counter", "Requêtes HQL et SQL exécutées")
+                .sample("detectivedex_hibernate_queries_total", statistics.getQueryExecutionCount());
+        out.family("detectivedex_hibernate_query_max_seconds", "gauge", "Durée de la requête la plus lente")
+                .sample("detectivedex_hibernate_query_max_seconds", statistics.getQueryExecutionMaxTime() / 1e3);
+
+        out.family("detectivedex_hibernate_entities_total", "counter", "Opérations sur les entités");
+        out.sample("detectivedex_hibernate_entities_total", statistics.getEntityLoadCount(), "operation", "load");
+        out.sample("detectivedex_hibernate_entities_total", statistics.getEntityFetchCount(), "operation", "fetch");
+        out.sample("detectivedex_hibernate_entities_total", statistics.getEntityInsertCount(), "operation", "insert");
+        out.sample("detectivedex_hibernate_entities_total", statistics.getEntityUpdateCount(), "operation", "update");
+        out.sample("detectivedex_hibernate_entities_total", statistics.getEntityDeleteCount(), "operation", "delete");
+
+        out.family("detectivedex_hibernate_cache_requests_total", "counter",
+                "Lectures du cache de second niveau et du cache de requêtes");
+        out.sample("detectivedex_hibernate_cache_requests_total", statistics.getSecondLevelCacheHitCount(),
+                "cache", "entity", "result", "hit");
+        out.sample("detectivedex_hibernate_cache_requests_total", statistics.getSecondLevelCacheMissCount(),
+                "cache", "entity", "result", "miss");
+        out.sample("detectivedex_hibernate_cache_requests_total", statistics.getQueryCacheHitCount(),
+                "cache", "query", "result", "hit");
+        out.sample("detectivedex_hibernate_cache_requests_total", statistics.getQueryCacheMissCount(),
+                "cache", "query", "result", "miss");
+    }
+
+    private static void writePool(PrometheusWriter out, SessionFactoryImplementor sessionFactory) {
+        ConnectionProvider provider = sessionFactory.getServiceRegistry().getService(ConnectionProvider.class);
+        if (provider == null || !provider.isUnwrappableAs(HikariDataSource.class)) {
+            return;
+        }
+        HikariDataSource dataSource = provider.unwrap(HikariDataSource.class);
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return;
+        }
+        out.family("detectivedex_pool_connections", "gauge", "Connexions du pool par état");
+        out.sample("detectivedex_pool_connections", pool.getActiveConnections(), "state", "active");
+        out.sample("detectivedex_pool_connections", pool.getIdleConnections(), "state", "idle");
+        out.family("detectivedex_pool_connections_max", "gauge", "Taille maximale du pool")
+                .sample("detectivedex_pool_connections_max", dataSource.getMaximumPoolSize());
+        out.family("detectivedex_pool_pending_threads", "gauge", "Threads en attente d'une connexion")
+                .sample("detectivedex_pool_pending_threads", pool.getThreadsAwaitingConnection());
+    }
+
+    private static void writeJvm(PrometheusWriter out) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        out.family("jvm_memory_bytes", "gauge", "Mémoire de la JVM");
+        out.sample("jvm_memory_bytes", heap.getUsed(), "area", "heap", "kind", "used");
+        out.sample("jvm_memory_bytes", heap.getCommitted(), "area", "heap", "kind", "committed");
+        out.sample("jvm_memory_bytes", heap.getMax(), "area", "heap", "kind", "max");
+        out.sample("jvm_memory_bytes", memory.getNonHeapMemoryUsage().getUsed(), "area", "nonheap", "kind", "used");
+
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        out.family("jvm_gc_collections_total", "counter", "Collections par ramasse-miettes");
+        for (GarbageCollectorMXBean collector : collectors) {
+            out.sample("jvm_gc_collections_total", collector.getCollectionCount(), "gc", collector.getName());
+        }
+        out.family("jvm_gc_collection_seconds_total", "counter", "Temps passé en collection par ramasse-miettes");
+        for (GarbageCollectorMXBean collector : collectors) {
+            out.sample("jvm_gc_collection_seconds_total", collector.getCollectionTime() / 1e3, "gc", collector.getName());
+        }
+
+        out.family("jvm_threads", "gauge", "Threads vivants")
+                .sample("jvm_threads", ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+}
@@ -1,16 +1,21 @@
 package com.detectivedex.rest;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import com.detectivedex.dto.RelationSummary;
 import com.detectivedex.entity.EvidenceNode;
 import com.detectivedex.entity.Relation;
-import com.detectivedex.persistence.PersistenceManager;
+import com.detectivedex.graph.ChangeKind;
+import com.detectivedex.graph.ChangeOperation;
+import com.detectivedex.graph.GraphChangeLog;
+import com.detectivedex.persistence.UnitOfWork;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Endpoint REST pour la gestion des relations entre nœuds
@@ -20,25 +25,43 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 public class RelationResource {
 
-    private EntityManager getEntityManager() {
-        return PersistenceManager.getEntityManager();
-    }
+    // Valeur du paramètre "expand" qui demande les nœuds complets au lieu de leurs identifiants
+    static final String EXPAND_NODES = "nodes";
+
+    private static final String FETCH_NODES = "JOIN FETCH r.sourceNode JOIN FETCH r.targetNode";
+
+    private static final Map<String, String> LIST_FIELDS = Map.ofEntries(
+        Map.entry("id", "r.id"),
+        Map.entry("sourceNodeId", "r.sourceNode.id"),
+        Map.entry("targetNodeId", "r.targetNode.id"),
+        Map.entry("relationType", "r.relationType"),
+        Map.entry("description", "r.description"),
+        Map.entry("confirmed", "r.confirmed"),
+        Map.entry("confidence", "r.confidence"),
+        Map.entry("createdAt", "r.createdAt")
+    );
+
+    private static final KeysetQuery SUMMARY_QUERY =
+            new KeysetQuery("Relation", "r", "createdAt", RelationSummary.SELECT_EXPRESSION, LIST_FIELDS);
+
+    private static final KeysetQuery HYDRATED_QUERY =
+            new KeysetQuery("Relation", "r", FETCH_NODES, "createdAt", "r", LIST_FIELDS);
 
     /**
-     * Récupère toutes les relations
+     * Récupère les relations, de la plus récente à la plus ancienne.
+     * Par défaut les nœuds ne sont référencés que par leur id (RelationSummary) ;
+     * expand=nodes renvoie les relations avec leurs nœuds complets.
+     * Paginable par curseur (limit, cursor) et projetable (fields=id,sourceNodeId,...).
      */
     @GET
-    public Response getAllRelations() {
-        EntityManager em = getEntityManager();
-        try {
-            TypedQuery<Relation> query = em.createQuery(
-                "SELECT r FROM Relation r ORDER BY r.createdAt DESC",
-                Relation.class
-            );
-            List<Relation> relations = query.getResultList();
-            return Response.ok(relations).build();
-        } finally {
-            em.close();
+    public Response getAllRelations(@QueryParam("limit") Integer limit,
+                                    @QueryParam("cursor") String cursor,
+                                    @QueryParam("fields") String fields,
+                                    @QueryParam("expand") String expand) {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
+            KeysetQuery query = EXPAND_NODES.equals(expand) ? HYDRATED_QUERY : SUMMARY_QUERY;
+            return query.list(em, limit, cursor, fields);
         }
     }
 
@@ -48,17 +71,15 @@ public class RelationResource {
     @GET
     @Path("/{id}")
     public Response getRelationById(@PathParam("id") Long id) {
-        EntityManager em = getEntityManager();
-        try {
-            Relation relation = em.find(Relation.class, id);
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
+            Relation relation = findWithNodes(em, id);
             if (relation == null) {
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("{\"error\":\"Relation not found\"}")
                         .build();
             }
             return Response.ok(relation).build();
-        } finally {
-            em.close();
         }
     }
 
@@ -67,14 +88,12 @@ public class RelationResource {
      */
     @POST
     public Response createRelation(Relation relation) {
-        EntityManager em = getEntityManager();
-        try {
-            em.getTransaction().begin();
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EntityManager em = work.entityManager();
             EvidenceNode source = em.find(EvidenceNode.class, relation.getSourceNode().getId());
             EvidenceNode target = em.find(EvidenceNode.class, relation.getTargetNode().getId());
 
             if (source == null || target == null) {
-                em.getTransaction().rollback();
                 return Response.status(Response.Status.BAD_REQUEST)
                         .entity("{\"error\":\"Source or target node not found\"}")
                         .build();
@@ -85,20 +104,16 @@ public class RelationResource {
             relation.setCreatedAt(LocalDateTime.now());
 
             em.persist(relation);
-            em.getTransaction().commit();
+            GraphChangeLog.record(em, ChangeKind.RELATION, relation.getId(), ChangeOperation.CREATED);
+            work.commit();
 
             return Response.status(Response.Status.CREATED)
                     .entity(relation)
                     .build();
         } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\":\"" + e.getMessage() + "\"}")
                     .build();
-        } finally {
-            em.close();
         }
     }
 
@@ -108,12 +123,10 @@ public class RelationResource {
     @PUT
     @Path("/{id}")
     public Response updateRelation(@PathParam("id") Long id, Relation updatedRelation) {
-        EntityManager em = getEntityManager();
-        try {
-            em.getTransaction().begin();
-            Relation relation = em.find(Relation.class, id);
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EntityManager em = work.entityManager();
+            Relation relation = findWithNodes(em, id);
             if (relation == null) {
-                em.getTransaction().rollback();
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("{\"error\":\"Relation not found\"}")
                         .build();
@@ -125,17 +138,13 @@ public class RelationResource {
             relation.setConfidence(updatedRelation.getConfidence());
 
             em.merge(relation);
-            em.getTransaction().commit();
+            GraphChangeLog.record(em, ChangeKind.RELATION, relation.getId(), ChangeOperation.UPDATED);
+            work.commit();
             return Response.ok(relation).build();
         } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\":\"" + e.getMessage() + "\"}")
                     .build();
-        } finally {
-            em.close();
         }
     }
 
@@ -145,29 +154,23 @@ public class RelationResource {
     @DELETE
     @Path("/{id}")
     public Response deleteRelation(@PathParam("id") Long id) {
-        EntityManager em = getEntityManager();
-        try {
-            em.getTransaction().begin();
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EntityManager em = work.entityManager();
             Relation relation = em.find(Relation.class, id);
             if (relation == null) {
-                em.getTransaction().rollback();
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("{\"error\":\"Relation not found\"}")
                         .build();
             }
 
             em.remove(relation);
-            em.getTransaction().commit();
+            GraphChangeLog.record(em, ChangeKind.RELATION, relation.getId(), ChangeOperation.DELETED);
+            work.commit();
             return Response.noContent().build();
         } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\":\"" + e.getMessage() + "\"}")
                     .build();
-        } finally {
-            em.close();
         }
     }
 
@@ -176,18 +179,11 @@ public class RelationResource {
      */
     @GET
     @Path("/from/{sourceId}")
-    public Response getRelationsFromNode(@PathParam("sourceId") Long sourceId) {
-        EntityManager em = getEntityManager();
-        try {
-            TypedQuery<Relation> query = em.createQuery(
-                "SELECT r FROM Relation r WHERE r.sourceNode.id = :sourceId ORDER BY r.createdAt DESC",
-                Relation.class
-            );
-            query.setParameter("sourceId", sourceId);
-            List<Relation> relations = query.getResultList();
-            return Response.ok(relations).build();
-        } finally {
-            em.close();
+    public Response getRelationsFromNode(@PathParam("sourceId") Long sourceId,
+                                         @QueryParam("expand") String expand) {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
+            return Response.ok(listWhere(em, "r.sourceNode.id = :value", sourceId, expand)).build();
         }
     }
 
@@ -196,18 +192,11 @@ public class RelationResource {
      */
     @GET
     @Path("/to/{targetId}")
-    public Response getRelationsToNode(@PathParam("targetId") Long targetId) {
-        EntityManager em = getEntityManager();
-        try {
-            TypedQuery<Relation> query = em.createQuery(
-                "SELECT r FROM Relation r WHERE r.targetNode.id = :targetId ORDER BY r.createdAt DESC",
-                Relation.class
-            );
-            query.setParameter("targetId", targetId);
-            List<Relation> relations = query.getResultList();
-            return Response.ok(relations).build();
-        } finally {
-            em.close();
+    public Response getRelationsToNode(@PathParam("targetId") Long targetId,
+                                       @QueryParam("expand") String expand) {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
+            return Response.ok(listWhere(em, "r.targetNode.id = :value", targetId, expand)).build();
         }
     }
 
@@ -216,18 +205,41 @@ public class RelationResource {
      */
     @GET
     @Path("/type/{type}")
-    public Response getRelationsByType(@PathParam("type") String type) {
-        EntityManager em = getEntityManager();
-        try {
-            TypedQuery<Relation> query = em.createQuery(
-                "SELECT r FROM Relation r WHERE r.relationType = :type ORDER BY r.createdAt DESC",
-                Relation.class
-            );
-            query.setParameter("type", type);
-            List<Relation> relations = query.getResultList();
-            return Response.ok(relations).build();
-        } finally {
-            em.close();
+    public Response getRelationsByType(@PathParam("type") String type,
+                                       @QueryParam("expand") String expand) {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
+            return Response.ok(listWhere(em, "r.relationType = :value", type, expand)).build();
         }
     }
+
+    /**
+     * Liste filtrée : résumés construits en JPQL, ou entités avec nœuds chargés en une seule requête.
+     * Les résumés passent par le cache de requêtes ; les entités avec nœuds sont toujours relues, leurs
+     * nœuds devant être chargés avant la fermeture de la session.
+     */
+    private List<?> listWhere(EntityManager em, String condition, Object value, String expand) {
+        if (EXPAND_NODES.equals(expand)) {
+            return em.createQuery("SELECT r FROM Relation r " + FETCH_NODES + " WHERE " + condition
+                            + " ORDER BY r.createdAt DESC")
+                    .setParameter("value", value)
+                    .getResultList();
+        }
+        return em.createQuery("SELECT " + RelationSummary.SELECT_EXPRESSION + " FROM Relation r WHERE " + condition
+                        + " ORDER BY r.createdAt DESC")
+                .setParameter("value", value)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList();
+    }
+
+    /**
+     * Charge une relation et ses deux nœuds en une requête, pour la sérialiser hors session.
+     */
+    private Relation findWithNodes(EntityManager em, Long id) {
+        List<Relation> found = em.createQuery(
+                "SELECT r FROM Relation r " + FETCH_NODES + " WHERE r.id = :id", Relation.class)
+                .setParameter("id", id)
+                .getResultList();
+        return found.isEmpty() ? null : found.get(0);
+    }
 }
@@ -1,18 +1,32 @@
 package com.detectivedex.rest;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import com.detectivedex.entity.EvidenceNode;
-import com.detectivedex.entity.Relation;
-import com.detectivedex.persistence.PersistenceManager;
+import jakarta.ws.rs.core.StreamingOutput;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.SeverityLevel;
+import com.detectivedex.graph.AdjacencySnapshot;
+import com.detectivedex.graph.SeverityPropagation;
+import com.detectivedex.persistence.StatelessRead;
+import com.detectivedex.persistence.UnitOfWork;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Endpoint REST pour l'export de rapports
@@ -22,234 +36,371 @@ import java.util.stream.Collectors;
 @Consumes(MediaType.APPLICATION_JSON)
 public class ReportResource {
 
-    private EntityManager getEntityManager() {
-        return PersistenceManager.getEntityManager();
-    }
+    // Statuts toujours présents dans les statistiques, même à zéro
+    private static final String[] DEFAULT_STATUSES = {"OPEN", "IN_PROGRESS", "RESOLVED"};
+
+    // Taille du tampon d'écriture du rapport HTML : chaque tampon plein part en un chunk
+    private static final int HTML_BUFFER_SIZE = 8192;
+
+    private static final String HTML_NODE_COLUMNS =
+            "n.id, n.name, n.nodeType, n.description, n.createdAt, n.status";
+
+    private static final String HTML_NODES = "SELECT " + HTML_NODE_COLUMNS
+            + " FROM EvidenceNode n WHERE n.severity = :severity ORDER BY n.createdAt DESC, n.id DESC";
+
+    private static final String HTML_NODES_WITH_EVENTS = "SELECT " + HTML_NODE_COLUMNS
+            + ", e.eventDate, e.eventType, e.title FROM EvidenceNode n LEFT JOIN n.events e"
+            + " WHERE n.severity = :severity ORDER BY n.createdAt DESC, n.id DESC, e.eventDate, e.id";
+
+    private static final String HTML_RELATIONS = "SELECT s.name, r.relationType, t.name, r.confidence, r.confirmed"
+            + " FROM Relation r JOIN r.sourceNode s JOIN r.targetNode t ORDER BY r.createdAt DESC";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
 
     /**
-     * Exporte un rapport complet en JSON
+     * Exporte un rapport complet en JSON.
+     * Le document est écrit en flux au fil de la lecture des nœuds et des relations (StatelessRead) :
+     * la mémoire utilisée reste constante quelle que soit la taille du graphe.
      */
     @GET
     @Path("/export/json")
     @Produces(MediaType.APPLICATION_JSON)
     public Response exportJsonReport() {
-        EntityManager em = getEntityManager();
-        try {
-            TypedQuery<EvidenceNode> nodesQuery = em.createQuery(
-                "SELECT n FROM EvidenceNode n ORDER BY n.createdAt DESC",
-                EvidenceNode.class
-            );
-            List<EvidenceNode> nodes = nodesQuery.getResultList();
-
-            TypedQuery<Relation> relationsQuery = em.createQuery(
-                "SELECT r FROM Relation r ORDER BY r.createdAt DESC",
-                Relation.class
-            );
-            List<Relation> relations = relationsQuery.getResultList();
-
-            StringBuilder json = new StringBuilder();
-            json.append("{\n");
-            json.append("  \"exportDate\": \"").append(LocalDateTime.now()).append("\",\n");
-            json.append("  \"nodeCount\": ").append(nodes.size()).append(",\n");
-            json.append("  \"relationCount\": ").append(relations.size()).append(",\n");
-            json.append("  \"nodes\": [\n");
-
-            for (int i = 0; i < nodes.size(); i++) {
-                EvidenceNode node = nodes.get(i);
-                json.append("    {\n");
-                json.append("      \"id\": ").append(node.getId()).append(",\n");
-                json.append("      \"name\": \"").append(escapeJson(node.getName())).append("\",\n");
-                json.append("      \"nodeType\": \"").append(node.getNodeType()).append("\",\n");
-                json.append("      \"severity\": \"").append(node.getSeverity()).append("\",\n");
-                json.append("      \"status\": \"").append(node.getStatus()).append("\",\n");
-                json.append("      \"createdAt\": \"").append(node.getCreatedAt()).append("\"\n");
-                json.append("    }");
-                if (i < nodes.size() - 1) json.append(",");
-                json.append("\n");
-            }
-
-            json.append("  ],\n");
-            json.append("  \"relations\": [\n");
-
-            for (int i = 0; i < relations.size(); i++) {
-                Relation relation = relations.get(i);
-                json.append("    {\n");
-                json.append("      \"id\": ").append(relation.getId()).append(",\n");
-                json.append("      \"sourceNodeId\": ").append(relation.getSourceNode().getId()).append(",\n");
-                json.append("      \"targetNodeId\": ").append(relation.getTargetNode().getId()).append(",\n");
-                json.append("      \"relationType\": \"").append(relation.getRelationType()).append("\",\n");
-                json.append("      \"confirmed\": ").append(relation.getConfirmed()).append("\n");
-                json.append("    }");
-                if (i < relations.size() - 1) json.append(",");
-                json.append("\n");
-            }
-
-            json.append("  ]\n");
-            json.append("}");
-
-            return Response.ok(json.toString())
-                    .header("Content-Disposition", "attachment; filename=detectivedex-export.json")
-                    .build();
+        long nodeCount;
+        long relationCount;
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
+            nodeCount = em.createQuery("SELECT COUNT(n) FROM EvidenceNode n", Long.class).getSingleResult();
+            relationCount = em.createQuery("SELECT COUNT(r) FROM Relation r", Long.class).getSingleResult();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("{\"error\":\"" + e.getMessage() + "\"}")
                     .build();
-        } finally {
-            em.close();
+        }
+
+        StreamingOutput stream = output -> writeJsonReport(output, nodeCount, relationCount);
+        return Response.ok(stream)
+                .header("Content-Disposition", "attachment; filename=detectivedex-export.json")
+                .build();
+    }
+
+    private void writeJsonReport(OutputStream output, long nodeCount, long relationCount) throws IOException {
+        SeverityPropagation.Levels levels = SeverityPropagation.levels();
+        try (StatelessRead reads = StatelessRead.open();
+             JsonGenerator json = JSON_FACTORY.createGenerator(output)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartObject();
+            json.writeStringField("exportDate", LocalDateTime.now().toString());
+            json.writeNumberField("nodeCount", nodeCount);
+            json.writeNumberField("relationCount", relationCount);
+
+            json.writeArrayFieldStart("nodes");
+            try (Stream<Object[]> rows = reads.stream(
+                    "SELECT n.id, n.name, n.nodeType, n.severity, n.status, n.createdAt "
+                            + "FROM EvidenceNode n ORDER BY n.createdAt DESC",
+                    Object[].class)) {
+                for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); ) {
+                    Object[] row = it.next();
+                    json.writeStartObject();
+                    json.writeNumberField("id", (Long) row[0]);
+                    json.writeStringField("name", (String) row[1]);
+                    json.writeStringField("nodeType", String.valueOf(row[2]));
+                    json.writeStringField("severity", String.valueOf(row[3]));
+                    SeverityLevel effective = levels.effective((Long) row[0]);
+                    json.writeStringField("effectiveSeverity", String.valueOf(effective != null ? effective : row[3]));
+                    json.writeStringField("status", (String) row[4]);
+                    json.writeStringField("createdAt", String.valueOf(row[5]));
+                    json.writeEndObject();
+                }
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("relations");
+            try (Stream<Object[]> rows = reads.stream(
+                    "SELECT r.id, r.sourceNode.id, r.targetNode.id, r.relationType, r.confirmed "
+                            + "FROM Relation r ORDER BY r.createdAt DESC",
+                    Object[].class)) {
+                for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); ) {
+                    Object[] row = it.next();
+                    json.writeStartObject();
+                    json.writeNumberField("id", (Long) row[0]);
+                    json.writeNumberField("sourceNodeId", (Long) row[1]);
+                    json.writeNumberField("targetNodeId", (Long) row[2]);
+                    json.writeStringField("relationType", (String) row[3]);
+                    json.writeBooleanField("confirmed", Boolean.TRUE.equals(row[4]));
+                    json.writeEndObject();
+                }
+            }
+            json.writeEndArray();
+
+            json.writeEndObject();
         }
     }
 
     /**
-     * Exporte un rapport en HTML
+     * Exporte un rapport en HTML, écrit en flux (transfert chunked) : le navigateur affiche le résumé
+     * pendant que les nœuds sont lus. Les nombres par sévérité viennent d'un seul agrégat préalable ; les
+     * nœuds sont ensuite parcourus par groupe de sévérité (StatelessRead), sans jamais garder le document
+     * ni le graphe en mémoire. relations ajoute la liste des relations, timelines la chronologie de chaque nœud.
      */
     @GET
     @Path("/export/html")
     @Produces(MediaType.TEXT_HTML)
-    public Response exportHtmlReport() {
-        EntityManager em = getEntityManager();
-        try {
-            TypedQuery<EvidenceNode> nodesQuery = em.createQuery(
-                "SELECT n FROM EvidenceNode n ORDER BY n.severity DESC, n.createdAt DESC",
-                EvidenceNode.class
-            );
-            List<EvidenceNode> nodes = nodesQuery.getResultList();
-
-            StringBuilder html = new StringBuilder();
-            html.append("<!DOCTYPE html>\n");
-            html.append("<html lang=\"fr\">\n");
-            html.append("<head>\n");
-            html.append("  <meta charset=\"UTF-8\">\n");
-            html.append("  <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
-            html.append("  <title>Rapport DetectiveDex</title>\n");
-            html.append("  <style>\n");
-            html.append("    body { font-family: Arial, sans-serif; margin: 20px; background: #f5f5f5; }\n");
-            html.append("    .header { background: #2c3e50; color: white; padding: 20px; border-radius: 5px; }\n");
-            html.append("    .summary { background: white; padding: 20px; margin: 20px 0; border-radius: 5px; }\n");
-            html.append("    .node-section { background: white; padding: 20px; margin: 20px 0; border-radius: 5px; }\n");
-            html.append("    .node-item { border-left: 4px solid #3498db; padding: 15px; margin: 10px 0; background: #ecf0f1; }\n");
-            html.append("    .critical { border-left-color: #e74c3c; }\n");
-            html.append("    .high { border-left-color: #e67e22; }\n");
-            html.append("    .medium { border-left-color: #f39c12; }\n");
-            html.append("    .low { border-left-color: #3498db; }\n");
-            html.append("    .badge { display: inline-block; padding: 5px 10px; margin: 5px 5px 5px 0; border-radius: 3px; font-size: 12px; font-weight: bold; }\n");
-            html.append("    .badge-critical { background: #e74c3c; color: white; }\n");
-            html.append("    .badge-high { background: #e67e22; color: white; }\n");
-            html.append("    .badge-medium { background: #f39c12; color: white; }\n");
-            html.append("    .badge-low { background: #3498db; color: white; }\n");
-            html.append("    .badge-info { background: #95a5a6; color: white; }\n");
-            html.append("  </style>\n");
-            html.append("</head>\n");
-            html.append("<body>\n");
-            html.append("  <div class=\"header\">\n");
-            html.append("    <h1>Rapport DetectiveDex</h1>\n");
-            html.append("    <p>Généré le ").append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))).append("</p>\n");
-            html.append("  </div>\n");
+    public Response exportHtmlReport(@QueryParam("relations") @DefaultValue("false") boolean relations,
+                                     @QueryParam("timelines") @DefaultValue("false") boolean timelines) {
+        Map<SeverityLevel, Long> bySeverity = new EnumMap<>(SeverityLevel.class);
+        try (UnitOfWork work = UnitOfWork.read()) {
+            for (Object[] row : work.entityManager().createQuery(
+                    "SELECT n.severity, COUNT(n) FROM EvidenceNode n GROUP BY n.severity", Object[].class)
+                    .getResultList()) {
+                bySeverity.put((SeverityLevel) row[0], (Long) row[1]);
+            }
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"error\":\"" + e.getMessage() + "\"}")
+                    .build();
+        }
 
-            html.append("  <div class=\"summary\">\n");
-            html.append("    <h2>Résumé</h2>\n");
-            html.append("    <p><strong>Nombre total de nœuds :</strong> ").append(nodes.size()).append("</p>\n");
+        StreamingOutput stream = output -> writeHtmlReport(output, bySeverity, relations, timelines);
+        return Response.ok(stream, MediaType.TEXT_HTML_TYPE.withCharset(StandardCharsets.UTF_8.name()))
+                .header("Content-Disposition", "attachment; filename=detectivedex-report.html")
+                .build();
+    }
 
-            long critical = nodes.stream().filter(n -> n.getSeverity().toString().equals("CRITICAL")).count();
-            long high = nodes.stream().filter(n -> n.getSeverity().toString().equals("HIGH")).count();
-            long medium = nodes.stream().filter(n -> n.getSeverity().toString().equals("MEDIUM")).count();
-            long low = nodes.stream().filter(n -> n.getSeverity().toString().equals("LOW")).count();
+    private void writeHtmlReport(OutputStream output, Map<SeverityLevel, Long> bySeverity,
+                                 boolean withRelations, boolean withTimelines) throws IOException {
+        SeverityPropagation.Levels levels = SeverityPropagation.levels();
+        Writer html = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), HTML_BUFFER_SIZE);
+        html.append("<!DOCTYPE html>\n");
+        html.append("<html lang=\"fr\">\n");
+        html.append("<head>\n");
+        html.append("  <meta charset=\"UTF-8\">\n");
+        html.append("  <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
+        html.append("  <title>Rapport DetectiveDex</title>\n");
+        html.append("  <style>\n");
+        html.append("    body { font-family: Arial, sans-serif; margin: 20px; background: #f5f5f5; }\n");
+        html.append("    .header { background: #2c3e50; color: white; padding: 20px; border-radius: 5px; }\n");
+        html.append("    .summary { background: white; padding: 20px; margin: 20px 0; border-radius: 5px; }\n");
+        html.append("    .node-section { background: white; padding: 20px; margin: 20px 0; border-radius: 5px; }\n");
+        html.append("    .node-item { border-left: 4px solid #3498db; padding: 15px; margin: 10px 0; background: #ecf0f1; }\n");
+        html.append("    .critical { border-left-color: #e74c3c; }\n");
+        html.append("    .high { border-left-color: #e67e22; }\n");
+        html.append("    .medium { border-left-color: #f39c12; }\n");
+        html.append("    .low { border-left-color: #3498db; }\n");
+        html.append("    .badge { display: inline-block; padding: 5px 10px; margin: 5px 5px 5px 0; border-radius: 3px; font-size: 12px; font-weight: bold; }\n");
+        html.append("    .badge-critical { background: #e74c3c; color: white; }\n");
+        html.append("    .badge-high { background: #e67e22; color: white; }\n");
+        html.append("    .badge-medium { background: #f39c12; color: white; }\n");
+        html.append("    .badge-low { background: #3498db; color: white; }\n");
+        html.append("    .badge-info { background: #95a5a6; color: white; }\n");
+        html.append("    .timeline { margin: 5px 0 0 0; font-size: 13px; }\n");
+        html.append("    table { border-collapse: collapse; width: 100%; }\n");
+        html.append("    th, td { text-align: left; padding: 6px 10px; border-bottom: 1px solid #ecf0f1; }\n");
+        html.append("  </style>\n");
+        html.append("</head>\n");
+        html.append("<body>\n");
+        html.append("  <div class=\"header\">\n");
+        html.append("    <h1>Rapport DetectiveDex</h1>\n");
+        html.append("    <p>Généré le ").append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))).append("</p>\n");
+        html.append("  </div>\n");
 
-            html.append("    <p><span class=\"badge badge-critical\">CRITIQUE: ").append(critical).append("</span>");
-            html.append("       <span class=\"badge badge-high\">HAUT: ").append(high).append("</span>");
-            html.append("       <span class=\"badge badge-medium\">MOYEN: ").append(medium).append("</span>");
-            html.append("       <span class=\"badge badge-low\">BAS: ").append(low).append("</span></p>\n");
-            html.append("  </div>\n");
+        long total = bySeverity.values().stream().mapToLong(Long::longValue).sum();
+        html.append("  <div class=\"summary\">\n");
+        html.append("    <h2>Résumé</h2>\n");
+        html.append("    <p><strong>Nombre total de nœuds :</strong> ").append(String.valueOf(total)).append("</p>\n");
+        html.append("    <p><span class=\"badge badge-critical\">CRITIQUE: ").append(count(bySeverity, SeverityLevel.CRITICAL)).append("</span>");
+        html.append("       <span class=\"badge badge-high\">HAUT: ").append(count(bySeverity, SeverityLevel.HIGH)).append("</span>");
+        html.append("       <span class=\"badge badge-medium\">MOYEN: ").append(count(bySeverity, SeverityLevel.MEDIUM)).append("</span>");
+        html.append("       <span class=\"badge badge-low\">BAS: ").append(count(bySeverity, SeverityLevel.LOW)).append("</span></p>\n");
+        html.append("  </div>\n");
+        // Le navigateur affiche l'en-tête et le résumé avant la lecture des nœuds
+        html.flush();
 
+        try (StatelessRead reads = StatelessRead.open()) {
             html.append("  <div class=\"node-section\">\n");
             html.append("    <h2>Détails des Nœuds</h2>\n");
+            for (SeverityLevel severity : SeverityLevel.values()) {
+                if (bySeverity.getOrDefault(severity, 0L) == 0) {
+                    continue;
+                }
+                html.append("    <h3>").append(severity.getLabel()).append(" (")
+                        .append(count(bySeverity, severity)).append(")</h3>\n");
+                writeHtmlNodes(html, reads, severity, levels, withTimelines);
+                html.flush();
+            }
+            html.append("  </div>\n");
+
+            if (withRelations) {
+                writeHtmlRelations(html, reads);
+            }
+        }
+
+        html.append("</body>\n");
+        html.append("</html>");
+        html.flush();
+    }
 
-            for (EvidenceNode node : nodes) {
-                String severityClass = node.getSeverity().toString().toLowerCase();
-                html.append("    <div class=\"node-item ").append(severityClass).append("\">\n");
-                html.append("      <h3>").append(escapeHtml(node.getName())).append("</h3>\n");
-                html.append("      <p><span class=\"badge badge-").append(severityClass).append("\">").append(node.getSeverity().getLabel()).append("</span>");
-                html.append(" <span class=\"badge badge-info\">").append(node.getNodeType().getLabel()).append("</span></p>\n");
-                if (node.getDescription() != null) {
-                    html.append("      <p>").append(escapeHtml(node.getDescription())).append("</p>\n");
+    /**
+     * Nœuds d'un niveau de sévérité, du plus récent au plus ancien. Avec la chronologie, chaque nœud
+     * occupe autant de lignes que d'événements (LEFT JOIN trié par nœud puis par date).
+     */
+    private void writeHtmlNodes(Writer html, StatelessRead reads, SeverityLevel severity,
+                                SeverityPropagation.Levels levels, boolean withTimelines) throws IOException {
+        String severityClass = severity.name().toLowerCase();
+        Long current = null;
+        boolean timelineOpen = false;
+        try (Stream<Object[]> rows = reads.query(withTimelines ? HTML_NODES_WITH_EVENTS : HTML_NODES, Object[].class)
+                .setParameter("severity", severity)
+                .stream()) {
+            for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); ) {
+                Object[] row = it.next();
+                Long id = (Long) row[0];
+                if (!id.equals(current)) {
+                    if (current != null) {
+                        endHtmlNode(html, timelineOpen);
+                        timelineOpen = false;
+                    }
+                    current = id;
+                    html.append("    <div class=\"node-item ").append(severityClass).append("\">\n");
+                    html.append("      <h3>").append(escapeHtml((String) row[1])).append("</h3>\n");
+                    html.append("      <p><span class=\"badge badge-").append(severityClass).append("\">").append(severity.getLabel()).append("</span>");
+                    SeverityLevel effective = levels.effective(id);
+                    if (effective != null && levels.escalated(id)) {
+                        html.append(" <span class=\"badge badge-").append(effective.name().toLowerCase()).append("\">Effective : ")
+                                .append(effective.getLabel()).append("</span>");
+                    }
+                    html.append(" <span class=\"badge badge-info\">").append(((NodeType) row[2]).getLabel()).append("</span></p>\n");
+                    if (row[3] != null) {
+                        html.append("      <p>").append(escapeHtml((String) row[3])).append("</p>\n");
+                    }
+                    html.append("      <p><small>Créé le ").append(String.valueOf(row[4])).append(" | Statut: ").append(String.valueOf(row[5])).append("</small></p>\n");
+                }
+                if (withTimelines && row[6] != null) {
+                    if (!timelineOpen) {
+                        html.append("      <ul class=\"timeline\">\n");
+                        timelineOpen = true;
+                    }
+                    html.append("        <li>").append(String.valueOf(row[6])).append(" - ").append(escapeHtml((String) row[7]))
+                            .append(" : ").append(escapeHtml((String) row[8])).append("</li>\n");
                 }
-                html.append("      <p><small>Créé le ").append(node.getCreatedAt()).append(" | Statut: ").append(node.getStatus()).append("</small></p>\n");
-                html.append("    </div>\n");
             }
+        }
+        if (current != null) {
+            endHtmlNode(html, timelineOpen);
+        }
+    }
 
-            html.append("  </div>\n");
-            html.append("</body>\n");
-            html.append("</html>");
+    private void endHtmlNode(Writer html, boolean timelineOpen) throws IOException {
+        if (timelineOpen) {
+            html.append("      </ul>\n");
+        }
+        html.append("    </div>\n");
+    }
 
-            return Response.ok(html.toString())
-                    .header("Content-Disposition", "attachment; filename=detectivedex-report.html")
-                    .build();
-        } catch (Exception e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("{\"error\":\"" + e.getMessage() + "\"}")
-                    .build();
-        } finally {
-            em.close();
+    private void writeHtmlRelations(Writer html, StatelessRead reads) throws IOException {
+        html.append("  <div class=\"node-section\">\n");
+        html.append("    <h2>Relations</h2>\n");
+        html.append("    <table>\n");
+        html.append("      <tr><th>Source</th><th>Type</th><th>Cible</th><th>Confiance</th><th>Confirmée</th></tr>\n");
+        try (Stream<Object[]> rows = reads.stream(HTML_RELATIONS, Object[].class)) {
+            for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); ) {
+                Object[] row = it.next();
+                html.append("      <tr><td>").append(escapeHtml((String) row[0]))
+                        .append("</td><td>").append(escapeHtml((String) row[1]))
+                        .append("</td><td>").append(escapeHtml((String) row[2]))
+                        .append("</td><td>").append(escapeHtml((String) row[3]))
+                        .append("</td><td>").append(Boolean.TRUE.equals(row[4]) ? "Oui" : "Non")
+                        .append("</td></tr>\n");
+            }
         }
+        html.append("    </table>\n");
+        html.append("  </div>\n");
+    }
+
+    private static String count(Map<SeverityLevel, Long> bySeverity, SeverityLevel severity) {
+        return String.valueOf(bySeverity.getOrDefault(severity, 0L));
     }
 
     /**
-     * Récupère les statistiques globales
+     * Récupère les statistiques globales.
+     * Seuls des agrégats GROUP BY sont exécutés : aucune entité n'est chargée.
      */
     @GET
     @Path("/statistics")
     public Response getStatistics() {
-        EntityManager em = getEntityManager();
-        try {
-            TypedQuery<EvidenceNode> nodesQuery = em.createQuery(
-                "SELECT n FROM EvidenceNode n",
-                EvidenceNode.class
-            );
-            List<EvidenceNode> nodes = nodesQuery.getResultList();
-
-            TypedQuery<Relation> relationsQuery = em.createQuery(
-                "SELECT r FROM Relation r",
-                Relation.class
-            );
-            List<Relation> relations = relationsQuery.getResultList();
-
-            StringBuilder stats = new StringBuilder();
-            stats.append("{\n");
-            stats.append("  \"totalNodes\": ").append(nodes.size()).append(",\n");
-            stats.append("  \"totalRelations\": ").append(relations.size()).append(",\n");
-            stats.append("  \"nodesBySeverity\": {\n");
-            stats.append("    \"CRITICAL\": ").append(nodes.stream().filter(n -> n.getSeverity().toString().equals("CRITICAL")).count()).append(",\n");
-            stats.append("    \"HIGH\": ").append(nodes.stream().filter(n -> n.getSeverity().toString().equals("HIGH")).count()).append(",\n");
-            stats.append("    \"MEDIUM\": ").append(nodes.stream().filter(n -> n.getSeverity().toString().equals("MEDIUM")).count()).append(",\n");
-            stats.append("    \"LOW\": ").append(nodes.stream().filter(n -> n.getSeverity().toString().equals("LOW")).count()).append(",\n");
-            stats.append("    \"INFO\": ").append(nodes.stream().filter(n -> n.getSeverity().toString().equals("INFO")).count()).append("\n");
-            stats.append("  },\n");
-            stats.append("  \"nodesByStatus\": {\n");
-            long open = nodes.stream().filter(n -> "OPEN".equals(n.getStatus())).count();
-            long resolved = nodes.stream().filter(n -> "RESOLVED".equals(n.getStatus())).count();
-            long inProgress = nodes.stream().filter(n -> "IN_PROGRESS".equals(n.getStatus())).count();
-            stats.append("    \"OPEN\": ").append(open).append(",\n");
-            stats.append("    \"IN_PROGRESS\": ").append(inProgress).append(",\n");
-            stats.append("    \"RESOLVED\": ").append(resolved).append("\n");
-            stats.append("  }\n");
-            stats.append("}");
-
-            return Response.ok(stats.toString()).build();
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
+            Map<String, Long> bySeverity = new LinkedHashMap<>();
+            for (SeverityLevel level : SeverityLevel.values()) {
+                bySeverity.put(level.name(), 0L);
+            }
+            bySeverity.putAll(countBy(em, "SELECT n.severity, COUNT(n) FROM EvidenceNode n GROUP BY n.severity"));
+
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            for (String status : DEFAULT_STATUSES) {
+                byStatus.put(status, 0L);
+            }
+            byStatus.putAll(countBy(em, "SELECT n.status, COUNT(n) FROM EvidenceNode n GROUP BY n.status"));
+
+            Map<String, Long> byType = countBy(em, "SELECT n.nodeType, COUNT(n) FROM EvidenceNode n GROUP BY n.nodeType");
+            Map<String, Long> relationsByType = countBy(em,
+                    "SELECT r.relationType, COUNT(r) FROM Relation r GROUP BY r.relationType");
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("totalNodes", byType.values().stream().mapToLong(Long::longValue).sum());
+            stats.put("totalRelations", relationsByType.values().stream().mapToLong(Long::longValue).sum());
+            stats.put("nodesBySeverity", bySeverity);
+            effectiveSeverityStatistics(stats);
+            stats.put("nodesByStatus", byStatus);
+            stats.put("nodesByType", byType);
+            stats.put("relationsByType", relationsByType);
+
+            return Response.ok(stats).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("{\"error\":\"" + e.getMessage() + "\"}")
                     .build();
-        } finally {
-            em.close();
         }
     }
 
-    private String escapeJson(String str) {
-        if (str == null) return "";
-        return str.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+    /**
+     * Histogramme des sévérités effectives et nombre de nœuds dont la sévérité effective dépasse
+     * la sévérité déclarée, calculés sur l'index en mémoire.
+     */
+    private void effectiveSeverityStatistics(Map<String, Object> stats) {
+        SeverityPropagation.Levels levels = SeverityPropagation.levels();
+        AdjacencySnapshot graph = levels.snapshot();
+        Map<String, Long> byEffectiveSeverity = new LinkedHashMap<>();
+        for (SeverityLevel level : SeverityLevel.values()) {
+            byEffectiveSeverity.put(level.name(), 0L);
+        }
+        long escalated = 0;
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            long id = graph.nodeId(node);
+            SeverityLevel effective = levels.effective(id);
+            if (effective != null) {
+                byEffectiveSeverity.merge(effective.name(), 1L, Long::sum);
+            }
+            if (levels.escalated(id)) {
+                escalated++;
+            }
+        }
+        stats.put("nodesByEffectiveSeverity", byEffectiveSeverity);
+        stats.put("escalatedNodes", escalated);
+    }
+
+    /**
+     * Exécute une requête d'agrégat (clé, COUNT) et renvoie l'histogramme correspondant.
+     * Les clés nulles sont regroupées sous "NONE".
+     */
+    private Map<String, Long> countBy(EntityManager em, String jpql) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : em.createQuery(jpql, Object[].class).getResultList()) {
+            String key = row[0] == null ? "NONE" : row[0].toString();
+            counts.merge(key, (Long) row[1], Long::sum);
+        }
+        return counts;
     }
 
     private String escapeHtml(String str) {
@@ -0,0 +1,112 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.observability.RequestContext;
+import com.detectivedex.observability.Span;
+import com.detectivedex.observability.Trace;
+import com.detectivedex.observability.Tracer;
+import jakarta.ws.rs.ext.Provider;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+import java.lang.reflect.Method;
+
+/**
+ * Rattache chaque requête à sa méthode de ressource (RequestContext) du début de la méthode jusqu'à
+ * la fin de l'écriture de la réponse, pour que les requêtes SQL d'un StreamingOutput en héritent aussi.
+ *
+ * Les requêtes échantillonnées par Tracer sont en plus tracées : phase racine, méthode de ressource
+ * puis écriture de la réponse, dans lesquelles s'imbriquent les phases de persistance.
+ */
+@Provider
+public class RequestObserver implements ApplicationEventListener {
+
+    private static final RequestEventListener TRACKER = event -> {
+        switch (event.getType()) {
+            case RESOURCE_METHOD_START -> RequestContext.enter(operation(event.getUriInfo().getMatchedResourceMethod()));
+            case FINISHED -> RequestContext.exit();
+            default -> {
+            }
+        }
+    };
+
+    @Override
+    public void onEvent(ApplicationEvent event) {
+    }
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent requestEvent) {
+        ContainerRequest request = requestEvent.getContainerRequest();
+        Trace trace = Tracer.begin(request.getMethod() + " /" + request.getPath(true), request.getHeaderString("traceparent"));
+        // Toujours rattachée, même nulle : le thread peut garder la trace d'une requête asynchrone précédente
+        Tracer.attach(trace);
+        if (trace == null) {
+            return TRACKER;
+        }
+        trace.root().attribute("http.request.method", request.getMethod())
+                .attribute("url.path", "/" + request.getPath(true));
+        return new TracingListener(trace);
+    }
+
+    /**
+     * "EvidenceNodeResource.getAllNodes"
+     */
+    static String operation(ResourceMethod resourceMethod) {
+        return operation(resourceMethod.getInvocable().getDefinitionMethod());
+    }
+
+    static String operation(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    private static final class TracingListener implements RequestEventListener {
+        private final Trace trace;
+        private Span method;
+        private Span serialization;
+
+        TracingListener(Trace trace) {
+            this.trace = trace;
+        }
+
+        @Override
+        public void onEvent(RequestEvent event) {
+            switch (event.getType()) {
+                case RESOURCE_METHOD_START -> {
+                    String operation = operation(event.getUriInfo().getMatchedResourceMethod());
+                    RequestContext.enter(operation);
+                    trace.setOperation(operation);
+                    method = trace.start("resource " + operation);
+                }
+                case RESOURCE_METHOD_FINISHED -> {
+                    if (method != null) {
+                        method.end();
+                    }
+                }
+                case RESP_FILTERS_FINISHED -> {
+                    if (event.getContainerResponse() != null && event.getContainerResponse().hasEntity()) {
+                        serialization = trace.start("serialize");
+                    }
+                }
+                case FINISHED -> {
+                    if (serialization != null) {
+                        serialization.attribute("http.response.body.size",
+                                event.getContainerRequest().getProperty(MetricsFilter.RESPONSE_BYTES));
+                    }
+                    ContainerResponse response = event.getContainerResponse();
+                    trace.root().attribute("http.response.status_code", response != null ? response.getStatus() : 500);
+                    if (event.getException() != null) {
+                        trace.root().attribute("error.type", event.getException().getClass().getName());
+                    }
+                    Tracer.finish(trace);
+                    RequestContext.exit();
+                }
+                default -> {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.persistence.UnitOfWork;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.ext.Provider;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * Ouvre l'unité de travail de chaque requête (UnitOfWork) au début de la méthode de ressource, en
+ * lecture seule pour GET et HEAD, et la ferme dès que la réponse est construite : la connexion est
+ * rendue au pool avant l'écriture du corps. En cas d'exception, elle est fermée en fin de requête.
+ */
+@Provider
+public class RequestPersistence implements ApplicationEventListener {
+
+    private static final RequestEventListener SCOPE = event -> {
+        switch (event.getType()) {
+            case RESOURCE_METHOD_START -> {
+                String method = event.getContainerRequest().getMethod();
+                UnitOfWork.openRequest(HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method));
+            }
+            case RESP_FILTERS_START, FINISHED -> UnitOfWork.closeRequest();
+            default -> {
+            }
+        }
+    };
+
+    @Override
+    public void onEvent(ApplicationEvent event) {
+    }
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent requestEvent) {
+        return SCOPE;
+    }
+}
@@ -0,0 +1,125 @@
+package com.detectivedex.rest;
+
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import com.detectivedex.dto.SearchHit;
+import com.detectivedex.dto.SearchResult;
+import com.detectivedex.graph.ChangeKind;
+import com.detectivedex.persistence.UnitOfWork;
+import com.detectivedex.search.Highlighter;
+import com.detectivedex.search.SearchIndex;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Endpoint REST de recherche plein texte dans les nœuds, les événements et les relations
+ */
+@Path("/search")
+@Produces(MediaType.APPLICATION_JSON)
+public class SearchResource {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    // Relecture des résultats affichés : id, titre, nœud à ouvrir, puis les champs indexés
+    private static final Map<ChangeKind, String> HIT_QUERIES = Map.of(
+            ChangeKind.NODE, "SELECT n.id, n.name, n.id, n.name, n.description "
+                    + "FROM EvidenceNode n WHERE n.id IN :ids",
+            ChangeKind.EVENT, "SELECT e.id, e.title, e.evidenceNode.id, e.title, e.description, e.evidence "
+                    + "FROM TimelineEvent e WHERE e.id IN :ids",
+            ChangeKind.RELATION, "SELECT r.id, r.relationType, r.sourceNode.id, r.description "
+                    + "FROM Relation r WHERE r.id IN :ids");
+    private static final Map<ChangeKind, String[]> HIT_FIELDS = Map.of(
+            ChangeKind.NODE, new String[] {"name", "description"},
+            ChangeKind.EVENT, new String[] {"title", "description", "evidence"},
+            ChangeKind.RELATION, new String[] {"description"});
+
+    /**
+     * Recherche les entités contenant tous les termes de q, classées par pertinence (BM25).
+     * kind restreint les types d'entité (NODE, EVENT, RELATION, séparés par des virgules).
+     */
+    @GET
+    public Response search(@QueryParam("q") String q,
+                           @QueryParam("kind") String kind,
+                           @QueryParam("limit") Integer limit) {
+        if (q == null || q.isBlank()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"q is required\"}")
+                    .build();
+        }
+        if (limit != null && (limit < 1 || limit > MAX_LIMIT)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"limit must be between 1 and " + MAX_LIMIT + "\"}")
+                    .build();
+        }
+        Set<ChangeKind> kinds = EnumSet.allOf(ChangeKind.class);
+        if (kind != null && !kind.isBlank()) {
+            kinds = EnumSet.noneOf(ChangeKind.class);
+            try {
+                for (String name : kind.split(",")) {
+                    kinds.add(ChangeKind.valueOf(name.trim().toUpperCase()));
+                }
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"error\":\"Invalid kind\"}")
+                        .build();
+            }
+        }
+
+        long start = System.nanoTime();
+        SearchIndex.Result result = SearchIndex.search(q, kinds, limit != null ? limit : DEFAULT_LIMIT);
+        long tookMicros = (System.nanoTime() - start) / 1000;
+
+        try (UnitOfWork work = UnitOfWork.read()) {
+            List<SearchHit> hits = hits(work.entityManager(), result);
+            return Response.ok(new SearchResult(q, result.total(), tookMicros, hits)).build();
+        }
+    }
+
+    /**
+     * Relit les entités trouvées (une requête par type) et construit les extraits, dans l'ordre du classement.
+     * Une entité supprimée entre la recherche et la relecture est omise.
+     */
+    private List<SearchHit> hits(EntityManager em, SearchIndex.Result result) {
+        Map<ChangeKind, List<Long>> ids = new LinkedHashMap<>();
+        for (SearchIndex.Hit hit : result.hits()) {
+            ids.computeIfAbsent(hit.kind(), k -> new ArrayList<>()).add(hit.entityId());
+        }
+        Map<ChangeKind, Map<Long, Object[]>> rows = new HashMap<>();
+        ids.forEach((kind, entityIds) -> {
+            Map<Long, Object[]> byId = new HashMap<>();
+            for (Object[] row : em.createQuery(HIT_QUERIES.get(kind), Object[].class)
+                    .setParameter("ids", entityIds)
+                    .getResultList()) {
+                byId.put((Long) row[0], row);
+            }
+            rows.put(kind, byId);
+        });
+
+        List<SearchHit> hits = new ArrayList<>(result.hits().size());
+        for (SearchIndex.Hit hit : result.hits()) {
+            Object[] row = rows.get(hit.kind()).get(hit.entityId());
+            if (row == null) {
+                continue;
+            }
+            String[] fields = HIT_FIELDS.get(hit.kind());
+            Map<String, String> highlights = new LinkedHashMap<>();
+            for (int i = 0; i < fields.length; i++) {
+                String fragment = Highlighter.highlight((String) row[3 + i], result.terms());
+                if (fragment != null) {
+                    highlights.put(fields[i], fragment);
+                }
+            }
+            hits.add(new SearchHit(hit.kind(), hit.entityId(), hit.score(), (String) row[1], (Long) row[2], highlights));
+        }
+        return hits;
+    }
+}
@@ -2,15 +2,20 @@ package com.detectivedex.rest;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import com.detectivedex.entity.EvidenceNode;
 import com.detectivedex.entity.TimelineEvent;
-import com.detectivedex.persistence.PersistenceManager;
+import com.detectivedex.graph.ChangeKind;
+import com.detectivedex.graph.ChangeOperation;
+import com.detectivedex.graph.GraphChangeLog;
+import com.detectivedex.persistence.UnitOfWork;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Endpoint REST pour la gestion de la timeline
@@ -20,25 +25,28 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 public class TimelineResource {
 
-    private EntityManager getEntityManager() {
-        return PersistenceManager.getEntityManager();
-    }
+    private static final KeysetQuery LIST_QUERY = new KeysetQuery("TimelineEvent", "e", "eventDate", Map.ofEntries(
+        Map.entry("id", "e.id"),
+        Map.entry("evidenceNodeId", "e.evidenceNode.id"),
+        Map.entry("title", "e.title"),
+        Map.entry("description", "e.description"),
+        Map.entry("eventDate", "e.eventDate"),
+        Map.entry("eventType", "e.eventType"),
+        Map.entry("evidence", "e.evidence"),
+        Map.entry("createdAt", "e.createdAt")
+    ));
 
     /**
-     * Récupère tous les événements de la timeline
+     * Récupère les événements de la timeline, du plus récent au plus ancien.
+     * Paginable par curseur (limit, cursor) et projetable (fields=id,title,...).
      */
     @GET
-    public Response getAllEvents() {
-        EntityManager em = getEntityManager();
-        try {
-            TypedQuery<TimelineEvent> query = em.createQuery(
-                "SELECT e FROM TimelineEvent e ORDER BY e.eventDate DESC",
-                TimelineEvent.class
-            );
-            List<TimelineEvent> events = query.getResultList();
-            return Response.ok(events).build();
-        } finally {
-            em.close();
+    public Response getAllEvents(@QueryParam("limit") Integer limit,
+                                 @QueryParam("cursor") String cursor,
+                                 @QueryParam("fields") String fields) {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
+            return LIST_QUERY.list(em, limit, cursor, fields);
         }
     }
 
@@ -48,8 +56,8 @@ public class TimelineResource {
     @GET
     @Path("/{id}")
     public Response getEventById(@PathParam("id") Long id) {
-        EntityManager em = getEntityManager();
-        try {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
             TimelineEvent event = em.find(TimelineEvent.class, id);
             if (event == null) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -57,8 +65,6 @@ public class TimelineResource {
                         .build();
             }
             return Response.ok(event).build();
-        } finally {
-            em.close();
         }
     }
 
@@ -67,12 +73,10 @@ public class TimelineResource {
      */
     @POST
     public Response createEvent(TimelineEvent event) {
-        EntityManager em = getEntityManager();
-        try {
-            em.getTransaction().begin();
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EntityManager em = work.entityManager();
             EvidenceNode node = em.find(EvidenceNode.class, event.getEvidenceNode().getId());
             if (node == null) {
-                em.getTransaction().rollback();
                 return Response.status(Response.Status.BAD_REQUEST)
                         .entity("{\"error\":\"Evidence node not found\"}")
                         .build();
@@ -82,20 +86,16 @@ public class TimelineResource {
             event.setCreatedAt(LocalDateTime.now());
 
             em.persist(event);
-            em.getTransaction().commit();
+            GraphChangeLog.record(em, ChangeKind.EVENT, event.getId(), ChangeOperation.CREATED);
+            work.commit();
 
             return Response.status(Response.Status.CREATED)
                     .entity(event)
                     .build();
         } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\":\"" + e.getMessage() + "\"}")
                     .build();
-        } finally {
-            em.close();
         }
     }
 
@@ -105,12 +105,10 @@ public class TimelineResource {
     @PUT
     @Path("/{id}")
     public Response updateEvent(@PathParam("id") Long id, TimelineEvent updatedEvent) {
-        EntityManager em = getEntityManager();
-        try {
-            em.getTransaction().begin();
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EntityManager em = work.entityManager();
             TimelineEvent event = em.find(TimelineEvent.class, id);
             if (event == null) {
-                em.getTransaction().rollback();
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("{\"error\":\"Event not found\"}")
                         .build();
@@ -123,17 +121,13 @@ public class TimelineResource {
             event.setEvidence(updatedEvent.getEvidence());
 
             em.merge(event);
-            em.getTransaction().commit();
+            GraphChangeLog.record(em, ChangeKind.EVENT, event.getId(), ChangeOperation.UPDATED);
+            work.commit();
             return Response.ok(event).build();
         } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\":\"" + e.getMessage() + "\"}")
                     .build();
-        } finally {
-            em.close();
         }
     }
 
@@ -143,29 +137,23 @@ public class TimelineResource {
     @DELETE
     @Path("/{id}")
     public Response deleteEvent(@PathParam("id") Long id) {
-        EntityManager em = getEntityManager();
-        try {
-            em.getTransaction().begin();
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EntityManager em = work.entityManager();
             TimelineEvent event = em.find(TimelineEvent.class, id);
             if (event == null) {
-                em.getTransaction().rollback();
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("{\"error\":\"Event not found\"}")
                         .build();
             }
 
             em.remove(event);
-            em.getTransaction().commit();
+            GraphChangeLog.record(em, ChangeKind.EVENT, event.getId(), ChangeOperation.DELETED);
+            work.commit();
             return Response.noContent().build();
         } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\":\"" + e.getMessage() + "\"}")
                     .build();
-        } finally {
-            em.close();
         }
     }
 
@@ -175,8 +163,8 @@ public class TimelineResource {
     @GET
     @Path("/node/{nodeId}")
     public Response getEventsForNode(@PathParam("nodeId") Long nodeId) {
-        EntityManager em = getEntityManager();
-        try {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
             EvidenceNode node = em.find(EvidenceNode.class, nodeId);
             if (node == null) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -189,10 +177,9 @@ public class TimelineResource {
                 TimelineEvent.class
             );
             query.setParameter("nodeId", nodeId);
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
             List<TimelineEvent> events = query.getResultList();
             return Response.ok(events).build();
-        } finally {
-            em.close();
         }
     }
 
@@ -202,17 +189,16 @@ public class TimelineResource {
     @GET
     @Path("/type/{type}")
     public Response getEventsByType(@PathParam("type") String type) {
-        EntityManager em = getEntityManager();
-        try {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            EntityManager em = work.entityManager();
             TypedQuery<TimelineEvent> query = em.createQuery(
                 "SELECT e FROM TimelineEvent e WHERE e.eventType = :type ORDER BY e.eventDate DESC",
                 TimelineEvent.class
             );
             query.setParameter("type", type);
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
             List<TimelineEvent> events = query.getResultList();
             return Response.ok(events).build();
-        } finally {
-            em.close();
         }
     }
 }
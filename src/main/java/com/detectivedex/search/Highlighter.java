@@ -0,0 +1,96 @@
+package com.detectivedex.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Extraits de texte avec les termes trouvés entourés de &lt;mark&gt;. Le texte est échappé pour
+ * HTML : l'extrait peut être inséré tel quel dans la page.
+ */
+public final class Highlighter {
+
+    // Longueur maximale d'un extrait et contexte conservé avant la première occurrence
+    static final int FRAGMENT_LENGTH = 200;
+    static final int LEADING_CONTEXT = 60;
+
+    private Highlighter() {
+    }
+
+    /**
+     * Extrait de text autour de la première occurrence d'un des termes, ou null si aucun n'y figure.
+     */
+    public static String highlight(String text, Set<String> terms) {
+        if (text == null || terms.isEmpty()) {
+            return null;
+        }
+        // Occurrences [start, end[ fusionnées : un indicateur composé recouvre ses parties
+        List<int[]> matches = new ArrayList<>();
+        Tokenizer.tokenize(text, (term, start, end) -> {
+            if (!terms.contains(term)) {
+                return;
+            }
+            int[] last = matches.isEmpty() ? null : matches.get(matches.size() - 1);
+            if (last != null && start <= last[1]) {
+                last[0] = Math.min(last[0], start);
+                last[1] = Math.max(last[1], end);
+                // Le composé arrive après ses parties : il peut recouvrir plusieurs occurrences
+                while (matches.size() > 1 && matches.get(matches.size() - 2)[1] >= last[0]) {
+                    int[] previous = matches.get(matches.size() - 2);
+                    previous[0] = Math.min(previous[0], last[0]);
+                    previous[1] = Math.max(previous[1], last[1]);
+                    matches.remove(matches.size() - 1);
+                    last = previous;
+                }
+            } else {
+                matches.add(new int[] {start, end});
+            }
+        });
+        if (matches.isEmpty()) {
+            return null;
+        }
+
+        int from = 0;
+        int to = text.length();
+        if (to > FRAGMENT_LENGTH) {
+            from = Math.max(0, Math.min(matches.get(0)[0] - LEADING_CONTEXT, text.length() - FRAGMENT_LENGTH));
+            to = from + FRAGMENT_LENGTH;
+        }
+        StringBuilder fragment = new StringBuilder();
+        if (from > 0) {
+            fragment.append('…');
+        }
+        int cursor = from;
+        for (int[] match : matches) {
+            int start = Math.max(match[0], from);
+            int end = Math.min(match[1], to);
+            if (start >= end) {
+                continue;
+            }
+            escape(text, cursor, start, fragment);
+            fragment.append("<mark>");
+            escape(text, start, end, fragment);
+            fragment.append("</mark>");
+            cursor = end;
+        }
+        escape(text, cursor, to, fragment);
+        if (to < text.length()) {
+            fragment.append('…');
+        }
+        return fragment.toString();
+    }
+
+    private static void escape(String text, int from, int to, StringBuilder into) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> into.append("&amp;");
+                case '<' -> into.append("&lt;");
+                case '>' -> into.append("&gt;");
+                case '"' -> into.append("&quot;");
+                case '\'' -> into.append("&#39;");
+                default -> into.append(c);
+            }
+        }
+    }
+}
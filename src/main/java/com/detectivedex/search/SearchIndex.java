@@ -0,0 +1,510 @@
+package com.detectivedex.search;
+
+import com.detectivedex.graph.ChangeKind;
+import com.detectivedex.graph.ChangeOperation;
+import com.detectivedex.graph.GraphChangeLog;
+import com.detectivedex.graph.TrackedIndex;
+import com.detectivedex.persistence.PersistenceManager;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Index inversé en mémoire sur les textes du graphe : nom et description des nœuds, titre,
+ * description et preuve des événements, description des relations.
+ *
+ * Chaque entité est un document ; chaque terme (voir Tokenizer) pointe vers la liste triée des
+ * documents qui le contiennent, avec sa fréquence. Une recherche exige tous les termes de la requête
+ * et classe les documents par BM25 ; elle parcourt la liste du terme le plus rare, les autres listes
+ * avançant par recherche exponentielle : un indicateur présent une fois coûte quelques microsecondes
+ * quelle que soit la taille de l'index.
+ *
+ * L'index suit le journal des modifications (voir TrackedIndex) : les écritures validées sont
+ * appliquées à la recherche suivante, en ne relisant que les entités modifiées, puis publiées dans
+ * une vue immuable (View) sur laquelle les recherches calculent leurs scores sans verrou, en parallèle.
+ */
+public final class SearchIndex {
+
+    // Au-delà, les modifications en attente sont abandonnées au profit d'un rechargement complet
+    static final int MAX_PENDING_CHANGES = 100_000;
+
+    // Poids d'un terme du nom d'un nœud ou du titre d'un événement, par rapport aux autres champs
+    static final int TITLE_BOOST = 3;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int IN_CHUNK_SIZE = 1000;
+    private static final int STREAM_FETCH_SIZE = 1000;
+    // Termes modifiés gardés à part dans une vue avant de recopier toute la table des termes
+    private static final int MAX_RECENT_TERMS = 4096;
+
+    private static final String NODE_COLUMNS = "n.id, n.name, n.description";
+    private static final String EVENT_COLUMNS = "e.id, e.title, e.description, e.evidence";
+    private static final String RELATION_COLUMNS = "r.id, r.description";
+
+    // Un déplacement ne touche aucun texte
+    private static final TrackedIndex<View> INDEX = new TrackedIndex<>(
+            change -> change.operation() != ChangeOperation.MOVED, MAX_PENDING_CHANGES,
+            SearchIndex::reload, SearchIndex::applyPending);
+
+    // Accédé par les fonctions de chargement et d'application de INDEX uniquement, sous son verrou
+    private static Store store;
+
+    static {
+        GraphChangeLog.addListener(INDEX::onChange);
+    }
+
+    private SearchIndex() {
+    }
+
+    /**
+     * Document trouvé : l'entité et son score BM25.
+     */
+    public record Hit(ChangeKind kind, long entityId, double score) {
+    }
+
+    /**
+     * Résultat d'une recherche : nombre total de documents trouvés, les limit meilleurs,
+     * et les termes recherchés (pour la mise en surbrillance).
+     */
+    public record Result(int total, List<Hit> hits, Set<String> terms) {
+    }
+
+    /**
+     * Recherche les documents contenant tous les termes de query, parmi les types kinds.
+     */
+    public static Result search(String query, Set<ChangeKind> kinds, int limit) {
+        Set<String> terms = Tokenizer.terms(query);
+        return INDEX.current().search(terms, kinds, limit);
+    }
+
+    /**
+     * Force un rechargement complet à la prochaine recherche.
+     */
+    public static void invalidate() {
+        INDEX.invalidate();
+    }
+
+    /**
+     * Chargement complet.
+     */
+    private static View reload() {
+        EntityManager em = PersistenceManager.getEntityManager();
+        try {
+            Store loaded = new Store();
+            try (Stream<Object[]> rows = em.createQuery("SELECT " + NODE_COLUMNS + " FROM EvidenceNode n", Object[].class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                    .getResultStream()) {
+                rows.forEach(row -> loaded.put(ChangeKind.NODE, row));
+            }
+            try (Stream<Object[]> rows = em.createQuery("SELECT " + EVENT_COLUMNS + " FROM TimelineEvent e", Object[].class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                    .getResultStream()) {
+                rows.forEach(row -> loaded.put(ChangeKind.EVENT, row));
+            }
+            try (Stream<Object[]> rows = em.createQuery("SELECT " + RELATION_COLUMNS
+                            + " FROM Relation r WHERE r.description IS NOT NULL", Object[].class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                    .getResultStream()) {
+                rows.forEach(row -> loaded.put(ChangeKind.RELATION, row));
+            }
+            store = loaded;
+            return loaded.publish();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Applique les dernières opérations par entité : les entités créées ou modifiées sont relues en base.
+     */
+    private static View applyPending(Map<ChangeKind, Map<Long, ChangeOperation>> changes) {
+        EntityManager em = null;
+        try {
+            for (Map.Entry<ChangeKind, Map<Long, ChangeOperation>> entry : changes.entrySet()) {
+                ChangeKind kind = entry.getKey();
+                List<Long> upserted = new ArrayList<>();
+                entry.getValue().forEach((id, operation) -> {
+                    // Une entité absente à la relecture a été supprimée depuis : la suppression suivra
+                    store.remove(kind, id);
+                    if (operation != ChangeOperation.DELETED) {
+                        upserted.add(id);
+                    }
+                });
+                if (upserted.isEmpty()) {
+                    continue;
+                }
+                if (em == null) {
+                    em = PersistenceManager.getEntityManager();
+                }
+                for (int from = 0; from < upserted.size(); from += IN_CHUNK_SIZE) {
+                    List<Long> chunk = upserted.subList(from, Math.min(from + IN_CHUNK_SIZE, upserted.size()));
+                    em.createQuery(rereadQuery(kind), Object[].class)
+                            .setParameter("ids", chunk)
+                            .getResultList()
+                            .forEach(row -> store.put(kind, row));
+                }
+            }
+        } finally {
+            if (em != null) {
+                em.close();
+            }
+        }
+        store.compactIfNeeded();
+        return store.publish();
+    }
+
+    private static String rereadQuery(ChangeKind kind) {
+        return switch (kind) {
+            case NODE -> "SELECT " + NODE_COLUMNS + " FROM EvidenceNode n WHERE n.id IN :ids";
+            case EVENT -> "SELECT " + EVENT_COLUMNS + " FROM TimelineEvent e WHERE e.id IN :ids";
+            case RELATION -> "SELECT " + RELATION_COLUMNS + " FROM Relation r WHERE r.id IN :ids";
+        };
+    }
+
+    /**
+     * Liste des documents contenant un terme, par numéro de document croissant, avec la fréquence
+     * (pondérée par champ) du terme dans chacun.
+     */
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private int[] frequencies = new int[2];
+        private int size;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size++] = frequency;
+        }
+
+        Slice slice() {
+            return new Slice(docs, frequencies, size);
+        }
+    }
+
+    /**
+     * Liste figée à sa taille de publication. Les tableaux sont partagés avec Postings : les ajouts
+     * suivants écrivent au-delà de size, ou dans une copie agrandie.
+     */
+    private record Slice(int[] docs, int[] frequencies, int size) {
+
+        /**
+         * Première position p >= from telle que docs[p] >= doc (ou size) : recherche exponentielle
+         * depuis from puis dichotomique, les candidats arrivant par numéro croissant.
+         */
+        int seek(int from, int doc) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && docs[high] < doc) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            int position = Arrays.binarySearch(docs, low, high, doc);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+
+    /**
+     * État modifiable de l'index, réservé au thread qui tient LOCK. Un document modifié est supprimé
+     * (marqué) puis ajouté sous un nouveau numéro, ce qui garde les listes triées ; les documents
+     * marqués sont purgés quand ils dominent. Les tableaux déjà publiés ne sont jamais réécrits :
+     * les ajouts se font au-delà des tailles publiées, la purge alloue de nouveaux tableaux.
+     */
+    static final class Store {
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<ChangeKind, Map<Long, Integer>> documents = new EnumMap<>(ChangeKind.class);
+        private ChangeKind[] docKinds = new ChangeKind[1024];
+        private long[] docEntities = new long[1024];
+        private int[] docLengths = new int[1024];
+        private final BitSet deleted = new BitSet();
+        private int docCount;
+        private int liveCount;
+        private long liveLength;
+        // Depuis la dernière publication
+        private final Set<String> touched = new HashSet<>();
+        private boolean deletedChanged;
+        private boolean renumbered;
+        private View published;
+
+        Store() {
+            for (ChangeKind kind : ChangeKind.values()) {
+                documents.put(kind, new HashMap<>());
+            }
+        }
+
+        /**
+         * Indexe une ligne NODE_COLUMNS, EVENT_COLUMNS ou RELATION_COLUMNS : l'id, puis le titre
+         * éventuel (pondéré) et les autres champs.
+         */
+        void put(ChangeKind kind, Object[] row) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (int field = 1; field < row.length; field++) {
+                int weight = field == 1 && kind != ChangeKind.RELATION ? TITLE_BOOST : 1;
+                Tokenizer.tokenize((String) row[field], (term, start, end) -> frequencies.merge(term, weight, Integer::sum));
+            }
+            long id = (Long) row[0];
+            remove(kind, id);
+            if (frequencies.isEmpty()) {
+                return;
+            }
+            if (docCount == docKinds.length) {
+                int capacity = docCount * 2;
+                docKinds = Arrays.copyOf(docKinds, capacity);
+                docEntities = Arrays.copyOf(docEntities, capacity);
+                docLengths = Arrays.copyOf(docLengths, capacity);
+            }
+            int doc = docCount++;
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+                touched.add(entry.getKey());
+                length += entry.getValue();
+            }
+            docKinds[doc] = kind;
+            docEntities[doc] = id;
+            docLengths[doc] = length;
+            documents.get(kind).put(id, doc);
+            liveCount++;
+            liveLength += length;
+        }
+
+        void remove(ChangeKind kind, long id) {
+            Integer doc = documents.get(kind).remove(id);
+            if (doc != null) {
+                deleted.set(doc);
+                deletedChanged = true;
+                liveCount--;
+                liveLength -= docLengths[doc];
+            }
+        }
+
+        /**
+         * Renumérote les documents vivants dès que les documents supprimés sont majoritaires.
+         */
+        void compactIfNeeded() {
+            int dead = docCount - liveCount;
+            if (dead < 1024 || dead < liveCount) {
+                return;
+            }
+            int[] numbers = new int[docCount];
+            ChangeKind[] kinds = new ChangeKind[docKinds.length];
+            long[] entities = new long[docKinds.length];
+            int[] lengths = new int[docKinds.length];
+            int next = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                if (deleted.get(doc)) {
+                    numbers[doc] = -1;
+                    continue;
+                }
+                numbers[doc] = next;
+                kinds[next] = docKinds[doc];
+                entities[next] = docEntities[doc];
+                lengths[next] = docLengths[doc];
+                documents.get(kinds[next]).put(entities[next], next);
+                next++;
+            }
+            postings.values().removeIf(list -> {
+                int[] docs = new int[Math.max(2, list.size)];
+                int[] frequencies = new int[docs.length];
+                int kept = 0;
+                for (int i = 0; i < list.size; i++) {
+                    int doc = numbers[list.docs[i]];
+                    if (doc >= 0) {
+                        docs[kept] = doc;
+                        frequencies[kept++] = list.frequencies[i];
+                    }
+                }
+                list.docs = docs;
+                list.frequencies = frequencies;
+                list.size = kept;
+                return kept == 0;
+            });
+            docKinds = kinds;
+            docEntities = entities;
+            docLengths = lengths;
+            deleted.clear();
+            docCount = next;
+            renumbered = true;
+        }
+
+        /**
+         * Vue immuable de l'état courant. Les termes modifiés depuis la dernière copie complète de la
+         * table des termes forment une petite table à part, recopiée à chaque publication ; la copie
+         * complète n'a lieu qu'après une purge ou quand cette table dépasse MAX_RECENT_TERMS.
+         */
+        View publish() {
+            Map<String, Slice> base;
+            Map<String, Slice> recent;
+            if (published == null || renumbered || published.recent.size() + touched.size() > MAX_RECENT_TERMS) {
+                base = new HashMap<>();
+                postings.forEach((term, list) -> base.put(term, list.slice()));
+                recent = Map.of();
+            } else {
+                base = published.base;
+                recent = new HashMap<>(published.recent);
+                touched.forEach(term -> recent.put(term, postings.get(term).slice()));
+            }
+            BitSet dead = published == null || deletedChanged || renumbered ? (BitSet) deleted.clone() : published.deleted;
+            touched.clear();
+            deletedChanged = false;
+            renumbered = false;
+            published = new View(base, recent, docKinds, docEntities, docLengths, dead, liveCount, liveLength);
+            return published;
+        }
+    }
+
+    /**
+     * État publié de l'index, partagé sans verrou par les recherches. Rien n'y est modifié après
+     * publication : les documents ajoutés depuis ne figurent dans aucune de ses listes.
+     */
+    static final class View {
+        private final Map<String, Slice> base;
+        private final Map<String, Slice> recent;
+        private final ChangeKind[] docKinds;
+        private final long[] docEntities;
+        private final int[] docLengths;
+        private final BitSet deleted;
+        private final int liveCount;
+        private final long liveLength;
+
+        private View(Map<String, Slice> base, Map<String, Slice> recent, ChangeKind[] docKinds, long[] docEntities,
+                     int[] docLengths, BitSet deleted, int liveCount, long liveLength) {
+            this.base = base;
+            this.recent = recent;
+            this.docKinds = docKinds;
+            this.docEntities = docEntities;
+            this.docLengths = docLengths;
+            this.deleted = deleted;
+            this.liveCount = liveCount;
+            this.liveLength = liveLength;
+        }
+
+        private Slice postings(String term) {
+            Slice list = recent.get(term);
+            return list != null ? list : base.get(term);
+        }
+
+        /**
+         * Termes exigés par la requête. Un indicateur composé absent de l'index (un domaine cherché
+         * sans son sous-domaine, par exemple) est remplacé par ses parties.
+         */
+        private List<String> requiredTerms(Set<String> terms) {
+            List<String> required = new ArrayList<>();
+            for (String term : terms) {
+                boolean part = terms.stream().anyMatch(other -> other.length() > term.length()
+                        && postings(other) != null && isPart(term, other));
+                if (!part && (postings(term) != null || !isCompound(term))) {
+                    required.add(term);
+                }
+            }
+            return required;
+        }
+
+        Result search(Set<String> terms, Set<ChangeKind> kinds, int limit) {
+            List<String> required = requiredTerms(terms);
+            if (required.isEmpty() || liveCount == 0) {
+                return new Result(0, List.of(), terms);
+            }
+            Slice[] lists = new Slice[required.size()];
+            double[] idf = new double[lists.length];
+            for (int t = 0; t < lists.length; t++) {
+                lists[t] = postings(required.get(t));
+                if (lists[t] == null) {
+                    return new Result(0, List.of(), terms);
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(Slice::size));
+            for (int t = 0; t < lists.length; t++) {
+                // La fréquence documentaire inclut les documents supprimés non purgés : approximation assumée
+                int df = Math.min(lists[t].size, liveCount);
+                idf[t] = Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+            }
+            double averageLength = (double) liveLength / liveCount;
+
+            boolean[] wanted = new boolean[ChangeKind.values().length];
+            kinds.forEach(kind -> wanted[kind.ordinal()] = true);
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+            int total = 0;
+            Slice rarest = lists[0];
+            int[] cursors = new int[lists.length];
+            candidates:
+            for (int i = 0; i < rarest.size; i++) {
+                int doc = rarest.docs[i];
+                // Intersection : les autres listes avancent avec les candidats, sans revenir en arrière
+                for (int t = 1; t < lists.length; t++) {
+                    cursors[t] = lists[t].seek(cursors[t], doc);
+                    if (cursors[t] == lists[t].size) {
+                        break candidates;
+                    }
+                    if (lists[t].docs[cursors[t]] != doc) {
+                        continue candidates;
+                    }
+                }
+                if (deleted.get(doc) || !wanted[docKinds[doc].ordinal()]) {
+                    continue;
+                }
+                double norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+                double score = 0;
+                for (int t = 0; t < lists.length; t++) {
+                    int frequency = t == 0 ? rarest.frequencies[i] : lists[t].frequencies[cursors[t]];
+                    score += idf[t] * frequency * (K1 + 1) / (frequency + norm);
+                }
+                total++;
+                if (top.size() < limit) {
+                    top.add(new Hit(docKinds[doc], docEntities[doc], score));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Hit(docKinds[doc], docEntities[doc], score));
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+            return new Result(total, hits, terms);
+        }
+
+        private static boolean isCompound(String term) {
+            for (int i = 0; i < term.length(); i++) {
+                if (!Character.isLetterOrDigit(term.charAt(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Vrai si part est l'un des segments de l'indicateur composé compound.
+         */
+        private static boolean isPart(String part, String compound) {
+            int from = 0;
+            while ((from = compound.indexOf(part, from)) >= 0) {
+                int end = from + part.length();
+                boolean startsSegment = from == 0 || !Character.isLetterOrDigit(compound.charAt(from - 1));
+                boolean endsSegment = end == compound.length() || !Character.isLetterOrDigit(compound.charAt(end));
+                if (startsSegment && endsSegment) {
+                    return true;
+                }
+                from++;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.detectivedex.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Découpage du texte en termes d'index.
+ *
+ * Les termes sont les suites de lettres et chiffres, en minuscules et sans accents. Les indicateurs
+ * collés par des séparateurs internes (. - _ : / @) sont aussi indexés d'un seul tenant :
+ * "evil-cdn.example.com" produit "evil-cdn.example.com", "evil", "cdn", "example" et "com", ce qui
+ * permet de retrouver exactement une IP, un domaine ou une URL collés tels quels.
+ */
+public final class Tokenizer {
+
+    private static final String JOINERS = ".-_:/@";
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Terme rencontré dans le texte, avec sa position [start, end[ dans le texte d'origine.
+     */
+    public interface TokenSink {
+        void token(String term, int start, int end);
+    }
+
+    /**
+     * Termes distincts du texte, dans l'ordre d'apparition.
+     */
+    public static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(text, (term, start, end) -> terms.add(term));
+        return terms;
+    }
+
+    /**
+     * Émet les termes du texte : pour un indicateur composé, ses parties puis l'indicateur entier.
+     */
+    public static void tokenize(String text, TokenSink sink) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        StringBuilder folded = new StringBuilder();
+        int i = 0;
+        while (i < length) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            // Suite de mots reliés par un séparateur isolé : un indicateur composé
+            int runStart = i;
+            int parts = 0;
+            folded.setLength(0);
+            while (true) {
+                int partStart = i;
+                int foldedStart = folded.length();
+                while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                    folded.append(fold(text.charAt(i)));
+                    i++;
+                }
+                sink.token(folded.substring(foldedStart), partStart, i);
+                parts++;
+                if (i + 1 < length && JOINERS.indexOf(text.charAt(i)) >= 0
+                        && Character.isLetterOrDigit(text.charAt(i + 1))) {
+                    folded.append(text.charAt(i));
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            if (parts > 1) {
+                sink.token(folded.toString(), runStart, i);
+            }
+        }
+    }
+
+    private static char fold(char c) {
+        if (c < 128) {
+            return Character.toLowerCase(c);
+        }
+        // Une lettre accentuée se décompose en lettre de base suivie de diacritiques
+        return Character.toLowerCase(Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0));
+    }
+}
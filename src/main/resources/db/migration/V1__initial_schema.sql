@@ -0,0 +1,57 @@
+-- Schéma initial, identique à celui que générait hbm2ddl.auto=update, en types communs à H2 et PostgreSQL.
+-- Les valeurs des colonnes enum sont contrôlées par l'application.
+
+CREATE SEQUENCE evidence_nodes_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE relations_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE timeline_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE evidence_nodes (
+    id          BIGINT       NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    description TEXT,
+    nodeType    VARCHAR(255) NOT NULL,
+    severity    VARCHAR(255) NOT NULL,
+    positionX   DOUBLE PRECISION DEFAULT 0.0 NOT NULL,
+    positionY   DOUBLE PRECISION DEFAULT 0.0 NOT NULL,
+    color       VARCHAR(255) NOT NULL,
+    createdAt   TIMESTAMP(6) NOT NULL,
+    updatedAt   TIMESTAMP(6) NOT NULL,
+    status      VARCHAR(50),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE relations (
+    id             BIGINT       NOT NULL,
+    source_node_id BIGINT       NOT NULL,
+    target_node_id BIGINT       NOT NULL,
+    relationType   VARCHAR(100) NOT NULL,
+    description    TEXT,
+    createdAt      TIMESTAMP(6) NOT NULL,
+    confirmed      BOOLEAN      NOT NULL,
+    confidence     VARCHAR(50),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_relations_source FOREIGN KEY (source_node_id) REFERENCES evidence_nodes (id),
+    CONSTRAINT fk_relations_target FOREIGN KEY (target_node_id) REFERENCES evidence_nodes (id)
+);
+
+CREATE TABLE timeline_events (
+    id               BIGINT       NOT NULL,
+    evidence_node_id BIGINT       NOT NULL,
+    title            VARCHAR(255) NOT NULL,
+    description      TEXT,
+    eventDate        TIMESTAMP(6) NOT NULL,
+    eventType        VARCHAR(50),
+    evidence         TEXT,
+    createdAt        TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_timeline_events_node FOREIGN KEY (evidence_node_id) REFERENCES evidence_nodes (id)
+);
+
+CREATE TABLE graph_changes (
+    version    BIGINT       NOT NULL,
+    entityKind VARCHAR(20)  NOT NULL,
+    entityId   BIGINT       NOT NULL,
+    operation  VARCHAR(20)  NOT NULL,
+    changedAt  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (version)
+);
@@ -0,0 +1,26 @@
+-- Index composites des requêtes de liste : filtre d'égalité puis colonne de tri, et (date, id)
+-- pour la pagination par curseur (KeysetQuery trie par date puis id décroissants).
+
+-- GET /nodes, /reports/export/* : ORDER BY createdAt DESC, id DESC
+CREATE INDEX idx_nodes_created ON evidence_nodes (createdAt, id);
+-- GET /nodes/type/{type}, sources du rayon d'impact (nodeType IN), index des IOC
+CREATE INDEX idx_nodes_type_created ON evidence_nodes (nodeType, createdAt);
+-- GET /nodes/severity/{severity}, statistiques par sévérité
+CREATE INDEX idx_nodes_severity_created ON evidence_nodes (severity, createdAt);
+-- GET /nodes/status/{status}, statistiques par statut
+CREATE INDEX idx_nodes_status_created ON evidence_nodes (status, createdAt);
+
+-- GET /relations : ORDER BY createdAt DESC, id DESC
+CREATE INDEX idx_relations_created ON relations (createdAt, id);
+-- GET /relations/from/{id}, /relations/to/{id}, suppression en cascade d'un nœud
+CREATE INDEX idx_relations_source_created ON relations (source_node_id, createdAt);
+CREATE INDEX idx_relations_target_created ON relations (target_node_id, createdAt);
+-- GET /relations/type/{type}, statistiques par type
+CREATE INDEX idx_relations_type_created ON relations (relationType, createdAt);
+
+-- GET /timeline : ORDER BY eventDate DESC, id DESC
+CREATE INDEX idx_events_date ON timeline_events (eventDate, id);
+-- GET /timeline/node/{id}, suppression en cascade d'un nœud
+CREATE INDEX idx_events_node_date ON timeline_events (evidence_node_id, eventDate);
+-- GET /timeline/type/{type}
+CREATE INDEX idx_events_type_date ON timeline_events (eventType, eventDate);
@@ -5,6 +5,16 @@
 
 const API_BASE_URL = 'http://localhost:8080/detectivedex/api';
 
+// Construit une query string à partir des paramètres définis
+function toQueryString(params) {
+    const query = new URLSearchParams();
+    Object.entries(params || {}).forEach(([key, value]) => {
+        if (value !== undefined && value !== null) query.append(key, value);
+    });
+    const text = query.toString();
+    return text ? `?${text}` : '';
+}
+
 // Helper function for error handling
 async function handleFetch(response) {
     const text = await response.text();
@@ -17,8 +27,9 @@ async function handleFetch(response) {
 const API = {
     // ============== NODES ==============
     
-    getAllNodes() {
-        return fetch(`${API_BASE_URL}/nodes`)
+    // params optionnels : { limit, cursor, fields }
+    getAllNodes(params) {
+        return fetch(`${API_BASE_URL}/nodes${toQueryString(params)}`)
             .then(handleFetch);
     },
 
@@ -47,6 +58,17 @@ const API = {
         }).then(handleFetch);
     },
 
+    // positions : [{ id, positionX, positionY }] ; une seule requête pour toute une sélection
+    updateNodePositions(positions) {
+        return fetch(`${API_BASE_URL}/nodes/positions`, {
+            method: 'PATCH',
+            headers: {
+                'Content-Type': 'application/json'
+            },
+            body: JSON.stringify(positions)
+        }).then(handleFetch);
+    },
+
     deleteNode(id) {
         return fetch(`${API_BASE_URL}/nodes/${id}`, {
             method: 'DELETE'
@@ -70,8 +92,8 @@ const API = {
 
     // ============== RELATIONS ==============
 
-    getAllRelations() {
-        return fetch(`${API_BASE_URL}/relations`)
+    getAllRelations(params) {
+        return fetch(`${API_BASE_URL}/relations${toQueryString(params)}`)
             .then(handleFetch);
     },
 
@@ -123,8 +145,8 @@ const API = {
 
     // ============== TIMELINE ==============
 
-    getAllTimelineEvents() {
-        return fetch(`${API_BASE_URL}/timeline`)
+    getAllTimelineEvents(params) {
+        return fetch(`${API_BASE_URL}/timeline${toQueryString(params)}`)
             .then(handleFetch);
     },
 
@@ -169,6 +191,82 @@ const API = {
             .then(handleFetch);
     },
 
+    // ============== GRAPH ==============
+
+    // Renvoie { notModified, etag, graph } ; graph est null si l'ETag fourni est toujours valide
+    getGraph(etag) {
+        const headers = etag ? { 'If-None-Match': etag } : {};
+        return fetch(`${API_BASE_URL}/graph`, { headers })
+            .then(response => {
+                if (response.status === 304) {
+                    return { notModified: true, etag, graph: null };
+                }
+                return handleFetch(response).then(graph => ({
+                    notModified: false,
+                    etag: response.headers.get('ETag'),
+                    graph
+                }));
+            });
+    },
+
+    getGraphChanges(since) {
+        return fetch(`${API_BASE_URL}/graph/changes?since=${since}`)
+            .then(handleFetch);
+    },
+
+    // direction : 'out', 'in' ou 'both'
+    getGraphEdges(nodeId, direction = 'both') {
+        return fetch(`${API_BASE_URL}/graph/edges/${nodeId}${toQueryString({ direction })}`)
+            .then(handleFetch);
+    },
+
+    // params : { from, to, maxDepth, weighted, directed }
+    findGraphPath(params) {
+        return fetch(`${API_BASE_URL}/graph/paths${toQueryString(params)}`)
+            .then(handleFetch);
+    },
+
+    // params optionnels : { depth, direction, limit }
+    getNeighbourhood(nodeId, params) {
+        return fetch(`${API_BASE_URL}/graph/neighbourhood/${nodeId}${toQueryString(params)}`)
+            .then(handleFetch);
+    },
+
+    getGraphAnalytics(top) {
+        return fetch(`${API_BASE_URL}/graph/analytics${toQueryString({ top })}`)
+            .then(handleFetch);
+    },
+
+    getBlastRadius(nodeId, limit) {
+        return fetch(`${API_BASE_URL}/graph/blast-radius/${nodeId}${toQueryString({ limit })}`)
+            .then(handleFetch);
+    },
+
+    // onBatch reçoit { version, reset, changes } ; renvoie l'EventSource pour pouvoir le fermer
+    subscribeGraphChanges(onBatch) {
+        const source = new EventSource(`${API_BASE_URL}/graph/stream`);
+        source.addEventListener('graph-changes', event => onBatch(JSON.parse(event.data)));
+        return source;
+    },
+
+    // ============== SEARCH ==============
+
+    // params optionnels : { kind, limit } ; les extraits (highlights) sont déjà échappés pour HTML
+    search(q, params) {
+        return fetch(`${API_BASE_URL}/search${toQueryString({ q, ...params })}`)
+            .then(handleFetch);
+    },
+
+    lookupIndicators(indicators) {
+        return fetch(`${API_BASE_URL}/ioc/lookup`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json'
+            },
+            body: JSON.stringify(indicators)
+        }).then(handleFetch);
+    },
+
     // ============== REPORTS ==============
 
     exportJsonReport() {
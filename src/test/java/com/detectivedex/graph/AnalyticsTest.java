@@ -0,0 +1,82 @@
+package com.detectivedex.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des analyses sur un instantané construit à la main :
+ * chaîne 1 -> 2 -> 3 -> 4, et un nœud 5 isolé.
+ */
+class AnalyticsTest {
+
+    private static AdjacencySnapshot graph() {
+        long[] nodeIds = {1, 2, 3, 4, 5};
+        LongIntHashMap index = new LongIntHashMap(nodeIds.length);
+        for (int i = 0; i < nodeIds.length; i++) {
+            index.put(nodeIds[i], i);
+        }
+        byte flags = AdjacencySnapshot.flags(true, "HIGH");
+        return new AdjacencySnapshot(1, nodeIds, index,
+                new long[] {10, 11, 12},
+                new int[] {0, 1, 2},
+                new int[] {1, 2, 3},
+                new short[] {0, 0, 0},
+                new byte[] {flags, flags, flags},
+                new String[] {"LEADS_TO"});
+    }
+
+    @Test
+    void testCompute_CentralityComponentsAndBlastRadius() {
+        Analytics.Result result = Analytics.compute(graph(), new long[] {1, 3, 99});
+
+        assertArrayEquals(new int[] {1, 2, 2, 1, 0}, result.degree());
+        assertEquals(2, result.componentCount());
+        assertEquals(4, result.largestComponentSize());
+        assertEquals(result.component()[0], result.component()[3]);
+        assertNotEquals(result.component()[0], result.component()[4]);
+
+        assertEquals(1.0, Arrays.stream(result.pageRank()).sum(), 1e-6);
+        assertTrue(result.pageRank()[3] > result.pageRank()[0]);
+
+        // Sur la chaîne 1-2-3-4, les nœuds intérieurs sont chacun sur 2 plus courts chemins
+        assertFalse(result.betweennessSampled());
+        assertArrayEquals(new double[] {0, 2, 2, 0, 0}, result.betweenness(), 1e-9);
+
+        // L'id 99 est inconnu de l'instantané
+        assertArrayEquals(new int[] {0, 2}, result.blastSources());
+        assertArrayEquals(new int[] {3, 1}, result.blastRadius());
+    }
+
+    @Test
+    void testOf_CachedUntilSnapshotChanges() {
+        AdjacencySnapshot graph = graph();
+        Analytics.Result first = Analytics.of(graph, () -> new long[0]);
+        assertSame(first, Analytics.of(graph, () -> fail("Should not recompute")));
+        assertNotSame(first, Analytics.of(graph(), () -> new long[0]));
+    }
+
+    @Test
+    void testBlastRadius_SharedWithinStronglyConnectedComponent() {
+        long[] nodeIds = {1, 2, 3};
+        LongIntHashMap index = new LongIntHashMap(nodeIds.length);
+        for (int i = 0; i < nodeIds.length; i++) {
+            index.put(nodeIds[i], i);
+        }
+        // 1 <-> 2 -> 3
+        AdjacencySnapshot cycle = new AdjacencySnapshot(1, nodeIds, index,
+                new long[] {10, 11, 12},
+                new int[] {0, 1, 1},
+                new int[] {1, 0, 2},
+                new short[] {0, 0, 0},
+                new byte[3],
+                new String[] {"CAUSES"});
+
+        int[] scc = Analytics.stronglyConnected(cycle);
+        assertEquals(scc[0], scc[1]);
+        assertNotEquals(scc[0], scc[2]);
+        assertArrayEquals(new int[] {2, 2, 0}, Analytics.blastRadius(cycle, new int[] {0, 1, 2}));
+    }
+}
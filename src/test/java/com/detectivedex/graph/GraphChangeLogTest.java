@@ -0,0 +1,35 @@
+package com.detectivedex.graph;
+
+import com.detectivedex.persistence.PersistenceManager;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'allocation des versions du journal des modifications
+ */
+class GraphChangeLogTest {
+
+    @Test
+    void testRecord_FailureReleasesVersion() {
+        long before = GraphChangeLog.version();
+        EntityManager closed = PersistenceManager.getEntityManager();
+        closed.close();
+        assertThrows(RuntimeException.class,
+                () -> GraphChangeLog.record(closed, ChangeKind.NODE, 1L, ChangeOperation.UPDATED));
+        assertTrue(GraphChangeLog.version() > before);
+
+        long version;
+        EntityManager em = PersistenceManager.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            version = GraphChangeLog.record(em, ChangeKind.NODE, 1L, ChangeOperation.UPDATED);
+            assertEquals(version - 1, GraphChangeLog.version());
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+        assertEquals(version, GraphChangeLog.version());
+    }
+}
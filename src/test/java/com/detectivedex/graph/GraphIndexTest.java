@@ -0,0 +1,71 @@
+package com.detectivedex.graph;
+
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.Relation;
+import com.detectivedex.entity.SeverityLevel;
+import com.detectivedex.rest.EvidenceNodeResource;
+import com.detectivedex.rest.RelationResource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'index d'adjacence en mémoire
+ */
+class GraphIndexTest {
+
+    @Test
+    void testLongIntHashMap_PutGetRemoveWithGrowth() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i * 64L, i);
+        }
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i += 2) {
+            assertEquals(i, map.remove(i * 64L));
+        }
+        assertEquals(5_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 2 == 0 ? LongIntHashMap.MISSING : i, map.get(i * 64L));
+        }
+        assertEquals(LongIntHashMap.MISSING, map.remove(-1L));
+    }
+
+    @Test
+    void testSnapshot_FollowsRelationWrites() {
+        EvidenceNodeResource nodes = new EvidenceNodeResource();
+        RelationResource relations = new RelationResource();
+        EvidenceNode attacker = (EvidenceNode) nodes.createNode(
+                new EvidenceNode("Index attacker", NodeType.ATTACKER, SeverityLevel.HIGH)).getEntity();
+        EvidenceNode host = (EvidenceNode) nodes.createNode(
+                new EvidenceNode("Index host", NodeType.ENDPOINT, SeverityLevel.LOW)).getEntity();
+
+        AdjacencySnapshot before = GraphIndex.snapshot();
+        int attackerIndex = before.nodeIndex(attacker.getId());
+        assertTrue(attackerIndex >= 0);
+        assertEquals(0, before.outDegree(attackerIndex));
+
+        Relation created = new Relation(attacker, host, "EXPLOITS");
+        created.setConfidence("HIGH");
+        created.setConfirmed(true);
+        Relation relation = (Relation) relations.createRelation(created).getEntity();
+
+        AdjacencySnapshot after = GraphIndex.snapshot();
+        int source = after.nodeIndex(attacker.getId());
+        assertEquals(1, after.outDegree(source));
+        int edge = after.outEdgeAt(after.outStart(source));
+        assertEquals(relation.getId(), after.edgeId(edge));
+        assertEquals(host.getId(), after.nodeId(after.edgeTarget(edge)));
+        assertEquals("EXPLOITS", after.relationType(edge));
+        assertTrue(after.confirmed(edge));
+        assertEquals(AdjacencySnapshot.CONFIDENCE_HIGH, after.confidence(edge));
+        assertEquals(1, after.inDegree(after.nodeIndex(host.getId())));
+        assertTrue(after.version() > before.version());
+
+        nodes.deleteNode(host.getId());
+        AdjacencySnapshot deleted = GraphIndex.snapshot();
+        assertEquals(-1, deleted.nodeIndex(host.getId()));
+        assertEquals(0, deleted.outDegree(deleted.nodeIndex(attacker.getId())));
+    }
+}
@@ -0,0 +1,118 @@
+package com.detectivedex.graph;
+
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.Relation;
+import com.detectivedex.entity.SeverityLevel;
+import com.detectivedex.rest.EvidenceNodeResource;
+import com.detectivedex.rest.RelationResource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la propagation des sévérités, sur un instantané construit à la main puis à travers l'API :
+ * 1 CAUSES 2 (confirmée), 3 EXPLOITS 4 (confiance MEDIUM), 2 RELATED_TO 5 et le cycle 5 CAUSES 6, 6 CAUSES 5.
+ */
+class SeverityPropagationTest {
+
+    private static final long[] NODE_IDS = {1, 2, 3, 4, 5, 6};
+
+    private static AdjacencySnapshot graph() {
+        LongIntHashMap index = new LongIntHashMap(NODE_IDS.length);
+        for (int i = 0; i < NODE_IDS.length; i++) {
+            index.put(NODE_IDS[i], i);
+        }
+        byte confirmed = AdjacencySnapshot.flags(true, null);
+        byte medium = AdjacencySnapshot.flags(false, "MEDIUM");
+        return new AdjacencySnapshot(1, NODE_IDS, index,
+                new long[] {10, 11, 12, 13, 14},
+                new int[] {0, 2, 1, 4, 5},
+                new int[] {1, 3, 4, 5, 4},
+                new short[] {0, 1, 2, 0, 0},
+                new byte[] {confirmed, medium, confirmed, confirmed, medium},
+                new String[] {"CAUSES", "EXPLOITS", "RELATED_TO"});
+    }
+
+    private static LongIntHashMap declared(SeverityLevel... levels) {
+        LongIntHashMap declared = new LongIntHashMap(levels.length);
+        for (int i = 0; i < levels.length; i++) {
+            declared.put(NODE_IDS[i], levels[i].getScore());
+        }
+        return declared;
+    }
+
+    @Test
+    void testPropagate_FollowsRelationDirectionAndConfidence() {
+        AdjacencySnapshot graph = graph();
+        LongIntHashMap declared = declared(SeverityLevel.LOW, SeverityLevel.CRITICAL, SeverityLevel.HIGH,
+                SeverityLevel.LOW, SeverityLevel.INFO, SeverityLevel.MEDIUM);
+        LongIntHashMap effective = new LongIntHashMap(NODE_IDS.length);
+        SeverityPropagation.propagate(graph, declared, effective, new int[] {0, 1, 2, 3, 4, 5});
+
+        // La cause hérite de l'effet ; RELATED_TO ne transmet rien
+        assertEquals(SeverityLevel.CRITICAL.getScore(), effective.get(1));
+        assertEquals(SeverityLevel.CRITICAL.getScore(), effective.get(2));
+        // L'exploitation descend vers la faille, atténuée d'un niveau (MEDIUM non confirmée)
+        assertEquals(SeverityLevel.MEDIUM.getScore(), effective.get(4));
+        assertEquals(SeverityLevel.HIGH.getScore(), effective.get(3));
+        // Le cycle 5 <-> 6 converge : 5 reçoit MEDIUM de 6 (confirmée), 6 ne reçoit que LOW de 5
+        assertEquals(SeverityLevel.MEDIUM.getScore(), effective.get(5));
+        assertEquals(SeverityLevel.MEDIUM.getScore(), effective.get(6));
+    }
+
+    @Test
+    void testPropagate_IncrementalDecreaseMatchesFullComputation() {
+        AdjacencySnapshot graph = graph();
+        LongIntHashMap declared = declared(SeverityLevel.LOW, SeverityLevel.CRITICAL, SeverityLevel.HIGH,
+                SeverityLevel.LOW, SeverityLevel.INFO, SeverityLevel.MEDIUM);
+        LongIntHashMap effective = new LongIntHashMap(NODE_IDS.length);
+        SeverityPropagation.propagate(graph, declared, effective, new int[] {0, 1, 2, 3, 4, 5});
+
+        // L'incident 2 est rétrogradé : seul le nœud 2 est semé, la cause 1 suit
+        declared.put(2, SeverityLevel.LOW.getScore());
+        SeverityPropagation.propagate(graph, declared, effective, new int[] {1});
+
+        LongIntHashMap expected = new LongIntHashMap(NODE_IDS.length);
+        SeverityPropagation.propagate(graph, declared, expected, new int[] {0, 1, 2, 3, 4, 5});
+        for (long id : NODE_IDS) {
+            assertEquals(expected.get(id), effective.get(id), "node " + id);
+        }
+        assertEquals(SeverityLevel.LOW.getScore(), effective.get(1));
+    }
+
+    @Test
+    void testLevels_FollowRelationWrites() {
+        EvidenceNodeResource nodes = new EvidenceNodeResource();
+        RelationResource relations = new RelationResource();
+        EvidenceNode artifact = (EvidenceNode) nodes.createNode(
+                new EvidenceNode("Propagation artifact", NodeType.ARTIFACT, SeverityLevel.LOW)).getEntity();
+        EvidenceNode incident = (EvidenceNode) nodes.createNode(
+                new EvidenceNode("Propagation incident", NodeType.INCIDENT, SeverityLevel.CRITICAL)).getEntity();
+        assertEquals(SeverityLevel.LOW, artifact.getEffectiveSeverity());
+
+        Relation created = new Relation(artifact, incident, "CAUSES");
+        created.setConfidence("HIGH");
+        Relation relation = (Relation) relations.createRelation(created).getEntity();
+
+        EvidenceNode escalated = (EvidenceNode) nodes.getNodeById(artifact.getId()).getEntity();
+        assertEquals(SeverityLevel.LOW, escalated.getSeverity());
+        assertEquals(SeverityLevel.CRITICAL, escalated.getEffectiveSeverity());
+        assertTrue(SeverityPropagation.levels().escalated(artifact.getId()));
+
+        // L'incident rétrogradé entraîne sa cause
+        EvidenceNode downgrade = new EvidenceNode();
+        downgrade.setSeverity(SeverityLevel.HIGH);
+        nodes.updateNode(incident.getId(), downgrade);
+        assertEquals(SeverityLevel.HIGH, SeverityPropagation.levels().effective(artifact.getId()));
+
+        relations.deleteRelation(relation.getId());
+        EvidenceNode restored = (EvidenceNode) nodes.getNodeById(artifact.getId()).getEntity();
+        assertEquals(SeverityLevel.LOW, restored.getEffectiveSeverity());
+        assertFalse(SeverityPropagation.levels().escalated(artifact.getId()));
+
+        nodes.deleteNode(artifact.getId());
+        nodes.deleteNode(incident.getId());
+        assertNull(SeverityPropagation.levels().effective(artifact.getId()));
+    }
+}
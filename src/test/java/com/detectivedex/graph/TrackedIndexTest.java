@@ -0,0 +1,58 @@
+package com.detectivedex.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du suivi du journal par les index en mémoire, sans base de données
+ */
+class TrackedIndexTest {
+
+    private final List<String> calls = new ArrayList<>();
+    private RuntimeException failure;
+
+    private final TrackedIndex<String> index = new TrackedIndex<>(
+            change -> change.operation() != ChangeOperation.MOVED, 10,
+            () -> call("reload"),
+            changes -> call("apply " + changes));
+
+    @Test
+    void testCurrent_AppliesMergedChangesAndIgnoresIrrelevantOnes() {
+        assertEquals("reload", index.current());
+        index.onChange(new GraphChange(1, ChangeKind.NODE, 7, ChangeOperation.CREATED));
+        index.onChange(new GraphChange(2, ChangeKind.NODE, 7, ChangeOperation.DELETED));
+        index.onChange(new GraphChange(3, ChangeKind.NODE, 8, ChangeOperation.MOVED));
+
+        assertEquals("apply " + Map.of(ChangeKind.NODE, Map.of(7L, ChangeOperation.DELETED)), index.current());
+        assertSame(index.current(), index.current());
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void testCurrent_ReloadsAfterFailedUpdate() {
+        index.current();
+        index.onChange(new GraphChange(1, ChangeKind.EVENT, 3, ChangeOperation.UPDATED));
+        failure = new IllegalStateException("re-read failed");
+        assertThrows(IllegalStateException.class, index::current);
+
+        // Les modifications perdues imposent un rechargement, qui peut lui-même échouer
+        assertThrows(IllegalStateException.class, index::current);
+        failure = null;
+        assertEquals("reload", index.current());
+        assertEquals(List.of("reload", "apply " + Map.of(ChangeKind.EVENT, Map.of(3L, ChangeOperation.UPDATED)),
+                "reload", "reload"), calls);
+    }
+
+    private String call(String name) {
+        calls.add(name);
+        if (failure != null) {
+            throw failure;
+        }
+        return name;
+    }
+}
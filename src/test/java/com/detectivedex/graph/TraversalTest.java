@@ -0,0 +1,110 @@
+package com.detectivedex.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des parcours sur un instantané construit à la main :
+ * chaîne 1 -> 2 -> 3 -> 4 confirmée (HIGH) et raccourci 1 -> 4 non confirmé (LOW).
+ */
+class TraversalTest {
+
+    private static final long FAR_FUTURE = Long.MAX_VALUE;
+
+    private static AdjacencySnapshot graph() {
+        long[] nodeIds = {1, 2, 3, 4, 5};
+        LongIntHashMap index = new LongIntHashMap(nodeIds.length);
+        for (int i = 0; i < nodeIds.length; i++) {
+            index.put(nodeIds[i], i);
+        }
+        byte high = AdjacencySnapshot.flags(true, "HIGH");
+        byte low = AdjacencySnapshot.flags(false, "LOW");
+        return new AdjacencySnapshot(1, nodeIds, index,
+                new long[] {10, 11, 12, 13},
+                new int[] {0, 1, 2, 0},
+                new int[] {1, 2, 3, 3},
+                new short[] {0, 0, 0, 1},
+                new byte[] {high, high, high, low},
+                new String[] {"LEADS_TO", "RELATED_TO"});
+    }
+
+    @Test
+    void testShortestPath_FewestHops() {
+        Traversal.PathResult path = Traversal.shortestPath(graph(), 0, 3, 6, true, 100, FAR_FUTURE);
+        assertEquals(Traversal.Outcome.FOUND, path.outcome());
+        assertArrayEquals(new int[] {3}, path.edges());
+        assertArrayEquals(new int[] {0, 3}, path.nodes());
+    }
+
+    @Test
+    void testCheapestPath_PrefersConfirmedHighConfidence() {
+        Traversal.PathResult path = Traversal.cheapestPath(graph(), 0, 3, 6, true, 100, FAR_FUTURE);
+        assertEquals(Traversal.Outcome.FOUND, path.outcome());
+        assertArrayEquals(new int[] {0, 1, 2}, path.edges());
+        assertEquals(3.0, path.cost());
+
+        Traversal.PathResult bounded = Traversal.cheapestPath(graph(), 0, 3, 2, true, 100, FAR_FUTURE);
+        assertArrayEquals(new int[] {3}, bounded.edges());
+    }
+
+    @Test
+    void testCheapestPath_ReexpandsNodeReachedWithFewerHops() {
+        // 1 -> 2 -> 3 -> 4 confirmé (coût 1 par arête) et raccourci 1 -> 3 non confirmé (LOW, coût 6)
+        long[] nodeIds = {1, 2, 3, 4};
+        LongIntHashMap index = new LongIntHashMap(nodeIds.length);
+        for (int i = 0; i < nodeIds.length; i++) {
+            index.put(nodeIds[i], i);
+        }
+        byte high = AdjacencySnapshot.flags(true, "HIGH");
+        byte low = AdjacencySnapshot.flags(false, "LOW");
+        AdjacencySnapshot graph = new AdjacencySnapshot(1, nodeIds, index,
+                new long[] {20, 21, 22, 23},
+                new int[] {0, 1, 2, 0},
+                new int[] {1, 2, 3, 2},
+                new short[] {0, 0, 0, 0},
+                new byte[] {high, high, high, low},
+                new String[] {"LEADS_TO"});
+
+        // 3 est atteint d'abord par 2 (coût 2, 2 sauts) : seul le raccourci laisse 4 à 2 sauts
+        Traversal.PathResult bounded = Traversal.cheapestPath(graph, 0, 3, 2, true, 100, FAR_FUTURE);
+        assertEquals(Traversal.Outcome.FOUND, bounded.outcome());
+        assertArrayEquals(new int[] {3, 2}, bounded.edges());
+        assertArrayEquals(new int[] {0, 2, 3}, bounded.nodes());
+        assertEquals(7.0, bounded.cost());
+
+        Traversal.PathResult unbounded = Traversal.cheapestPath(graph, 0, 3, 6, true, 100, FAR_FUTURE);
+        assertArrayEquals(new int[] {0, 1, 2}, unbounded.edges());
+        assertEquals(3.0, unbounded.cost());
+    }
+
+    @Test
+    void testShortestPath_DirectionAndDepth() {
+        AdjacencySnapshot graph = graph();
+        assertEquals(Traversal.Outcome.NOT_FOUND,
+                Traversal.shortestPath(graph, 3, 0, 6, true, 100, FAR_FUTURE).outcome());
+        Traversal.PathResult reverse = Traversal.shortestPath(graph, 2, 0, 6, false, 100, FAR_FUTURE);
+        assertArrayEquals(new int[] {2, 1, 0}, reverse.nodes());
+        assertEquals(Traversal.Outcome.NOT_FOUND,
+                Traversal.shortestPath(graph, 0, 2, 1, true, 100, FAR_FUTURE).outcome());
+        assertEquals(Traversal.Outcome.NOT_FOUND,
+                Traversal.shortestPath(graph, 0, 4, 6, false, 100, FAR_FUTURE).outcome());
+    }
+
+    @Test
+    void testNeighbourhood_DepthAndLimit() {
+        AdjacencySnapshot graph = graph();
+        Traversal.NeighbourhoodResult around = Traversal.neighbourhood(graph, 1, 1, true, true, 100, FAR_FUTURE);
+        assertEquals(Traversal.Outcome.FOUND, around.outcome());
+        assertArrayEquals(new int[] {1, 2, 0}, around.nodes());
+        assertArrayEquals(new int[] {0, 1, 1}, around.distances());
+        assertEquals(2, around.edges().length);
+
+        Traversal.NeighbourhoodResult downstream = Traversal.neighbourhood(graph, 0, 5, true, false, 100, FAR_FUTURE);
+        assertEquals(4, downstream.nodes().length);
+
+        Traversal.NeighbourhoodResult capped = Traversal.neighbourhood(graph, 0, 5, true, false, 2, FAR_FUTURE);
+        assertEquals(Traversal.Outcome.LIMIT_REACHED, capped.outcome());
+        assertEquals(2, capped.nodes().length);
+    }
+}
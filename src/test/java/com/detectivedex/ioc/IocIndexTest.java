@@ -0,0 +1,87 @@
+package com.detectivedex.ioc;
+
+import com.detectivedex.graph.ChangeKind;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la normalisation des indicateurs et de l'index exact, sans base de données
+ */
+class IocIndexTest {
+
+    @Test
+    void testParse_NormalizesEachIndicatorType() {
+        assertEquals(new Indicator(IndicatorType.DOMAIN, "evil.example.com"), Indicators.parse(" Evil[.]Example[.]COM. "));
+        assertEquals(new Indicator(IndicatorType.URL, "http://evil.example.com"), Indicators.parse("hxxp://evil[.]example[.]com/"));
+        assertEquals(new Indicator(IndicatorType.EMAIL, "ops@evil.example.com"), Indicators.parse("ops[@]evil.example.com"));
+        assertEquals(new Indicator(IndicatorType.IPV4, "10.0.0.7"), Indicators.parse("010.000.000.007:443"));
+        assertEquals(new Indicator(IndicatorType.CIDR, "10.0.0.0/24"), Indicators.parse("10.0.0.77/24"));
+        assertEquals(new Indicator(IndicatorType.IPV6, "2001:db8:0:0:0:0:0:1"), Indicators.parse("2001:DB8::0001"));
+        assertEquals(new Indicator(IndicatorType.IPV6, "fe80:0:0:0:0:0:0:0"), Indicators.parse("fe80::"));
+        assertEquals(IndicatorType.HASH, Indicators.parse("D41D8CD98F00B204E9800998ECF8427E").type());
+
+        assertNull(Indicators.parse("256.1.1.1"));
+        assertNull(Indicators.parse("10.0.0.1/33"));
+        assertNull(Indicators.parse("1::2::3"));
+        assertNull(Indicators.parse("beacon"));
+    }
+
+    @Test
+    void testExtract_FindsIndicatorsAndTheirHosts() {
+        List<Indicator> found = new ArrayList<>();
+        Indicators.extract("Téléchargement depuis hxxps://cdn[.]evil.example.com/payload, relais 192.168.1.20.", found::add);
+        assertEquals(List.of(
+                new Indicator(IndicatorType.URL, "https://cdn.evil.example.com/payload"),
+                new Indicator(IndicatorType.DOMAIN, "cdn.evil.example.com"),
+                new Indicator(IndicatorType.IPV4, "192.168.1.20")), found);
+    }
+
+    @Test
+    void testStore_MatchesExactlyAndByCidr() {
+        IocIndex.Store store = new IocIndex.Store();
+        store.put(ChangeKind.NODE, new Object[] {1L, "C2 10.0.0.7", "Résout evil.example.com"});
+        store.put(ChangeKind.NODE, new Object[] {2L, "Réseau d'attaque", "Bloc 10.0.0.0/24"});
+        store.put(ChangeKind.EVENT, new Object[] {3L, "Connexion vers 10.0.1.9 et EVIL.example.com"});
+        IocIndex.View view = store.publish();
+
+        assertEquals(new IocIndex.Match(Set.of(1L), Set.of(3L)),
+                view.lookup(Indicators.parse("evil[.]example[.]com")));
+        // Une adresse retrouve le bloc qui la contient
+        assertEquals(new IocIndex.Match(Set.of(1L, 2L), Set.of()), view.lookup(Indicators.parse("10.0.0.7")));
+        assertEquals(new IocIndex.Match(Set.of(2L), Set.of()), view.lookup(Indicators.parse("10.0.0.200")));
+        // Un bloc retrouve les adresses et les blocs plus petits qu'il contient
+        assertEquals(new IocIndex.Match(Set.of(1L, 2L), Set.of(3L)), view.lookup(Indicators.parse("10.0.0.0/16")));
+        assertFalse(view.lookup(Indicators.parse("10.0.2.1")).found());
+
+        store.remove(ChangeKind.NODE, 2L);
+        IocIndex.View removed = store.publish();
+        assertEquals(new IocIndex.Match(Set.of(), Set.of()), removed.lookup(Indicators.parse("10.0.0.200")));
+        store.put(ChangeKind.EVENT, new Object[] {3L, "Connexion sans indicateur"});
+        assertEquals(new IocIndex.Match(Set.of(1L), Set.of()), store.publish().lookup(Indicators.parse("evil.example.com")));
+        // Une vue publiée ne voit pas les modifications suivantes
+        assertEquals(new IocIndex.Match(Set.of(2L), Set.of()), view.lookup(Indicators.parse("10.0.0.200")));
+    }
+
+    @Test
+    void testView_RecentIndicatorsMaskTheFullCopy() {
+        IocIndex.Store store = new IocIndex.Store();
+        store.put(ChangeKind.NODE, new Object[] {1L, "C2 10.0.0.7", null});
+        store.put(ChangeKind.NODE, new Object[] {2L, "Bloc 10.0.0.0/24", null});
+        store.publish();
+
+        store.put(ChangeKind.NODE, new Object[] {1L, "C2 10.0.0.8", null});
+        store.put(ChangeKind.EVENT, new Object[] {3L, "Bloc 10.0.0.0/28 et 10.1.0.1"});
+        IocIndex.View view = store.publish();
+
+        assertEquals(new IocIndex.Match(Set.of(2L), Set.of(3L)), view.lookup(Indicators.parse("10.0.0.7")));
+        assertEquals(new IocIndex.Match(Set.of(1L, 2L), Set.of(3L)), view.lookup(Indicators.parse("10.0.0.8")));
+        assertEquals(new IocIndex.Match(Set.of(1L, 2L), Set.of(3L)), view.lookup(Indicators.parse("10.0.0.0/16")));
+        assertEquals(new IocIndex.Match(Set.of(), Set.of(3L)), view.lookup(Indicators.parse("10.1.0.0/16")));
+        assertFalse(view.lookup(Indicators.parse("10.2.0.0/16")).found());
+    }
+}
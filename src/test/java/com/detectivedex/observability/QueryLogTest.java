@@ -0,0 +1,95 @@
+package com.detectivedex.observability;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.StatementType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour QueryLog
+ */
+class QueryLogTest {
+
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+    private final Logger sql = (Logger) LoggerFactory.getLogger(QueryLog.SQL_LOGGER);
+
+    @BeforeEach
+    void attach() {
+        events.start();
+        sql.addAppender(events);
+    }
+
+    @AfterEach
+    void detach() {
+        sql.detachAppender(events);
+        RequestContext.exit();
+    }
+
+    @Test
+    void testSlowQuery_LoggedWithOperation() {
+        QueryLog log = new QueryLog(0, 100);
+        RequestContext.enter("ReportResource.exportHtmlReport");
+        execute(log, 250, "select id from evidence_nodes where nodeType=?");
+        execute(log, 5, "select id from relations");
+
+        assertEquals(1, events.list.size());
+        ILoggingEvent event = events.list.get(0);
+        assertEquals(QueryLog.SLOW_LOGGER, event.getLoggerName());
+        Map<String, Object> fields = fields(event);
+        assertEquals("ReportResource.exportHtmlReport", fields.get("operation"));
+        assertEquals("select id from evidence_nodes where nodeType=?", fields.get("sql"));
+        assertEquals(StatementType.PREPARED, fields.get("type"));
+        assertTrue(Double.parseDouble((String) fields.get("durationMs")) >= 250);
+    }
+
+    @Test
+    void testSampling_LogsEveryQueryAtFullRate() {
+        QueryLog log = new QueryLog(1, 0);
+        execute(log, 1, "select 1");
+        execute(log, 1, "select 2");
+
+        assertEquals(2, events.list.size());
+        assertEquals(QueryLog.SQL_LOGGER, events.list.get(0).getLoggerName());
+        assertEquals("-", fields(events.list.get(0)).get("operation"));
+        assertFalse(new QueryLog(0, 0).isEnabled());
+    }
+
+    @Test
+    void testConfigure_ValidatesValues() {
+        assertFalse(QueryLog.configure(Map.of("detectivedex.sql.slow-threshold-ms", "0")::get).isEnabled());
+        assertTrue(QueryLog.configure(key -> null).isEnabled());
+        assertThrows(IllegalStateException.class,
+                () -> QueryLog.configure(Map.of("detectivedex.sql.sample-rate", "1.5")::get));
+        assertThrows(IllegalStateException.class,
+                () -> QueryLog.configure(Map.of("detectivedex.sql.sample-rate", "often")::get));
+        assertThrows(IllegalStateException.class,
+                () -> QueryLog.configure(Map.of("detectivedex.sql.slow-threshold-ms", "-1")::get));
+    }
+
+    private static void execute(QueryLog log, long millis, String query) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setStatementType(StatementType.PREPARED);
+        info.setSuccess(true);
+        List<QueryInfo> queries = List.of(new QueryInfo(query));
+        log.beforeQuery(info, queries);
+        info.addCustomValue(QueryLog.START_NANOS, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(millis));
+        log.afterQuery(info, queries);
+    }
+
+    private static Map<String, Object> fields(ILoggingEvent event) {
+        return event.getKeyValuePairs().stream().collect(Collectors.toMap(pair -> pair.key, pair -> pair.value));
+    }
+}
@@ -0,0 +1,72 @@
+package com.detectivedex.observability;
+
+import com.detectivedex.dto.SpanView;
+import com.detectivedex.dto.TraceView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour Tracer
+ */
+class TracerTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    @AfterEach
+    void restore() {
+        Tracer.attach(null);
+        Tracer.setSampleRate(Tracer.DEFAULT_SAMPLE_RATE);
+    }
+
+    @Test
+    void testBegin_FollowsTraceparentThenSampleRate() {
+        Tracer.setSampleRate(0);
+        Trace trace = Tracer.begin("GET /nodes", "00-" + TRACE_ID + "-00f067aa0ba902b7-01");
+        assertNotNull(trace);
+        assertEquals(TRACE_ID, trace.traceId());
+        assertEquals("00f067aa0ba902b7", trace.toView().spans().get(0).parentSpanId());
+
+        Tracer.setSampleRate(1);
+        assertNull(Tracer.begin("GET /nodes", "00-" + TRACE_ID + "-00f067aa0ba902b7-00"));
+        Trace sampled = Tracer.begin("GET /nodes", "not a traceparent");
+        assertNotNull(sampled);
+        assertTrue(sampled.traceId().matches("[0-9a-f]{32}"));
+
+        Tracer.setSampleRate(0);
+        assertNull(Tracer.begin("GET /nodes", null));
+        assertSame(Span.NOOP, Tracer.span("outside"));
+    }
+
+    @Test
+    void testSpans_NestUnderOpenSpan() {
+        Tracer.setSampleRate(1);
+        Trace trace = Tracer.begin("GET /reports/export/html", null);
+        Tracer.attach(trace);
+        trace.setOperation("TracerTest.nest");
+        try (Span method = Tracer.span("resource")) {
+            Tracer.span("sql").attribute("db.statement", "select 1").end();
+            Tracer.completed("query", 1_000_000).attribute("db.response.rows", 3);
+        }
+        Span open = Tracer.span("serialize");
+        Tracer.finish(trace);
+        assertSame(Span.NOOP, Tracer.span("after"));
+
+        TraceView view = trace.toView();
+        assertEquals(5, view.spans().size());
+        SpanView root = view.spans().get(0);
+        SpanView resource = view.spans().get(1);
+        assertEquals("GET /reports/export/html", root.name());
+        assertEquals(root.spanId(), resource.parentSpanId());
+        assertEquals(resource.spanId(), view.spans().get(2).parentSpanId());
+        assertEquals(resource.spanId(), view.spans().get(3).parentSpanId());
+        assertEquals(3, view.spans().get(3).attributes().get("db.response.rows"));
+        assertEquals(root.spanId(), view.spans().get(4).parentSpanId());
+        assertTrue(view.spans().stream().allMatch(span -> span.endTimeUnixNano() >= span.startTimeUnixNano()));
+        assertTrue(view.spans().get(3).durationMicros() >= 1000);
+        assertTrue(open.durationNanos() >= 0);
+
+        assertSame(trace, Tracer.slowest(1, "TracerTest.nest").get(0));
+    }
+}
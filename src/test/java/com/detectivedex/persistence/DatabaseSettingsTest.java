@@ -0,0 +1,53 @@
+package com.detectivedex.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des propriétés de connexion par profil
+ */
+class DatabaseSettingsTest {
+
+    @Test
+    void testResolve_DefaultsToPooledInMemoryH2() {
+        Map<String, Object> properties = DatabaseSettings.resolve(key -> null);
+        assertEquals(DatabaseSettings.MEMORY_URL, properties.get("hibernate.connection.url"));
+        assertEquals("org.h2.Driver", properties.get("hibernate.connection.driver_class"));
+        assertEquals(ObservedConnectionProvider.class.getName(), properties.get("hibernate.connection.provider_class"));
+        assertEquals("10", properties.get("hibernate.hikari.maximumPoolSize"));
+        assertEquals("10", properties.get("hibernate.hikari.minimumIdle"));
+    }
+
+    @Test
+    void testResolve_FileAndPostgresqlProfiles() {
+        Map<String, Object> file = DatabaseSettings.resolve(Map.of(
+                "detectivedex.db.profile", "file",
+                "detectivedex.db.file", "/var/lib/detectivedex/db",
+                "detectivedex.db.pool-size", "4")::get);
+        assertTrue(((String) file.get("hibernate.connection.url")).startsWith("jdbc:h2:file:/var/lib/detectivedex/db;"));
+        assertEquals("4", file.get("hibernate.hikari.maximumPoolSize"));
+
+        Map<String, Object> postgresql = DatabaseSettings.resolve(Map.of(
+                "detectivedex.db.profile", "POSTGRESQL",
+                "detectivedex.db.url", "jdbc:postgresql://db:5432/cases",
+                "detectivedex.db.password", "secret")::get);
+        assertEquals("jdbc:postgresql://db:5432/cases", postgresql.get("hibernate.connection.url"));
+        assertEquals("org.postgresql.Driver", postgresql.get("hibernate.connection.driver_class"));
+        assertEquals("detectivedex", postgresql.get("hibernate.connection.username"));
+        assertEquals("secret", postgresql.get("hibernate.connection.password"));
+        assertEquals("512", postgresql.get("hibernate.hikari.dataSource.preparedStatementCacheQueries"));
+    }
+
+    @Test
+    void testResolve_RejectsInvalidValues() {
+        assertThrows(IllegalStateException.class,
+                () -> DatabaseSettings.resolve(Map.of("detectivedex.db.profile", "oracle")::get));
+        assertThrows(IllegalStateException.class,
+                () -> DatabaseSettings.resolve(Map.of("detectivedex.db.pool-size", "0")::get));
+        assertThrows(IllegalStateException.class,
+                () -> DatabaseSettings.resolve(Map.of("detectivedex.db.connection-timeout", "soon")::get));
+    }
+}
@@ -44,4 +44,26 @@ class PersistenceManagerTest {
         em1.close();
         em2.close();
     }
+
+    @Test
+    void testMigrationsCreateQueryIndexes() {
+        EntityManager em = PersistenceManager.getEntityManager();
+        try {
+            Number applied = (Number) em.createNativeQuery(
+                    "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" = TRUE AND \"version\" IS NOT NULL")
+                    .getSingleResult();
+            assertTrue(applied.intValue() >= 2);
+
+            String plan = (String) em.createNativeQuery(
+                    "EXPLAIN SELECT id FROM evidence_nodes WHERE nodeType = 'IOC' ORDER BY createdAt DESC")
+                    .getSingleResult();
+            assertTrue(plan.contains("IDX_NODES_TYPE_CREATED"), plan);
+            plan = (String) em.createNativeQuery(
+                    "EXPLAIN SELECT id FROM timeline_events WHERE evidence_node_id = 1 ORDER BY eventDate DESC")
+                    .getSingleResult();
+            assertTrue(plan.contains("IDX_EVENTS_NODE_DATE"), plan);
+        } finally {
+            em.close();
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package com.detectivedex.persistence;
+
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.SeverityLevel;
+import jakarta.persistence.Cache;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des lectures en masse hors contexte de persistance
+ */
+class StatelessReadTest {
+
+    @Test
+    void testStream_ReadsRowsWithoutFillingSecondLevelCache() {
+        Long id;
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EvidenceNode node = new EvidenceNode("Stateless node", NodeType.ENDPOINT, SeverityLevel.MEDIUM);
+            work.entityManager().persist(node);
+            work.commit();
+            id = node.getId();
+        }
+        Cache cache = PersistenceManager.getEntityManagerFactory().getCache();
+        cache.evict(EvidenceNode.class, id);
+
+        try (StatelessRead reads = StatelessRead.open()) {
+            List<EvidenceNode> nodes = reads.query("SELECT n FROM EvidenceNode n WHERE n.id = :id", EvidenceNode.class)
+                    .setParameter("id", id)
+                    .getResultList();
+            assertEquals(1, nodes.size());
+            assertEquals("Stateless node", nodes.get(0).getName());
+
+            try (Stream<String> names = reads.stream("SELECT n.name FROM EvidenceNode n ORDER BY n.id", String.class)) {
+                assertTrue(names.anyMatch("Stateless node"::equals));
+            }
+        }
+        assertFalse(cache.contains(EvidenceNode.class, id));
+
+        try (UnitOfWork work = UnitOfWork.write()) {
+            work.entityManager().remove(work.entityManager().find(EvidenceNode.class, id));
+            work.commit();
+        }
+    }
+}
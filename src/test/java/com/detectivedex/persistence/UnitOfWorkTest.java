@@ -0,0 +1,83 @@
+package com.detectivedex.persistence;
+
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.SeverityLevel;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'unité de travail partagée par une requête
+ */
+class UnitOfWorkTest {
+
+    @AfterEach
+    void tearDown() {
+        UnitOfWork.closeRequest();
+    }
+
+    @Test
+    void testRequest_SharesEntityManagerAndIgnoresChangesWhenReadOnly() {
+        Long id = create("Read-only node");
+
+        UnitOfWork.openRequest(true);
+        EntityManager em;
+        try (UnitOfWork work = UnitOfWork.read()) {
+            em = work.entityManager();
+            assertTrue(work.isReadOnly());
+            assertFalse(em.getTransaction().isActive());
+            em.find(EvidenceNode.class, id).setName("Modified in a GET");
+        }
+        try (UnitOfWork work = UnitOfWork.read()) {
+            assertSame(em, work.entityManager());
+            EvidenceNode node = em.find(EvidenceNode.class, id);
+            assertEquals("Modified in a GET", node.getName());
+            assertTrue(em.unwrap(Session.class).isReadOnly(node));
+        }
+        assertThrows(IllegalStateException.class, UnitOfWork::write);
+        UnitOfWork.closeRequest();
+        assertFalse(em.isOpen());
+
+        assertEquals("Read-only node", name(id));
+    }
+
+    @Test
+    void testWrite_CommitsStandaloneAndRollsBackUncommittedRequest() {
+        Long id = create("Written node");
+
+        UnitOfWork.openRequest(false);
+        try (UnitOfWork work = UnitOfWork.write()) {
+            work.entityManager().find(EvidenceNode.class, id).setName("Never committed");
+        }
+        UnitOfWork.closeRequest();
+        assertEquals("Written node", name(id));
+
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EntityManager em = work.entityManager();
+            em.remove(em.find(EvidenceNode.class, id));
+            work.commit();
+        }
+        try (UnitOfWork work = UnitOfWork.read()) {
+            assertNull(work.entityManager().find(EvidenceNode.class, id));
+        }
+    }
+
+    private Long create(String name) {
+        try (UnitOfWork work = UnitOfWork.write()) {
+            EvidenceNode node = new EvidenceNode(name, NodeType.ARTIFACT, SeverityLevel.LOW);
+            work.entityManager().persist(node);
+            work.commit();
+            return node.getId();
+        }
+    }
+
+    private String name(Long id) {
+        try (UnitOfWork work = UnitOfWork.read()) {
+            return work.entityManager().find(EvidenceNode.class, id).getName();
+        }
+    }
+}
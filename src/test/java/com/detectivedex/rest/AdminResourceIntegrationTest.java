@@ -0,0 +1,107 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.dto.CacheRegionStatistics;
+import com.detectivedex.dto.NodePosition;
+import com.detectivedex.dto.RelationSummary;
+import com.detectivedex.dto.TraceView;
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.Relation;
+import com.detectivedex.entity.SeverityLevel;
+import com.detectivedex.observability.Trace;
+import com.detectivedex.observability.Tracer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour AdminResource et l'invalidation du cache de second niveau
+ */
+class AdminResourceIntegrationTest {
+
+    private final AdminResource resource = new AdminResource();
+    private final EvidenceNodeResource nodes = new EvidenceNodeResource();
+    private final RelationResource relations = new RelationResource();
+
+    @Test
+    void testCache_ServesReadsAndFollowsWrites() {
+        EvidenceNode node = (EvidenceNode) nodes.createNode(
+                new EvidenceNode("Cached node", NodeType.ARTIFACT, SeverityLevel.LOW)).getEntity();
+        long hits = region("evidence_nodes").hits();
+        assertEquals("Cached node", ((EvidenceNode) nodes.getNodeById(node.getId()).getEntity()).getName());
+        assertEquals("Cached node", ((EvidenceNode) nodes.getNodeById(node.getId()).getEntity()).getName());
+        assertTrue(region("evidence_nodes").hits() >= hits + 2);
+
+        EvidenceNode update = new EvidenceNode("Cached node renamed", NodeType.ARTIFACT, SeverityLevel.HIGH);
+        nodes.updateNode(node.getId(), update);
+        EvidenceNode updated = (EvidenceNode) nodes.getNodeById(node.getId()).getEntity();
+        assertEquals("Cached node renamed", updated.getName());
+        assertEquals(SeverityLevel.HIGH, updated.getSeverity());
+
+        // L'UPDATE groupé des positions invalide la région des nœuds
+        nodes.updatePositions(List.of(new NodePosition(node.getId(), 42.0, -7.0)));
+        EvidenceNode moved = (EvidenceNode) nodes.getNodeById(node.getId()).getEntity();
+        assertEquals(42.0, moved.getPositionX());
+        assertEquals(-7.0, moved.getPositionY());
+
+        nodes.deleteNode(node.getId());
+        assertEquals(404, nodes.getNodeById(node.getId()).getStatus());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testQueryCache_InvalidatedByWrites() {
+        EvidenceNode source = (EvidenceNode) nodes.createNode(
+                new EvidenceNode("Query cache source", NodeType.ATTACKER, SeverityLevel.HIGH)).getEntity();
+        EvidenceNode target = (EvidenceNode) nodes.createNode(
+                new EvidenceNode("Query cache target", NodeType.ENDPOINT, SeverityLevel.MEDIUM)).getEntity();
+
+        assertTrue(((List<RelationSummary>) relations.getRelationsFromNode(source.getId(), null).getEntity()).isEmpty());
+        long hits = region("default-query-results-region").hits();
+        assertTrue(((List<RelationSummary>) relations.getRelationsFromNode(source.getId(), null).getEntity()).isEmpty());
+        assertTrue(region("default-query-results-region").hits() > hits);
+
+        relations.createRelation(new Relation(source, target, "EXPLOITS"));
+        List<RelationSummary> from = (List<RelationSummary>) relations.getRelationsFromNode(source.getId(), null).getEntity();
+        assertEquals(1, from.size());
+        assertEquals(target.getId(), from.get(0).targetNodeId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTraces_RecordPersistencePhases() {
+        EvidenceNode node = (EvidenceNode) nodes.createNode(
+                new EvidenceNode("Traced node", NodeType.IOC, SeverityLevel.CRITICAL)).getEntity();
+        Trace trace = Tracer.begin("GET /nodes/type/IOC", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+        Tracer.attach(trace);
+        trace.setOperation("EvidenceNodeResource.getNodesByType");
+        try {
+            assertFalse(((List<?>) nodes.getNodesByType("IOC").getEntity()).isEmpty());
+        } finally {
+            Tracer.finish(trace);
+        }
+
+        List<TraceView> traces = (List<TraceView>) resource.getSlowestTraces(5, "EvidenceNodeResource.getNodesByType").getEntity();
+        TraceView view = traces.stream()
+                .filter(candidate -> candidate.traceId().equals("0af7651916cd43dd8448eb211c80319c"))
+                .findFirst().orElseThrow();
+        assertTrue(view.spans().stream().anyMatch(span -> span.name().equals("EntityManager.create")));
+        assertTrue(view.spans().stream().anyMatch(span -> span.name().equals("sql")
+                && ((String) span.attributes().get("db.statement")).contains("evidence_nodes")));
+        assertTrue(view.spans().stream().anyMatch(span -> span.name().equals("query")
+                && (Integer) span.attributes().get("db.response.rows") >= 1));
+
+        assertEquals(400, resource.getSlowestTraces(0, null).getStatus());
+        nodes.deleteNode(node.getId());
+    }
+
+    private CacheRegionStatistics region(String name) {
+        return ((List<CacheRegionStatistics>) resource.getCacheStatistics().getEntity()).stream()
+                .filter(region -> region.region().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No cache region " + name + " in "
+                        + resource.getCacheStatistics().getEntity()));
+    }
+}
@@ -1,11 +1,22 @@
 package com.detectivedex.rest;
 
+import com.detectivedex.dto.NodePosition;
+import com.detectivedex.dto.PositionUpdateReport;
 import com.detectivedex.entity.EvidenceNode;
 import com.detectivedex.entity.NodeType;
 import com.detectivedex.entity.SeverityLevel;
+import com.detectivedex.graph.AdjacencySnapshot;
+import com.detectivedex.graph.ChangeOperation;
+import com.detectivedex.graph.GraphChange;
+import com.detectivedex.graph.GraphChangeLog;
+import com.detectivedex.graph.GraphIndex;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -25,7 +36,7 @@ class EvidenceNodeResourceIntegrationTest {
     @Test
     @Order(1)
     void testGetAllNodes_Empty() {
-        Response response = resource.getAllNodes();
+        Response response = resource.getAllNodes(null, null, null);
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
     }
 
@@ -94,4 +105,80 @@ class EvidenceNodeResourceIntegrationTest {
         Response getResponse = resource.getNodeById(createdNodeId);
         assertEquals(Response.Status.NOT_FOUND.getStatusCode(), getResponse.getStatus());
     }
+
+    @Test
+    @Order(7)
+    @SuppressWarnings("unchecked")
+    void testGetAllNodes_KeysetPaginationWithProjection() {
+        for (int i = 0; i < 3; i++) {
+            resource.createNode(new EvidenceNode("Page node " + i, NodeType.IOC, SeverityLevel.LOW));
+        }
+
+        Response first = resource.getAllNodes(2, null, "name,positionX");
+        assertEquals(Response.Status.OK.getStatusCode(), first.getStatus());
+        List<Map<String, Object>> firstPage = (List<Map<String, Object>>) first.getEntity();
+        assertEquals(2, firstPage.size());
+        assertEquals(List.of("id", "name", "positionX"), List.copyOf(firstPage.get(0).keySet()));
+
+        String cursor = first.getHeaderString(KeysetQuery.NEXT_CURSOR_HEADER);
+        assertNotNull(cursor);
+
+        Response second = resource.getAllNodes(2, cursor, "name");
+        List<Map<String, Object>> secondPage = (List<Map<String, Object>>) second.getEntity();
+        assertFalse(secondPage.isEmpty());
+        Long lastOfFirst = (Long) firstPage.get(1).get("id");
+        assertTrue(secondPage.stream().noneMatch(n -> n.get("id").equals(lastOfFirst)));
+    }
+
+    @Test
+    @Order(8)
+    void testGetAllNodes_InvalidParameters() {
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(),
+                resource.getAllNodes(null, null, "name,secret").getStatus());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(),
+                resource.getAllNodes(null, "not-a-cursor", null).getStatus());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(),
+                resource.getAllNodes(0, null, null).getStatus());
+    }
+
+    @Test
+    @Order(9)
+    void testUpdatePositions_BatchUpdate() {
+        List<NodePosition> positions = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < EvidenceNodeResource.POSITION_CHUNK_SIZE + 5; i++) {
+            EvidenceNode created = (EvidenceNode) resource.createNode(
+                    new EvidenceNode("Layout node " + i, NodeType.IOC, SeverityLevel.LOW)).getEntity();
+            ids.add(created.getId());
+            positions.add(new NodePosition(created.getId(), 10.0 * i, -5.0 * i));
+        }
+        positions.add(new NodePosition(99999L, 1.0, 1.0));
+        AdjacencySnapshot graph = GraphIndex.snapshot();
+        long version = GraphChangeLog.version();
+
+        Response response = resource.updatePositions(positions);
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        PositionUpdateReport report = (PositionUpdateReport) response.getEntity();
+        assertEquals(ids.size(), report.updated());
+        assertEquals(List.of(99999L), report.notFound());
+        // Journalisé pour /graph/changes, sans reconstruire l'index d'adjacence
+        List<GraphChange> changes = GraphChangeLog.changesBetween(version, GraphChangeLog.version());
+        assertEquals(ids.size(), changes.size());
+        assertTrue(changes.stream().allMatch(change -> change.operation() == ChangeOperation.MOVED));
+        assertSame(graph, GraphIndex.snapshot());
+
+        int last = ids.size() - 1;
+        EvidenceNode moved = (EvidenceNode) resource.getNodeById(ids.get(last)).getEntity();
+        assertEquals(10.0 * last, moved.getPositionX());
+        assertEquals(-5.0 * last, moved.getPositionY());
+    }
+
+    @Test
+    @Order(10)
+    void testUpdatePositions_InvalidPayload() {
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(),
+                resource.updatePositions(null).getStatus());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(),
+                resource.updatePositions(List.of(new NodePosition(1L, null, 2.0))).getStatus());
+    }
 }
@@ -0,0 +1,145 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.dto.NodePosition;
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.SeverityLevel;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseBroadcaster;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests pour GraphEventBroadcaster
+ */
+class GraphEventBroadcasterTest {
+
+    private static final Sse SSE = new Sse() {
+        @Override
+        public OutboundSseEvent.Builder newEventBuilder() {
+            return new OutboundEvent.Builder();
+        }
+
+        @Override
+        public SseBroadcaster newBroadcaster() {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Test
+    void testBroadcastsCommittedChanges() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        GraphEventBroadcaster.get().subscribe(sink, SSE);
+
+        EvidenceNode node = (EvidenceNode) new EvidenceNodeResource()
+                .createNode(new EvidenceNode("Streamed node", NodeType.IOC, SeverityLevel.LOW)).getEntity();
+        GraphEventBroadcaster.get().tick();
+
+        String expected = "\"id\":" + node.getId();
+        long deadline = System.currentTimeMillis() + 2000;
+        while (sink.events.stream().noneMatch(e -> String.valueOf(e.getData()).contains(expected))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        OutboundSseEvent event = sink.events.stream()
+                .filter(e -> String.valueOf(e.getData()).contains(expected))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(GraphEventBroadcaster.EVENT_NAME, event.getName());
+        assertTrue(String.valueOf(event.getData()).contains("\"kind\":\"NODE\""));
+
+        // Un simple déplacement est diffusé aux autres analystes
+        new EvidenceNodeResource().updatePositions(List.of(new NodePosition(node.getId(), 4.0, 2.0)));
+        GraphEventBroadcaster.get().tick();
+        deadline = System.currentTimeMillis() + 2000;
+        while (sink.events.stream().noneMatch(e -> String.valueOf(e.getData()).contains("\"operation\":\"MOVED\""))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(sink.events.stream().anyMatch(e -> String.valueOf(e.getData()).contains(expected + ",\"operation\":\"MOVED\"")));
+        sink.close();
+    }
+
+    @Test
+    void testSlowSubscriberIsDroppedWithoutDelayingOthers() throws Exception {
+        BlockingSink slow = new BlockingSink();
+        RecordingSink fast = new RecordingSink();
+        GraphEventBroadcaster.get().subscribe(slow, SSE);
+        GraphEventBroadcaster.get().subscribe(fast, SSE);
+
+        EvidenceNodeResource nodes = new EvidenceNodeResource();
+        EvidenceNode last = null;
+        try {
+            for (int i = 0; i < 4 * GraphEventBroadcaster.MAX_PENDING_SENDS && !slow.isClosed(); i++) {
+                last = (EvidenceNode) nodes.createNode(
+                        new EvidenceNode("Burst " + i, NodeType.ARTIFACT, SeverityLevel.INFO)).getEntity();
+                GraphEventBroadcaster.get().tick();
+            }
+
+            assertTrue(slow.isClosed());
+            // Le tick n'a pas attendu l'écriture bloquée : l'autre abonné a reçu le dernier lot
+            String expected = "\"id\":" + last.getId();
+            long deadline = System.currentTimeMillis() + 2000;
+            while (fast.events.stream().noneMatch(e -> String.valueOf(e.getData()).contains(expected))
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(fast.events.stream().anyMatch(e -> String.valueOf(e.getData()).contains(expected)));
+            assertFalse(fast.isClosed());
+        } finally {
+            slow.release.countDown();
+            fast.close();
+        }
+    }
+
+    /**
+     * Sink qui mémorise les événements, écrits immédiatement.
+     */
+    private static class RecordingSink implements SseEventSink {
+        final List<OutboundSseEvent> events = new CopyOnWriteArrayList<>();
+        private volatile boolean closed;
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public CompletionStage<?> send(OutboundSseEvent event) {
+            events.add(event);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    /**
+     * Sink dont l'écriture bloque jusqu'à release, comme celle de Jersey vers un client qui ne lit plus.
+     */
+    private static final class BlockingSink extends RecordingSink {
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public CompletionStage<?> send(OutboundSseEvent event) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.send(event);
+        }
+    }
+}
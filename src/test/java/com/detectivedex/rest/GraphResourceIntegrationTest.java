@@ -0,0 +1,160 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.dto.GraphAnalytics;
+import com.detectivedex.dto.GraphDelta;
+import com.detectivedex.dto.GraphEdge;
+import com.detectivedex.dto.GraphNeighbourhood;
+import com.detectivedex.dto.GraphPath;
+import com.detectivedex.dto.GraphSnapshot;
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.Relation;
+import com.detectivedex.entity.SeverityLevel;
+import com.detectivedex.graph.Traversal;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour GraphResource
+ */
+class GraphResourceIntegrationTest {
+
+    private static GraphResource resource;
+    private static EvidenceNodeResource nodeResource;
+    private static EvidenceNode source;
+    private static EvidenceNode target;
+    private static Relation relation;
+
+    @BeforeAll
+    static void setUp() {
+        resource = new GraphResource();
+        nodeResource = new EvidenceNodeResource();
+        source = (EvidenceNode) nodeResource.createNode(
+                new EvidenceNode("Graph source", NodeType.MALWARE, SeverityLevel.HIGH)).getEntity();
+        target = (EvidenceNode) nodeResource.createNode(
+                new EvidenceNode("Graph target", NodeType.ENDPOINT, SeverityLevel.LOW)).getEntity();
+        relation = (Relation) new RelationResource()
+                .createRelation(new Relation(source, target, "RELATED_TO")).getEntity();
+    }
+
+    @Test
+    void testGetGraph_ReturnsProjectedNodesAndEdges() {
+        Response response = resource.getGraph(null);
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertNotNull(response.getEntityTag());
+
+        GraphSnapshot snapshot = (GraphSnapshot) response.getEntity();
+        assertTrue(snapshot.nodes().stream().anyMatch(n -> n.id().equals(source.getId())
+                && n.nodeType() == NodeType.MALWARE));
+        assertTrue(snapshot.edges().stream().anyMatch(e -> e.id().equals(relation.getId())
+                && e.source().equals(source.getId())
+                && e.target().equals(target.getId())));
+    }
+
+    @Test
+    void testGetGraph_NotModifiedUntilGraphChanges() {
+        Response first = resource.getGraph(null);
+        String etag = "\"" + first.getEntityTag().getValue() + "\"";
+
+        Response unchanged = resource.getGraph(etag);
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), unchanged.getStatus());
+        assertNull(unchanged.getEntity());
+
+        EvidenceNode update = new EvidenceNode();
+        update.setPositionX(42.0);
+        nodeResource.updateNode(source.getId(), update);
+
+        Response changed = resource.getGraph(etag);
+        assertEquals(Response.Status.OK.getStatusCode(), changed.getStatus());
+        assertNotEquals(first.getEntityTag(), changed.getEntityTag());
+    }
+
+    @Test
+    void testGetChanges_ReturnsOnlyChangesSinceVersion() {
+        long since = ((GraphSnapshot) resource.getGraph(null).getEntity()).version();
+
+        EvidenceNode created = (EvidenceNode) nodeResource.createNode(
+                new EvidenceNode("Delta node", NodeType.IOC, SeverityLevel.MEDIUM)).getEntity();
+        Relation link = (Relation) new RelationResource()
+                .createRelation(new Relation(created, target, "RELATED_TO")).getEntity();
+        EvidenceNode update = new EvidenceNode();
+        update.setName("Delta node renamed");
+        nodeResource.updateNode(created.getId(), update);
+
+        GraphDelta delta = (GraphDelta) resource.getChanges(since).getEntity();
+        assertFalse(delta.reset());
+        assertEquals(since, delta.since());
+        assertTrue(delta.version() >= since + 3);
+        assertEquals(1, delta.nodes().upserted().size());
+        assertEquals("Delta node renamed", delta.nodes().upserted().get(0).name());
+        assertEquals(link.getId(), delta.relations().upserted().get(0).id());
+
+        long afterCreate = delta.version();
+        nodeResource.deleteNode(created.getId());
+
+        GraphDelta deletion = (GraphDelta) resource.getChanges(afterCreate).getEntity();
+        assertEquals(List.of(created.getId()), deletion.nodes().deleted());
+        assertEquals(List.of(link.getId()), deletion.relations().deleted());
+        assertTrue(deletion.nodes().upserted().isEmpty());
+    }
+
+    @Test
+    void testGetChanges_ResetWhenVersionUnknown() {
+        GraphDelta delta = (GraphDelta) resource.getChanges(Long.MAX_VALUE).getEntity();
+        assertTrue(delta.reset());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), resource.getChanges(null).getStatus());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetEdges_ReadsAdjacencyIndex() {
+        List<GraphEdge> outgoing = (List<GraphEdge>) resource.getEdges(source.getId(), "out").getEntity();
+        assertTrue(outgoing.stream().anyMatch(e -> e.id().equals(relation.getId())
+                && e.target().equals(target.getId())));
+
+        List<GraphEdge> incoming = (List<GraphEdge>) resource.getEdges(target.getId(), "in").getEntity();
+        assertTrue(incoming.stream().allMatch(e -> e.target().equals(target.getId())));
+        assertTrue(incoming.stream().anyMatch(e -> e.id().equals(relation.getId())));
+
+        assertEquals(Response.Status.NOT_FOUND.getStatusCode(), resource.getEdges(99999L, "both").getStatus());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), resource.getEdges(source.getId(), "up").getStatus());
+    }
+
+    @Test
+    void testGetPath_AndNeighbourhood() {
+        GraphPath path = (GraphPath) resource.getPath(source.getId(), target.getId(), null, false, true).getEntity();
+        assertEquals(Traversal.Outcome.FOUND, path.outcome());
+        assertEquals(1, path.hops());
+        assertEquals(List.of(source.getId(), target.getId()), path.nodes().stream().map(n -> n.id()).toList());
+
+        GraphPath backwards = (GraphPath) resource.getPath(target.getId(), source.getId(), 3, true, true).getEntity();
+        assertEquals(Traversal.Outcome.NOT_FOUND, backwards.outcome());
+        assertTrue(backwards.nodes().isEmpty());
+
+        GraphNeighbourhood around = (GraphNeighbourhood) resource.getNeighbourhood(source.getId(), 1, "out", null).getEntity();
+        assertEquals(0, around.distances().get(source.getId()));
+        assertEquals(1, around.distances().get(target.getId()));
+        assertTrue(around.edges().stream().anyMatch(e -> e.id().equals(relation.getId())));
+
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(),
+                resource.getPath(source.getId(), null, null, false, true).getStatus());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(),
+                resource.getNeighbourhood(source.getId(), 99, "both", null).getStatus());
+    }
+
+    @Test
+    void testGetAnalytics_RanksNodes() {
+        GraphAnalytics analytics = (GraphAnalytics) resource.getAnalytics(5).getEntity();
+        assertTrue(analytics.nodes() >= 2);
+        assertTrue(analytics.degree().size() <= 5);
+        assertTrue(analytics.degree().get(0).score() >= analytics.degree().get(analytics.degree().size() - 1).score());
+
+        GraphNeighbourhood downstream = (GraphNeighbourhood) resource.getBlastRadius(source.getId(), null).getEntity();
+        assertTrue(downstream.distances().containsKey(target.getId()));
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), resource.getAnalytics(0).getStatus());
+    }
+}
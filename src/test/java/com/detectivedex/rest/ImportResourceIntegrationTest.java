@@ -0,0 +1,80 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.dto.ImportReport;
+import com.detectivedex.dto.RelationSummary;
+import com.detectivedex.entity.EvidenceNode;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour ImportResource
+ */
+class ImportResourceIntegrationTest {
+
+    private static ImportResource resource;
+
+    @BeforeAll
+    static void setUp() {
+        resource = new ImportResource();
+    }
+
+    @Test
+    void testImportJson_ResolvesTemporaryRefs() {
+        String payload = "["
+                + "{\"type\":\"node\",\"ref\":\"ioc\",\"name\":\"evil.example\",\"nodeType\":\"IOC\",\"severity\":\"high\"},"
+                + "{\"type\":\"node\",\"ref\":\"host\",\"name\":\"srv-01\",\"nodeType\":\"ENDPOINT\",\"severity\":\"LOW\"},"
+                + "{\"type\":\"relation\",\"source\":\"ioc\",\"target\":\"host\",\"relationType\":\"RELATED_TO\"},"
+                + "{\"type\":\"event\",\"node\":\"host\",\"title\":\"Beacon\",\"eventDate\":\"2024-03-01T10:15:00\"}"
+                + "]";
+
+        ImportReport report = (ImportReport) resource.importJson(stream(payload)).getEntity();
+        assertEquals(4, report.received());
+        assertEquals(2, report.importedNodes());
+        assertEquals(1, report.importedRelations());
+        assertEquals(1, report.importedEvents());
+        assertEquals(0, report.failed());
+
+        Long iocId = report.ids().get("ioc");
+        Long hostId = report.ids().get("host");
+        EvidenceNode ioc = (EvidenceNode) new EvidenceNodeResource().getNodeById(iocId).getEntity();
+        assertEquals("evil.example", ioc.getName());
+
+        @SuppressWarnings("unchecked")
+        List<RelationSummary> relations = (List<RelationSummary>) new RelationResource()
+                .getRelationsFromNode(iocId, null).getEntity();
+        assertEquals(hostId, relations.get(0).targetNodeId());
+    }
+
+    @Test
+    void testImportNdjson_ReportsInvalidRecordsAndContinues() {
+        String payload = String.join("\n",
+                "{\"type\":\"node\",\"ref\":\"a\",\"name\":\"A\",\"nodeType\":\"BUG\",\"severity\":\"LOW\"}",
+                "{\"type\":\"node\",\"ref\":\"b\",\"name\":\"B\",\"nodeType\":\"NOT_A_TYPE\",\"severity\":\"LOW\"}",
+                "{\"type\":\"relation\",\"source\":\"a\",\"target\":\"missing\",\"relationType\":\"CAUSES\"}",
+                "{\"type\":\"relation\",\"source\":\"a\",\"target\":999999999,\"relationType\":\"CAUSES\"}",
+                "{\"type\":\"unknown\"}");
+
+        ImportReport report = (ImportReport) resource.importNdjson(stream(payload)).getEntity();
+        assertEquals(5, report.received());
+        assertEquals(1, report.importedNodes());
+        assertEquals(0, report.importedRelations());
+        assertEquals(4, report.failed());
+        assertEquals(List.of(1, 2, 3, 4), report.errors().stream().map(ImportReport.RecordError::index).toList());
+    }
+
+    @Test
+    void testImportJson_EmptyPayload() {
+        Response response = resource.importJson(stream(""));
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+    }
+
+    private static ByteArrayInputStream stream(String payload) {
+        return new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
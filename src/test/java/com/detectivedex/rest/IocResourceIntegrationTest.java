@@ -0,0 +1,67 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.dto.IocLookupReport;
+import com.detectivedex.dto.IocLookupResult;
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.SeverityLevel;
+import com.detectivedex.entity.TimelineEvent;
+import com.detectivedex.ioc.IndicatorType;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour IocResource
+ */
+class IocResourceIntegrationTest {
+
+    private final IocResource resource = new IocResource();
+    private final EvidenceNodeResource nodes = new EvidenceNodeResource();
+
+    @Test
+    void testLookup_FindsIndicatorsAndFollowsWrites() {
+        EvidenceNode created = new EvidenceNode("C2 203.0.113.45", NodeType.IOC, SeverityLevel.HIGH);
+        created.setDescription("Résout lookup-c2.example.net");
+        EvidenceNode node = (EvidenceNode) nodes.createNode(created).getEntity();
+
+        IocLookupReport report = lookup("203.0.113.45", "lookup-c2[.]example[.]net", "203.0.113.0/24", "not an ioc");
+        assertEquals(4, report.requested());
+        assertEquals(3, report.found());
+        IocLookupResult byIp = report.results().get(0);
+        assertEquals(IndicatorType.IPV4, byIp.type());
+        assertEquals(List.of(node.getId()), byIp.nodeIds());
+        assertEquals("lookup-c2.example.net", report.results().get(1).normalized());
+        assertEquals(List.of(node.getId()), report.results().get(2).nodeIds());
+        assertNull(report.results().get(3).type());
+        assertFalse(report.results().get(3).found());
+
+        // Les preuves des événements créés ensuite sont indexées à la recherche suivante
+        TimelineEvent event = new TimelineEvent(node, "Exfiltration", LocalDateTime.now(), "CONFIRMED");
+        event.setEvidence("POST hxxp://lookup-c2.example.net/upload");
+        TimelineEvent createdEvent = (TimelineEvent) new TimelineResource().createEvent(event).getEntity();
+        IocLookupResult byDomain = lookup("LOOKUP-C2.EXAMPLE.NET").results().get(0);
+        assertEquals(List.of(node.getId()), byDomain.nodeIds());
+        assertEquals(List.of(createdEvent.getId()), byDomain.eventIds());
+
+        nodes.deleteNode(node.getId());
+        assertEquals(0, lookup("203.0.113.45", "lookup-c2.example.net").found());
+    }
+
+    @Test
+    void testLookup_RejectsEmptyAndOversizedRequests() {
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), resource.lookup(null).getStatus());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), resource.lookup(List.of()).getStatus());
+        List<String> tooMany = Collections.nCopies(IocResource.MAX_INDICATORS + 1, "10.0.0.1");
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), resource.lookup(tooMany).getStatus());
+    }
+
+    private IocLookupReport lookup(String... indicators) {
+        return (IocLookupReport) resource.lookup(List.of(indicators)).getEntity();
+    }
+}
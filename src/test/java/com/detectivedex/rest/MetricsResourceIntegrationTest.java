@@ -0,0 +1,58 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.observability.RequestMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour MetricsResource
+ */
+class MetricsResourceIntegrationTest {
+
+    private final MetricsResource resource = new MetricsResource();
+
+    @Test
+    void testMetrics_ExposesRequestLatencyAndErrors() {
+        for (int i = 1; i <= 100; i++) {
+            RequestMetrics.record("MetricsTest.list", 200, TimeUnit.MILLISECONDS.toNanos(i), 1000);
+        }
+        RequestMetrics.record("MetricsTest.list", 404, TimeUnit.MILLISECONDS.toNanos(1), 30);
+        RequestMetrics.record("MetricsTest.list", 500, TimeUnit.SECONDS.toNanos(2), 0);
+
+        String metrics = (String) resource.getMetrics().getEntity();
+        assertTrue(metrics.contains("# TYPE detectivedex_http_request_duration_seconds summary"), metrics);
+        assertTrue(metrics.contains("detectivedex_http_request_duration_seconds_count{operation=\"MetricsTest.list\"} 102"));
+        assertTrue(metrics.contains("detectivedex_http_errors_total{operation=\"MetricsTest.list\",class=\"4xx\"} 1"));
+        assertTrue(metrics.contains("detectivedex_http_errors_total{operation=\"MetricsTest.list\",class=\"5xx\"} 1"));
+        assertTrue(metrics.contains("detectivedex_http_response_bytes_total{operation=\"MetricsTest.list\"} 100030"));
+
+        double median = sample(metrics, "detectivedex_http_request_duration_seconds{operation=\"MetricsTest.list\",quantile=\"0.5\"}");
+        assertEquals(0.051, median, 0.002);
+        double max = sample(metrics, "detectivedex_http_request_duration_max_seconds{operation=\"MetricsTest.list\"}");
+        assertEquals(2.0, max, 0.02);
+    }
+
+    @Test
+    void testMetrics_ExposesHibernatePoolAndJvm() {
+        new EvidenceNodeResource().getAllNodes(null, null, null);
+
+        String metrics = (String) resource.getMetrics().getEntity();
+        assertTrue(sample(metrics, "detectivedex_hibernate_sessions_opened_total") > 0);
+        assertTrue(sample(metrics, "detectivedex_pool_connections_max") >= 1);
+        assertTrue(metrics.contains("detectivedex_pool_connections{state=\"idle\"}"));
+        assertTrue(sample(metrics, "jvm_memory_bytes{area=\"heap\",kind=\"used\"}") > 0);
+        assertTrue(metrics.contains("# TYPE jvm_gc_collections_total counter"));
+    }
+
+    private static double sample(String metrics, String series) {
+        for (String line : metrics.split("\n")) {
+            if (line.startsWith(series + " ")) {
+                return Double.parseDouble(line.substring(series.length() + 1));
+            }
+        }
+        return fail("Missing series " + series);
+    }
+}
@@ -0,0 +1,78 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.dto.RelationSummary;
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.Relation;
+import com.detectivedex.entity.SeverityLevel;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour RelationResource
+ */
+class RelationResourceIntegrationTest {
+
+    private static RelationResource resource;
+    private static ObjectMapper mapper;
+    private static EvidenceNode source;
+    private static EvidenceNode target;
+    private static Relation relation;
+
+    @BeforeAll
+    static void setUp() {
+        resource = new RelationResource();
+        mapper = new JacksonConfig().getContext(Object.class);
+        EvidenceNodeResource nodes = new EvidenceNodeResource();
+        source = (EvidenceNode) nodes.createNode(
+                new EvidenceNode("Relation source", NodeType.ATTACKER, SeverityLevel.HIGH)).getEntity();
+        target = (EvidenceNode) nodes.createNode(
+                new EvidenceNode("Relation target", NodeType.ENDPOINT, SeverityLevel.MEDIUM)).getEntity();
+        relation = (Relation) resource.createRelation(new Relation(source, target, "EXPLOITS")).getEntity();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetRelationsFromNode_ReturnsSummaries() {
+        Response response = resource.getRelationsFromNode(source.getId(), null);
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+        List<RelationSummary> relations = (List<RelationSummary>) response.getEntity();
+        assertEquals(1, relations.size());
+        assertEquals(relation.getId(), relations.get(0).id());
+        assertEquals(source.getId(), relations.get(0).sourceNodeId());
+        assertEquals(target.getId(), relations.get(0).targetNodeId());
+    }
+
+    @Test
+    void testGetAllRelations_ExpandNodes() throws Exception {
+        Response response = resource.getAllRelations(null, null, null, RelationResource.EXPAND_NODES);
+        JsonNode relations = mapper.readTree(mapper.writeValueAsBytes(response.getEntity()));
+
+        JsonNode found = null;
+        for (JsonNode item : relations) {
+            if (item.get("id").asLong() == relation.getId()) {
+                found = item;
+            }
+        }
+        assertNotNull(found);
+        assertEquals("Relation source", found.get("sourceNode").get("name").asText());
+        assertEquals("Relation target", found.get("targetNode").get("name").asText());
+    }
+
+    @Test
+    void testGetRelationById_SerializesNodesOutsideSession() throws Exception {
+        Response response = resource.getRelationById(relation.getId());
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsBytes(response.getEntity()));
+        assertEquals(source.getId().longValue(), json.get("sourceNode").get("id").asLong());
+        assertEquals(target.getId().longValue(), json.get("targetNode").get("id").asLong());
+    }
+}
@@ -0,0 +1,141 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.Relation;
+import com.detectivedex.entity.SeverityLevel;
+import com.detectivedex.entity.TimelineEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour ReportResource
+ */
+class ReportResourceIntegrationTest {
+
+    private static ReportResource resource;
+    private static EvidenceNode source;
+    private static EvidenceNode target;
+    private static Relation relation;
+
+    @BeforeAll
+    static void setUp() {
+        resource = new ReportResource();
+        EvidenceNodeResource nodes = new EvidenceNodeResource();
+        source = (EvidenceNode) nodes.createNode(
+                new EvidenceNode("Report \"source\"", NodeType.VULNERABILITY, SeverityLevel.CRITICAL)).getEntity();
+        target = (EvidenceNode) nodes.createNode(
+                new EvidenceNode("Report target", NodeType.IMPACT, SeverityLevel.LOW)).getEntity();
+
+        Relation toCreate = new Relation(source, target, "CAUSES");
+        relation = (Relation) new RelationResource().createRelation(toCreate).getEntity();
+        new TimelineResource().createEvent(
+                new TimelineEvent(source, "Exploit <observed>", LocalDateTime.of(2024, 3, 1, 10, 0), "EXPLOITED"));
+    }
+
+    @Test
+    void testExportJsonReport_StreamsNodesAndRelations() throws Exception {
+        Response response = resource.exportJsonReport();
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertInstanceOf(StreamingOutput.class, response.getEntity());
+
+        JsonNode report = readJson(response);
+        assertTrue(report.get("nodeCount").asLong() >= 2);
+        assertEquals(report.get("nodeCount").asLong(), report.get("nodes").size());
+        assertEquals(report.get("relationCount").asLong(), report.get("relations").size());
+
+        JsonNode exportedSource = findById(report.get("nodes"), source.getId());
+        assertNotNull(exportedSource);
+        assertEquals("Report \"source\"", exportedSource.get("name").asText());
+        assertEquals("VULNERABILITY", exportedSource.get("nodeType").asText());
+        assertEquals("CRITICAL", exportedSource.get("severity").asText());
+        assertEquals("CRITICAL", exportedSource.get("effectiveSeverity").asText());
+        // Relation non confirmée, sans confiance : LOW remonte atténuée vers la cause CRITICAL
+        assertEquals("LOW", findById(report.get("nodes"), target.getId()).get("effectiveSeverity").asText());
+
+        JsonNode exportedRelation = findById(report.get("relations"), relation.getId());
+        assertNotNull(exportedRelation);
+        assertEquals(source.getId().longValue(), exportedRelation.get("sourceNodeId").asLong());
+        assertEquals(target.getId().longValue(), exportedRelation.get("targetNodeId").asLong());
+        assertFalse(exportedRelation.get("confirmed").asBoolean());
+    }
+
+    @Test
+    void testExportHtmlReport_StreamsSeverityGroupsAndOptionalSections() throws Exception {
+        Response response = resource.exportHtmlReport(false, false);
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertInstanceOf(StreamingOutput.class, response.getEntity());
+
+        String html = readText(response);
+        assertTrue(html.startsWith("<!DOCTYPE html>"));
+        assertTrue(html.endsWith("</html>"));
+        assertTrue(html.contains("<h3>Report &quot;source&quot;</h3>"));
+        // Groupes dans l'ordre des sévérités, et non dans l'ordre alphabétique
+        assertTrue(html.indexOf("<h3>Critique (") < html.indexOf("<h3>Bas ("));
+        assertTrue(html.indexOf("Report &quot;source&quot;") < html.indexOf("Report target"));
+        assertFalse(html.contains("<h2>Relations</h2>"));
+        assertFalse(html.contains("Exploit &lt;observed&gt;"));
+
+        String full = readText(resource.exportHtmlReport(true, true));
+        assertTrue(full.contains("<h2>Relations</h2>"));
+        assertTrue(full.contains("<td>Report &quot;source&quot;</td><td>CAUSES</td><td>Report target</td>"));
+        assertTrue(full.contains("<li>2024-03-01T10:00 - EXPLOITED : Exploit &lt;observed&gt;</li>"));
+        // Un nœud sans événement n'a pas de chronologie, et chaque nœud n'apparaît qu'une fois
+        assertEquals(html.split("class=\"node-item ", -1).length, full.split("class=\"node-item ", -1).length);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetStatistics_AggregatesCounts() {
+        Response response = resource.getStatistics();
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+        Map<String, Object> stats = (Map<String, Object>) response.getEntity();
+        Map<String, Long> bySeverity = (Map<String, Long>) stats.get("nodesBySeverity");
+        Map<String, Long> byType = (Map<String, Long>) stats.get("nodesByType");
+        Map<String, Long> relationsByType = (Map<String, Long>) stats.get("relationsByType");
+
+        assertEquals(SeverityLevel.values().length, bySeverity.size());
+        assertTrue(bySeverity.get("CRITICAL") >= 1);
+        assertTrue(byType.get("IMPACT") >= 1);
+        assertTrue(relationsByType.get("CAUSES") >= 1);
+        assertEquals(stats.get("totalNodes"), bySeverity.values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(((Map<String, Long>) stats.get("nodesByStatus")).containsKey("IN_PROGRESS"));
+
+        Map<String, Long> byEffectiveSeverity = (Map<String, Long>) stats.get("nodesByEffectiveSeverity");
+        assertEquals(SeverityLevel.values().length, byEffectiveSeverity.size());
+        assertTrue(byEffectiveSeverity.get("CRITICAL") >= 1);
+        assertTrue((Long) stats.get("escalatedNodes") >= 0);
+    }
+
+    static JsonNode readJson(Response response) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        return new ObjectMapper().readTree(output.toByteArray());
+    }
+
+    private static String readText(Response response) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private static JsonNode findById(JsonNode array, Long id) {
+        for (JsonNode item : array) {
+            if (item.get("id").asLong() == id) {
+                return item;
+            }
+        }
+        return null;
+    }
+}
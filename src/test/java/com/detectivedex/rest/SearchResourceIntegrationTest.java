@@ -0,0 +1,71 @@
+package com.detectivedex.rest;
+
+import com.detectivedex.dto.SearchHit;
+import com.detectivedex.dto.SearchResult;
+import com.detectivedex.entity.EvidenceNode;
+import com.detectivedex.entity.NodeType;
+import com.detectivedex.entity.SeverityLevel;
+import com.detectivedex.entity.TimelineEvent;
+import com.detectivedex.graph.ChangeKind;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour SearchResource
+ */
+class SearchResourceIntegrationTest {
+
+    private static SearchResource resource;
+    private static EvidenceNodeResource nodes;
+    private static EvidenceNode node;
+
+    @BeforeAll
+    static void setUp() {
+        resource = new SearchResource();
+        nodes = new EvidenceNodeResource();
+        EvidenceNode created = new EvidenceNode("Searchable beacon", NodeType.IOC, SeverityLevel.HIGH);
+        created.setDescription("Callback vers search-c2.example.org");
+        node = (EvidenceNode) nodes.createNode(created).getEntity();
+    }
+
+    @Test
+    void testSearch_FindsNodesAndFollowsWrites() {
+        SearchResult result = (SearchResult) resource.search("search-c2.example.org", null, null).getEntity();
+        assertEquals(1, result.total());
+        SearchHit hit = result.hits().get(0);
+        assertEquals(ChangeKind.NODE, hit.kind());
+        assertEquals(node.getId(), hit.id());
+        assertEquals("Searchable beacon", hit.title());
+        assertEquals("Callback vers <mark>search-c2.example.org</mark>", hit.highlights().get("description"));
+
+        // Les événements créés ensuite sont indexés à la recherche suivante
+        TimelineEvent event = new TimelineEvent(node, "Beacon searchable confirmé", LocalDateTime.now(), "CONFIRMED");
+        event.setEvidence("sha256 5e884898da28047151d0e56f8dc6292773603d0d6aabbdd62a11ef721d1542d8");
+        TimelineEvent created = (TimelineEvent) new TimelineResource().createEvent(event).getEntity();
+
+        SearchResult byHash = (SearchResult) resource.search(
+                "5E884898DA28047151D0E56F8DC6292773603D0D6AABBDD62A11EF721D1542D8", "event", 5).getEntity();
+        assertEquals(1, byHash.total());
+        assertEquals(created.getId(), byHash.hits().get(0).id());
+        assertEquals(node.getId(), byHash.hits().get(0).nodeId());
+
+        SearchResult both = (SearchResult) resource.search("searchable beacon", null, null).getEntity();
+        assertEquals(2, both.total());
+
+        nodes.deleteNode(node.getId());
+        SearchResult deleted = (SearchResult) resource.search("searchable", null, null).getEntity();
+        assertEquals(0, deleted.total());
+    }
+
+    @Test
+    void testSearch_RejectsInvalidParameters() {
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), resource.search(" ", null, null).getStatus());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), resource.search("x", "planet", null).getStatus());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), resource.search("x", null, 0).getStatus());
+    }
+}
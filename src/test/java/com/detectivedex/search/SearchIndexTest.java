@@ -0,0 +1,118 @@
+package com.detectivedex.search;
+
+import com.detectivedex.graph.ChangeKind;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du découpage, de l'index inversé et des extraits, sans base de données
+ */
+class SearchIndexTest {
+
+    private static final Set<ChangeKind> ALL = EnumSet.allOf(ChangeKind.class);
+
+    @Test
+    void testTokenizer_KeepsIndicatorsWholeAndFoldsAccents() {
+        assertEquals(List.of("connexion", "a", "evil", "cdn", "example", "com", "evil-cdn.example.com",
+                        "depuis", "10", "0", "0", "7", "10.0.0.7"),
+                tokens("Connexion à evil-cdn.example.com depuis 10.0.0.7."));
+        assertTrue(Tokenizer.terms("Événement Réseau").containsAll(Set.of("evenement", "reseau")));
+    }
+
+    @Test
+    void testStore_RequiresAllTermsAndRanksByRelevance() {
+        SearchIndex.Store store = new SearchIndex.Store();
+        store.put(ChangeKind.NODE, new Object[] {1L, "Beacon", "Trafic vers evil-cdn.example.com"});
+        store.put(ChangeKind.NODE, new Object[] {2L, "Serveur web", "Beacon secondaire"});
+        store.put(ChangeKind.EVENT, new Object[] {3L, "Alerte EDR", null, "sha256 9f86d081884c7d65"});
+        store.put(ChangeKind.RELATION, new Object[] {4L, "beacon observé sur le serveur"});
+        SearchIndex.View view = store.publish();
+
+        // Le nom pèse plus que la description
+        SearchIndex.Result beacon = view.search(Tokenizer.terms("beacon"), ALL, 10);
+        assertEquals(3, beacon.total());
+        assertEquals(1L, beacon.hits().get(0).entityId());
+
+        SearchIndex.Result both = view.search(Tokenizer.terms("beacon serveur"), ALL, 10);
+        assertEquals(2, both.total());
+
+        // Indicateur exact, puis domaine sans son sous-domaine (remplacé par ses parties)
+        assertEquals(1, view.search(Tokenizer.terms("EVIL-CDN.example.com"), ALL, 10).total());
+        assertEquals(1, view.search(Tokenizer.terms("example.com"), ALL, 10).total());
+        assertEquals(3L, view.search(Tokenizer.terms("9f86d081884c7d65"), ALL, 10).hits().get(0).entityId());
+
+        assertEquals(1, view.search(Tokenizer.terms("beacon"), EnumSet.of(ChangeKind.RELATION), 10).total());
+        assertEquals(1, view.search(Tokenizer.terms("beacon"), ALL, 1).hits().size());
+        assertEquals(0, view.search(Tokenizer.terms("absent"), ALL, 10).total());
+    }
+
+    @Test
+    void testStore_UpdateAndRemoveKeepPostingsConsistent() {
+        SearchIndex.Store store = new SearchIndex.Store();
+        for (long id = 0; id < 3000; id++) {
+            store.put(ChangeKind.NODE, new Object[] {id, "node " + id, id % 2 == 0 ? "even" : "odd"});
+        }
+        for (long id = 0; id < 3000; id += 2) {
+            store.remove(ChangeKind.NODE, id);
+        }
+        store.put(ChangeKind.NODE, new Object[] {1L, "node 1", "renamed"});
+        store.compactIfNeeded();
+        SearchIndex.View view = store.publish();
+
+        assertEquals(0, view.search(Tokenizer.terms("even"), ALL, 10).total());
+        assertEquals(1499, view.search(Tokenizer.terms("odd"), ALL, 10).total());
+        assertEquals(1L, view.search(Tokenizer.terms("renamed"), ALL, 10).hits().get(0).entityId());
+        assertEquals(1, view.search(Tokenizer.terms("node 2999"), ALL, 10).total());
+    }
+
+    @Test
+    void testView_UnchangedByLaterWrites() {
+        SearchIndex.Store store = new SearchIndex.Store();
+        for (long id = 0; id < 2000; id++) {
+            store.put(ChangeKind.NODE, new Object[] {id, "node " + id, "before"});
+        }
+        SearchIndex.View before = store.publish();
+
+        store.put(ChangeKind.NODE, new Object[] {2000L, "node 2000", "before"});
+        store.remove(ChangeKind.NODE, 0L);
+        SearchIndex.View added = store.publish();
+        for (long id = 1; id < 2000; id++) {
+            store.put(ChangeKind.NODE, new Object[] {id, "node " + id, "after"});
+        }
+        store.compactIfNeeded();
+        SearchIndex.View after = store.publish();
+
+        assertEquals(2000, before.search(Tokenizer.terms("before"), ALL, 10).total());
+        assertEquals(1, before.search(Tokenizer.terms("node 0"), ALL, 10).total());
+        assertEquals(2000, added.search(Tokenizer.terms("before"), ALL, 10).total());
+        assertEquals(0, added.search(Tokenizer.terms("node 0"), ALL, 10).total());
+        assertEquals(1, after.search(Tokenizer.terms("before"), ALL, 10).total());
+        assertEquals(1999, after.search(Tokenizer.terms("after"), ALL, 10).total());
+        assertEquals(0, before.search(Tokenizer.terms("after"), ALL, 10).total());
+    }
+
+    @Test
+    void testHighlighter_MarksMatchesAndEscapesHtml() {
+        assertEquals("&lt;b&gt; vers <mark>evil-cdn.example.com</mark> &amp; <mark>10.0.0.7</mark>",
+                Highlighter.highlight("<b> vers evil-cdn.example.com & 10.0.0.7",
+                        Tokenizer.terms("evil-cdn.example.com 10.0.0.7")));
+        assertNull(Highlighter.highlight("rien ici", Set.of("beacon")));
+
+        String longText = "x ".repeat(200) + "beacon" + " y".repeat(200);
+        String fragment = Highlighter.highlight(longText, Set.of("beacon"));
+        assertTrue(fragment.startsWith("…") && fragment.endsWith("…"));
+        assertTrue(fragment.contains("<mark>beacon</mark>"));
+    }
+
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        Tokenizer.tokenize(text, (term, start, end) -> tokens.add(term));
+        return tokens;
+    }
+}